@@ -0,0 +1,113 @@
+package streams.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import streams.window.Windows;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Zahlen in eine Senke schreiben (ein FileChannel, jeder write ein Systemaufruf): einzeln gegen in Blöcken
+ * von batchSize Werten ({@link Windows}).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class BatchSinkBenchmark {
+
+    @Param({"100000"})
+    public int size;
+
+    @Param({"16", "1024"})
+    public int batchSize;
+
+    private int[] numbers;
+    private Path file;
+    private FileChannel channel;
+    private ByteBuffer single;
+    private ByteBuffer block;
+
+    @Setup
+    public void setup() throws IOException {
+        numbers = BenchmarkData.ints(size, 1000);
+        file = Files.createTempFile("sink", ".bin");
+        single = ByteBuffer.allocateDirect(Integer.BYTES);
+        block = ByteBuffer.allocateDirect(batchSize * Integer.BYTES);
+    }
+
+    @Setup(Level.Invocation)
+    public void open() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    @TearDown(Level.Invocation)
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    @TearDown
+    public void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private void write(ByteBuffer buffer) {
+        try {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Benchmark
+    public long perElement() throws IOException {
+        Arrays.stream(numbers).forEach(v -> write(single.putInt(v)));
+        return channel.position();
+    }
+
+    @Benchmark
+    public long batchArrays() throws IOException {
+        Windows.batch(Arrays.stream(numbers), batchSize).forEach(batch -> {
+            for (int v : batch) {
+                block.putInt(v);
+            }
+            write(block);
+        });
+        return channel.position();
+    }
+
+    @Benchmark
+    public long forEachBatch() throws IOException {
+        Windows.forEachBatch(Arrays.stream(numbers), batchSize, (buffer, length) -> {
+            block.asIntBuffer().put(buffer, 0, length);
+            block.position(length * Integer.BYTES);
+            write(block);
+        });
+        return channel.position();
+    }
+}
@@ -0,0 +1,120 @@
+package streams.bench;
+
+import streams.ExamplesCollectors;
+import streams.Person;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Erzeugt reproduzierbare Eingabedaten beliebiger Größe für die Benchmarks.
+ * Die Werte orientieren sich an den Daten der Beispielklassen (Zahlen, Stimmen, Personen, Genesis-Text).
+ */
+public final class BenchmarkData {
+
+    private static final long SEED = 42;
+
+    /** Vokabular aus dem Genesis-Text in {@link ExamplesCollectors} */
+    public static final String[] VOCABULARY = ExamplesCollectors.GENESIS.split("[\\P{Alpha}]+");
+
+    private static final String[] FIRST_NAMES = {
+        "Susanne", "Manuel", "Peter", "Willibald", "Hannes", "Hubert", "Sandro", "Karli", "Susi", "Ottokar"
+    };
+
+    private static final String[] LAST_NAMES = {
+        "Sonnenschein", "Mondlicht", "Wunderlich", "Hohensang", "Haus", "Sternenstaub", "Regenbogen", "Morgenrot"
+    };
+
+    private BenchmarkData() {
+    }
+
+    /** Zahlen zwischen 0 und bound (exklusive) */
+    public static int[] ints(int size, int bound) {
+        return new SplittableRandom(SEED).ints(size, 0, bound).toArray();
+    }
+
+    /** wie {@link #ints(int, int)}, aber als Liste von Integer-Objekten (siehe secondExample) */
+    public static List<Integer> integers(int size, int bound) {
+        int[] values = ints(size, bound);
+        List<Integer> list = new ArrayList<>(size);
+        for (int value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    /** Worte aus dem Genesis-Text in zufälliger Reihenfolge */
+    public static List<String> words(int size) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<String> words = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            words.add(VOCABULARY[random.nextInt(VOCABULARY.length)]);
+        }
+        return words;
+    }
+
+    /**
+     * Textdatei (UTF-8) mit etwa bytes Bytes aus Worten und Satzzeichen des Genesis-Texts.
+     * Die Datei wird beim Beenden der JVM gelöscht.
+     */
+    public static Path textFile(long bytes) throws IOException {
+        String[] tokens = ExamplesCollectors.GENESIS.split(" ");
+        SplittableRandom random = new SplittableRandom(SEED);
+        Path file = Files.createTempFile("corpus", ".txt");
+        file.toFile().deleteOnExit();
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            long written = 0;
+            while (written < bytes) {
+                String token = tokens[random.nextInt(tokens.length)];
+                out.write(token);
+                out.write(random.nextInt(12) == 0 ? '\n' : ' ');
+                written += token.length() + 1;
+            }
+        }
+        return file;
+    }
+
+    /** Stimmen je Partei, wie votes in More_about_Streams.mapsAndStreams */
+    public static Map<String, Integer> votes(int size) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        Map<String, Integer> votes = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            votes.put("Party " + i, random.nextInt(5000));
+        }
+        return votes;
+    }
+
+    /** Personen mit wenigen verschiedenen Nachnamen und einer Größe zwischen 100 und 210 cm */
+    public static List<Person> people(int size) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<Person> people = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            people.add(new Person(
+                FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                100 + random.nextInt(111)));
+        }
+        return people;
+    }
+
+    /**
+     * Stammbaum aus size Personen: die erste ist die Wurzel, jede weitere ist Kind einer zufälligen der
+     * letzten maxDistance Personen davor (kleines maxDistance ergibt tiefe Bäume).
+     */
+    public static Person family(int size, int maxDistance) {
+        List<Person> people = people(size);
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 1; i < size; i++) {
+            people.get(i - 1 - random.nextInt(Math.min(i, maxDistance))).addChild(people.get(i));
+        }
+        return people.get(0);
+    }
+}
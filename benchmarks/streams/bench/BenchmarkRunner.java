@@ -0,0 +1,41 @@
+package streams.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * Startet die Benchmarks immer mit dem GC-Profiler, damit neben ops/s auch die Allokationsrate
+ * (gc.alloc.rate.norm = Bytes pro Operation) ausgegeben wird.
+ *
+ * Aufruf nach {@code mvn package}:
+ * <pre>
+ *   java -jar target/benchmarks.jar                          alle Benchmarks
+ *   java -jar target/benchmarks.jar WordPipeline -p size=1000 nur eine Klasse, nur eine Größe
+ * </pre>
+ * Alle weiteren Optionen entsprechen denen von {@code org.openjdk.jmh.Main} (siehe {@code -h}).
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws IOException, RunnerException, CommandLineOptionException {
+        CommandLineOptions cmdOptions = new CommandLineOptions(args);
+        if (cmdOptions.shouldHelp()) {
+            cmdOptions.showHelp();
+            return;
+        }
+        if (cmdOptions.shouldList()) {
+            new Runner(cmdOptions).list();
+            return;
+        }
+
+        new Runner(new OptionsBuilder()
+            .parent(cmdOptions)
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
@@ -0,0 +1,76 @@
+package streams.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import streams.text.CharPipeline;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * More_about_Streams.tryYourself: jedes 'a' durch 'e' ersetzen, über chars()/mapToObj/joining gegen
+ * {@link CharPipeline}. Der Text enthält auch Zeichen außerhalb der BMP (Surrogate-Paare).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class CharPipelineBenchmark {
+
+    private static final CharPipeline REPLACE_A = CharPipeline.identity().map(c -> c == 'a' ? 'e' : c);
+
+    @Param({"100", "10000", "1000000"})
+    public int size;
+
+    private String payload;
+    private StringBuilder builder;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        StringBuilder text = new StringBuilder(size);
+        while (text.length() < size) {
+            text.append(BenchmarkData.VOCABULARY[random.nextInt(BenchmarkData.VOCABULARY.length)]);
+            text.append(random.nextInt(50) == 0 ? "\uD83D\uDE00 " : " ");
+        }
+        payload = text.toString();
+        builder = new StringBuilder(payload.length());
+    }
+
+    @Benchmark
+    public String charsToObj() {
+        return payload.chars()
+            .map(c -> c == 'a' ? 'e' : c)
+            .mapToObj(c -> String.valueOf(Character.toChars(c))).collect(Collectors.joining());
+    }
+
+    @Benchmark
+    public String charsToStringConcat() {
+        return payload.chars()
+            .map(c -> c == 'a' ? 'e' : c)
+            .mapToObj(c -> "" + (char) c).collect(Collectors.joining());
+    }
+
+    @Benchmark
+    public String pipelineApply() {
+        return REPLACE_A.apply(payload);
+    }
+
+    @Benchmark
+    public int pipelineReusedBuilder() {
+        builder.setLength(0);
+        return REPLACE_A.appendTo(payload, builder).length();
+    }
+}
@@ -0,0 +1,76 @@
+package streams.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import streams.Person;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kinder vieler Personen, von denen die meisten kein oder ein Kind haben: Aufbau mit addChild und Durchlauf mit
+ * flatMap bzw. mapMulti.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ChildrenBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private List<Person> parents;
+    private List<Person> children;
+
+    @Setup
+    public void setup() {
+        parents = BenchmarkData.people(size);
+        children = BenchmarkData.people(size);
+        addChildren(parents);
+    }
+
+    /** jede zweite Person bekommt ein Kind, jede zehnte drei */
+    private void addChildren(List<Person> people) {
+        for (int i = 0; i < people.size(); i += 2) {
+            people.get(i).addChild(children.get(i));
+            if (i % 10 == 0) {
+                people.get(i).addChild(children.get(i + 1));
+                people.get(i).addChild(children.get((i + 2) % size));
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Person> addChild() {
+        List<Person> people = BenchmarkData.people(size);
+        addChildren(people);
+        return people;
+    }
+
+    @Benchmark
+    public long flatMapChildrenOrEmpty() {
+        return parents.stream().flatMap(p -> p.getChildrenOrEmpty().stream()).mapToInt(Person::getHeight).sum();
+    }
+
+    @Benchmark
+    public long flatMapChildren() {
+        return parents.stream().flatMap(Person::children).mapToInt(Person::getHeight).sum();
+    }
+
+    @Benchmark
+    public long mapMultiChildren() {
+        return parents.stream().<Person>mapMulti(Person::forEachChild).mapToInt(Person::getHeight).sum();
+    }
+}
@@ -0,0 +1,66 @@
+package streams.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import streams.concurrent.ConcurrentMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * map() mit einem blockierenden Aufruf (ein simulierter Dienst mit latency Millisekunden Antwortzeit) über
+ * 10000 Elemente: parallel() gegen {@link ConcurrentMapper} mit bis zu maxInFlight gleichzeitigen Aufrufen.
+ * Ohne virtuelle Threads (vor Java 21) begrenzt {@link ConcurrentMapper#PLATFORM_THREADS} die Gleichzeitigkeit.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ConcurrentMapperBenchmark {
+
+    private static final int ELEMENTS = 10_000;
+
+    @Param({"1"})
+    public int latency;
+
+    @Param({"16", "256", "10000"})
+    public int maxInFlight;
+
+    private Integer lookup(int id) {
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return id * 2;
+    }
+
+    @Benchmark
+    public List<Integer> parallelStream() {
+        return IntStream.range(0, ELEMENTS).parallel().mapToObj(this::lookup).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Integer> mapConcurrent() {
+        return ConcurrentMapper.mapConcurrent(IntStream.range(0, ELEMENTS).boxed(), maxInFlight, this::lookup)
+            .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Integer> mapConcurrentUnordered() {
+        return ConcurrentMapper.mapConcurrentUnordered(IntStream.range(0, ELEMENTS).boxed(), maxInFlight, this::lookup)
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,66 @@
+package streams.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import streams.sort.ExternalSort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Die Worthäufigkeit über sortierte Worte: sorted() im Heap gegen {@link ExternalSort} mit Läufen aus runSize
+ * Worten (runSize &gt;= size: alles in einem Lauf, es wird nichts geschrieben).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ExternalSortBenchmark {
+
+    @Param({"1000000"})
+    public int size;
+
+    @Param({"10000", "100000", "1000000"})
+    public int runSize;
+
+    private List<String> words;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        words = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            words.add("wort" + random.nextInt(size));
+        }
+    }
+
+    @Benchmark
+    public Map<String, Long> sorted() {
+        return words.stream().sorted()
+            .collect(Collectors.groupingBy(word -> word, TreeMap::new, Collectors.counting()));
+    }
+
+    @Benchmark
+    public Map<String, Long> externalSort() {
+        try (Stream<String> sorted = ExternalSort.sorted(words.stream(), runSize)) {
+            return sorted.collect(Collectors.groupingBy(word -> word, TreeMap::new, Collectors.counting()));
+        }
+    }
+}
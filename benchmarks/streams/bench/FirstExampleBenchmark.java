@@ -0,0 +1,59 @@
+package streams.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Introduction_Streams.firstExample: wie viele Zahlen im Array sind kleiner als 10?
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class FirstExampleBenchmark {
+
+    @Param({"10", "1000", "100000", "10000000"})
+    public int size;
+
+    private int[] a;
+
+    @Setup
+    public void setup() {
+        a = BenchmarkData.ints(size, 100);
+    }
+
+    @Benchmark
+    public long loop() {
+        int counter = 0;
+        for (int n : a) {
+            if (n < 10) {
+                counter++;
+            }
+        }
+        return counter;
+    }
+
+    @Benchmark
+    public long stream() {
+        return Arrays.stream(a).filter(n -> n < 10).count();
+    }
+
+    @Benchmark
+    public long parallelStream() {
+        return Arrays.stream(a).parallel().filter(n -> n < 10).count();
+    }
+}
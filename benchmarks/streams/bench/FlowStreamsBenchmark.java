@@ -0,0 +1,69 @@
+package streams.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import streams.concurrent.FlowStreams;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * {@link FlowStreams}: Worthäufigkeit direkt auf der Liste gegen denselben Collector hinter einem Publisher, der
+ * in einem anderen Thread liefert (Stream -&gt; Publisher -&gt; Stream). bufferSize bestimmt, wie oft die beiden
+ * Threads sich abstimmen müssen.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class FlowStreamsBenchmark {
+
+    @Param({"100000"})
+    public int size;
+
+    @Param({"16", "256", "4096"})
+    public int bufferSize;
+
+    private List<String> words;
+    private ExecutorService executor;
+
+    @Setup
+    public void setup() {
+        words = BenchmarkData.words(size);
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public Map<String, Long> frequencyList() {
+        return words.stream().collect(Collectors.groupingBy(w -> w, Collectors.counting()));
+    }
+
+    @Benchmark
+    public Map<String, Long> frequencyPublisher() {
+        try (Stream<String> feed = FlowStreams.toStream(FlowStreams.toPublisher(words.stream(), executor), bufferSize)) {
+            return feed.collect(Collectors.groupingBy(w -> w, Collectors.counting()));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package streams.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import streams.collect.ConcurrentFrequencyMap;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Worthäufigkeit aus ExamplesCollectors unter parallel(): groupingBy mit TreeMap je Teilaufgabe gegen
+ * groupingByConcurrent und {@link ConcurrentFrequencyMap} (LongAdder, sortiert erst am Ende).
+ * Die Unterschiede zeigen sich erst mit vielen Kernen.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class FrequencyCollectorBenchmark {
+
+    @Param({"100000", "10000000"})
+    public int size;
+
+    private List<String> words;
+
+    @Setup
+    public void setup() {
+        words = BenchmarkData.words(size);
+    }
+
+    @Benchmark
+    public Map<String, Long> groupingByTreeMap() {
+        return words.parallelStream()
+            .collect(Collectors.groupingBy(word -> word, TreeMap::new, Collectors.counting()));
+    }
+
+    @Benchmark
+    public Map<String, Long> groupingByConcurrent() {
+        return words.parallelStream()
+            .collect(Collectors.groupingByConcurrent(word -> word, Collectors.counting()));
+    }
+
+    @Benchmark
+    public SortedMap<String, Long> concurrentFrequencySorted() {
+        return words.parallelStream()
+            .collect(ConcurrentFrequencyMap.sortedCounting(word -> word));
+    }
+
+    @Benchmark
+    public ConcurrentFrequencyMap<String> concurrentFrequency() {
+        return words.parallelStream()
+            .collect(ConcurrentFrequencyMap.counting(word -> word));
+    }
+}
@@ -0,0 +1,90 @@
+package streams.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import streams.collect.MultiCollector;
+import streams.text.WordAnalysis;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Statistik, partitioningBy, groupingBy und Worthäufigkeit aus ExamplesCollectors: vier getrennte Pipelines
+ * (jede mit eigenem toLowerCase/distinct/sorted) gegen einen Durchlauf mit {@link MultiCollector} bzw.
+ * dem spezialisierten {@link WordAnalysis#collector()}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class FusedPipelineBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    public int size;
+
+    private List<String> words;
+    private MultiCollector<String> all;
+
+    @Setup
+    public void setup() {
+        words = BenchmarkData.words(size);
+
+        all = new MultiCollector<>();
+        all.add(Collectors.summarizingInt(w -> w.length()));
+        MultiCollector<String> lower = all.mapping(String::toLowerCase);
+        lower.add(Collectors.groupingBy(word -> word, TreeMap::new, Collectors.counting()));
+        MultiCollector<String> distinct = lower.distinctSorted(Comparator.naturalOrder());
+        distinct.add(Collectors.partitioningBy(w -> w.length() <= 5));
+        distinct.add(Collectors.groupingBy(word -> word.substring(0, 1)));
+    }
+
+    @Benchmark
+    public void separatePipelines(Blackhole bh) {
+        bh.consume(words.stream()
+            .collect(Collectors.summarizingInt(w -> w.length())));
+        bh.consume(words.stream()
+            .map(String::toLowerCase)
+            .distinct()
+            .sorted()
+            .collect(Collectors.partitioningBy(w -> w.length() <= 5)));
+        bh.consume(words.stream()
+            .map(String::toLowerCase)
+            .distinct()
+            .sorted()
+            .collect(Collectors.groupingBy(word -> word.substring(0, 1).toLowerCase())));
+        bh.consume(words.stream()
+            .map(String::toLowerCase)
+            .sorted()
+            .collect(Collectors.groupingBy(word -> word, TreeMap::new, Collectors.counting())));
+    }
+
+    @Benchmark
+    public MultiCollector.Results multiCollector() {
+        return words.stream().collect(all.collector());
+    }
+
+    @Benchmark
+    public MultiCollector.Results parallelMultiCollector() {
+        return words.parallelStream().collect(all.collector());
+    }
+
+    @Benchmark
+    public WordAnalysis wordAnalysis() {
+        return words.stream().collect(WordAnalysis.collector());
+    }
+}
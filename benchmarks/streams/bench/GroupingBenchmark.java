@@ -0,0 +1,136 @@
+package streams.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import streams.Person;
+import streams.PersonTable;
+import streams.collect.GroupStats;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * More_about_Streams.grouping und tryYourself: Personen nach Nachnamen gruppieren, zählen und
+ * die durchschnittliche Größe berechnen.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class GroupingBenchmark {
+
+    @Param({"10", "1000", "100000", "10000000"})
+    public int size;
+
+    private List<Person> people;
+    private PersonTable table;
+
+    @Setup
+    public void setup() {
+        people = BenchmarkData.people(size);
+        table = PersonTable.of(people);
+    }
+
+    @Benchmark
+    public Map<String, List<Person>> sameLastNameLoop() {
+        Map<String, List<Person>> groups = new HashMap<>();
+        for (Person p : people) {
+            groups.computeIfAbsent(p.getLastName(), k -> new ArrayList<>()).add(p);
+        }
+        return groups;
+    }
+
+    @Benchmark
+    public Map<String, List<Person>> sameLastNameStream() {
+        return people.stream().collect(Collectors.groupingBy(Person::getLastName));
+    }
+
+    @Benchmark
+    public Map<String, List<Person>> sameLastNameParallelStream() {
+        return people.parallelStream().collect(Collectors.groupingBy(Person::getLastName));
+    }
+
+    @Benchmark
+    public Map<String, Long> countSameLastNameLoop() {
+        Map<String, Long> counts = new HashMap<>();
+        for (Person p : people) {
+            counts.merge(p.getLastName(), 1L, Long::sum);
+        }
+        return counts;
+    }
+
+    @Benchmark
+    public Map<String, Long> countSameLastNameStream() {
+        return people.stream().collect(Collectors.groupingBy(Person::getLastName, Collectors.counting()));
+    }
+
+    @Benchmark
+    public Map<String, Long> countSameLastNameParallelStream() {
+        return people.parallelStream().collect(Collectors.groupingBy(Person::getLastName, Collectors.counting()));
+    }
+
+    @Benchmark
+    public Map<String, Long> countSameLastNameGroupStats() {
+        return people.stream().collect(GroupStats.by(Person::getLastName, Person::getHeight)).counts();
+    }
+
+    @Benchmark
+    public Map<String, Long> countSameLastNameParallelGroupStats() {
+        return people.parallelStream().collect(GroupStats.by(Person::getLastName, Person::getHeight)).counts();
+    }
+
+    @Benchmark
+    public Map<String, Double> averageHeightLoop() {
+        Map<String, long[]> sums = new HashMap<>();
+        for (Person p : people) {
+            long[] sum = sums.computeIfAbsent(p.getLastName(), k -> new long[2]);
+            sum[0] += p.getHeight();
+            sum[1]++;
+        }
+        Map<String, Double> averages = new HashMap<>();
+        sums.forEach((k, v) -> averages.put(k, (double) v[0] / v[1]));
+        return averages;
+    }
+
+    @Benchmark
+    public Map<String, Double> averageHeightStream() {
+        return people.stream()
+            .collect(Collectors.groupingBy(Person::getLastName, Collectors.averagingDouble(Person::getHeight)));
+    }
+
+    @Benchmark
+    public Map<String, Double> averageHeightParallelStream() {
+        return people.parallelStream()
+            .collect(Collectors.groupingBy(Person::getLastName, Collectors.averagingDouble(Person::getHeight)));
+    }
+
+    @Benchmark
+    public Map<String, Double> averageHeightGroupStats() {
+        return people.stream().collect(GroupStats.by(Person::getLastName, Person::getHeight)).averages();
+    }
+
+    @Benchmark
+    public Map<String, Double> averageHeightParallelGroupStats() {
+        return people.parallelStream().collect(GroupStats.by(Person::getLastName, Person::getHeight)).averages();
+    }
+
+    @Benchmark
+    public Map<String, Double> averageHeightPersonTable() {
+        return table.averageHeightByLastName();
+    }
+}
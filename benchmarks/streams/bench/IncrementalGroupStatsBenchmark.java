@@ -0,0 +1,76 @@
+package streams.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import streams.Person;
+import streams.collect.IncrementalGroupStats;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * More_about_Streams.tryYourself mit sich ändernden Daten: eine Person wird ersetzt, danach werden die
+ * Durchschnittsgrößen gelesen. Neu gruppieren gegen {@link IncrementalGroupStats}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class IncrementalGroupStatsBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    public int size;
+
+    private List<Person> people;
+    private IncrementalGroupStats<Person, String> stats;
+    private int next;
+
+    @Setup
+    public void setup() {
+        people = BenchmarkData.people(size);
+        stats = IncrementalGroupStats.of(Person::getLastName, Person::getHeight);
+        stats.addAll(people);
+    }
+
+    /** ersetzt die nächste Person durch eine mit anderem Nachnamen und anderer Größe */
+    private Person replaceNext() {
+        int i = next;
+        next = (next + 1) % size;
+        Person old = people.get(i);
+        Person updated = new Person(old.getFirstName(), people.get(next).getLastName(), 100 + (old.getHeight() + 7) % 111);
+        people.set(i, updated);
+        stats.update(old, updated);
+        return updated;
+    }
+
+    @Benchmark
+    public Map<String, Double> updateAndRecompute() {
+        replaceNext();
+        return people.stream()
+            .collect(Collectors.groupingBy(Person::getLastName, Collectors.averagingDouble(Person::getHeight)));
+    }
+
+    @Benchmark
+    public Map<String, Double> updateAndSnapshot() {
+        replaceNext();
+        return stats.snapshot().averages();
+    }
+
+    @Benchmark
+    public double readSnapshot() {
+        return stats.snapshot().average("Haus").orElse(0);
+    }
+}
@@ -0,0 +1,82 @@
+package streams.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * More_about_Streams.mapsAndStreams: Streams über keySet() und values() einer Map.
+ * Das Zusammenführen mit Collectors.toMap() steht in {@link ToMapMergeBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class MapsAndStreamsBenchmark {
+
+    @Param({"10", "1000", "100000", "10000000"})
+    public int size;
+
+    private Map<String, Integer> votes;
+
+    @Setup
+    public void setup() {
+        votes = BenchmarkData.votes(size);
+    }
+
+    @Benchmark
+    public int totalVotesLoop() {
+        int totalVotes = 0;
+        for (int v : votes.values()) {
+            totalVotes += v;
+        }
+        return totalVotes;
+    }
+
+    @Benchmark
+    public int totalVotesStream() {
+        return votes.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    @Benchmark
+    public int totalVotesParallelStream() {
+        return votes.values().parallelStream().mapToInt(Integer::intValue).sum();
+    }
+
+    @Benchmark
+    public List<String> partiesLoop() {
+        List<String> parties = new ArrayList<>();
+        for (Map.Entry<String, Integer> e : votes.entrySet()) {
+            if (e.getValue() > 1000) {
+                parties.add(e.getKey());
+            }
+        }
+        return parties;
+    }
+
+    @Benchmark
+    public List<String> partiesStream() {
+        return votes.keySet().stream().filter(k -> votes.get(k) > 1000).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<String> partiesParallelStream() {
+        return votes.keySet().parallelStream().filter(k -> votes.get(k) > 1000).collect(Collectors.toList());
+    }
+}
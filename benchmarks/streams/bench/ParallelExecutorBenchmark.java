@@ -0,0 +1,65 @@
+package streams.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import streams.concurrent.ParallelExecutor;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Introduction_Streams.firstExample auf großen Arrays: sequentiell, parallel() im Common Pool und über
+ * {@link ParallelExecutor}, der kleine Arrays sequentiell und große je nach gemessener Beschleunigung rechnet.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ParallelExecutorBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    public int size;
+
+    private int[] a;
+    private ParallelExecutor executor;
+
+    @Setup
+    public void setup() {
+        a = new SplittableRandom(42).ints(size, 0, 100).toArray();
+        executor = ParallelExecutor.builder().minChunkSize(10_000).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.print(executor.report());
+        executor.close();
+    }
+
+    @Benchmark
+    public long countSequential() {
+        return Arrays.stream(a).filter(n -> n < 10).count();
+    }
+
+    @Benchmark
+    public long countCommonPool() {
+        return Arrays.stream(a).parallel().filter(n -> n < 10).count();
+    }
+
+    @Benchmark
+    public long countExecutor() {
+        return executor.run("count", Arrays.stream(a), s -> s.filter(n -> n < 10).count());
+    }
+}
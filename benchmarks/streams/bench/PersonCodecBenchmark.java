@@ -0,0 +1,84 @@
+package streams.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import streams.Person;
+import streams.PersonCodec;
+import streams.PersonTable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * {@link PersonCodec}: Schreiben und Lesen von Personen, von denen jede zweite das Kind der vorigen ist.
+ * Gelesen wird als PersonTable (memory-mapped, ohne Person-Objekte), als Person-Objekte und als Stream.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class PersonCodecBenchmark {
+
+    @Param({"1000", "1000000"})
+    public int size;
+
+    private List<Person> people;
+    private Path file;
+    private Path output;
+
+    @Setup
+    public void setup() throws IOException {
+        people = BenchmarkData.people(size);
+        for (int i = 0; i + 1 < size; i += 2) {
+            people.get(i).addChild(people.get(i + 1));
+        }
+        file = Files.createTempFile("people", ".bin");
+        output = Files.createTempFile("people", ".bin");
+        PersonCodec.write(people, file);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.delete(file);
+        Files.delete(output);
+    }
+
+    @Benchmark
+    public Path write() throws IOException {
+        PersonCodec.write(people, output);
+        return output;
+    }
+
+    @Benchmark
+    public PersonTable readTable() throws IOException {
+        return PersonCodec.readTable(file);
+    }
+
+    @Benchmark
+    public List<Person> read() throws IOException {
+        return PersonCodec.read(file);
+    }
+
+    @Benchmark
+    public long stream() throws IOException {
+        try (Stream<Person> persons = PersonCodec.stream(file)) {
+            return persons.mapToLong(Person::getHeight).sum();
+        }
+    }
+}
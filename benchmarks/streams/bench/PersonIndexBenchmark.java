@@ -0,0 +1,106 @@
+package streams.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import streams.Person;
+import streams.PersonIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Introduction_Optionals.optionalsAndStreams: 100 Präfix-Abfragen (findFirst) über die Vornamen, mit einem
+ * Durchlauf je Abfrage gegen {@link PersonIndex}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class PersonIndexBenchmark {
+
+    private static final String[] PREFIXES = {"S", "Su", "Sus", "Ma", "Pe", "Wi", "Ha", "Hu", "Ka", "Ott", "X", "Sandr"};
+
+    @Param({"1000", "100000", "10000000"})
+    public int size;
+
+    private List<Person> people;
+    private PersonIndex index;
+    private List<String> queries;
+
+    @Setup
+    public void setup() {
+        people = BenchmarkData.people(size);
+        // die gesuchten Personen sollen nicht alle ganz vorne stehen
+        people.replaceAll(p -> new Person(p.getFirstName() + "_" + p.getLastName(), p.getLastName(), p.getHeight()));
+        index = PersonIndex.byFirstName(people);
+        SplittableRandom random = new SplittableRandom(42);
+        queries = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            String prefix = PREFIXES[random.nextInt(PREFIXES.length)];
+            queries.add(random.nextBoolean() ? prefix : prefix + "_" + "Morgenrot".substring(0, 1 + random.nextInt(8)));
+        }
+    }
+
+    @Benchmark
+    public List<Optional<Person>> findFirstScan() {
+        List<Optional<Person>> results = new ArrayList<>(queries.size());
+        for (String prefix : queries) {
+            results.add(people.stream().filter(p -> p.getFirstName().startsWith(prefix)).findFirst());
+        }
+        return results;
+    }
+
+    @Benchmark
+    public List<Optional<Person>> findFirstParallelScan() {
+        return queries.parallelStream()
+            .map(prefix -> people.stream().filter(p -> p.getFirstName().startsWith(prefix)).findFirst())
+            .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Optional<Person>> findFirstIndex() {
+        List<Optional<Person>> results = new ArrayList<>(queries.size());
+        for (String prefix : queries) {
+            results.add(index.findFirst(prefix));
+        }
+        return results;
+    }
+
+    @Benchmark
+    public List<Optional<Person>> findFirstIndexBatch() {
+        return index.findFirst(queries);
+    }
+
+    @Benchmark
+    public long countScan() {
+        long count = 0;
+        for (String prefix : queries) {
+            count += people.stream().filter(p -> p.getFirstName().startsWith(prefix)).count();
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long countIndex() {
+        long count = 0;
+        for (String prefix : queries) {
+            count += index.count(prefix);
+        }
+        return count;
+    }
+}
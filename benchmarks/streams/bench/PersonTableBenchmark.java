@@ -0,0 +1,72 @@
+package streams.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import streams.Person;
+import streams.PersonTable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * More_about_Streams.tryYourself: durchschnittliche Größe je Nachname über eine List&lt;Person&gt; gegen die
+ * spaltenweise {@link PersonTable}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class PersonTableBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    public int size;
+
+    private List<Person> people;
+    private PersonTable table;
+
+    @Setup
+    public void setup() {
+        people = BenchmarkData.people(size);
+        table = PersonTable.of(people);
+    }
+
+    @Benchmark
+    public Map<String, Double> averageHeightObjects() {
+        return people.stream()
+            .collect(Collectors.groupingBy(Person::getLastName, Collectors.averagingDouble(Person::getHeight)));
+    }
+
+    @Benchmark
+    public Map<String, Double> averageHeightObjectsParallel() {
+        return people.parallelStream()
+            .collect(Collectors.groupingBy(Person::getLastName, Collectors.averagingDouble(Person::getHeight)));
+    }
+
+    @Benchmark
+    public Map<String, Double> averageHeightTable() {
+        return table.averageHeightByLastName();
+    }
+
+    @Benchmark
+    public double averageHeightAllObjects() {
+        return people.stream().mapToInt(Person::getHeight).average().orElse(0);
+    }
+
+    @Benchmark
+    public double averageHeightAllTable() {
+        return table.heights().average().orElse(0);
+    }
+}
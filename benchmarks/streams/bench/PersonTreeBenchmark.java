@@ -0,0 +1,93 @@
+package streams.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import streams.Person;
+
+import java.util.IntSummaryStatistics;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Person.toString und Auswertungen über alle Nachkommen: rekursiv mit Streams gegen {@link streams.PersonTree}.
+ * Mit maxDistance 4 entsteht ein tiefer Baum (Tiefe etwa size / 2,5), mit size ein flacher.
+ * Bei tiefen Bäumen werden die rekursiven Varianten mit StackOverflowError abgebrochen.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class PersonTreeBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param({"4", "100000"})
+    public int maxDistance;
+
+    private Person root;
+
+    @Setup
+    public void setup() {
+        root = BenchmarkData.family(size, maxDistance);
+    }
+
+    /** die ursprüngliche Implementierung von Person.toString */
+    private static String recursiveToString(Person p) {
+        StringBuilder builder = new StringBuilder(p.getFirstName() + " " + p.getLastName());
+        if (p.getChildren() != null) {
+            builder.append(" (Kinder: " +
+                p.getChildren().stream().map(PersonTreeBenchmark::recursiveToString).collect(Collectors.joining(", "))
+                + ")");
+        }
+        return builder.toString();
+    }
+
+    private static Stream<Person> recursiveDescendants(Person p) {
+        return p.getChildren() == null
+            ? Stream.empty()
+            : p.getChildren().stream().flatMap(c -> Stream.concat(Stream.of(c), recursiveDescendants(c)));
+    }
+
+    @Benchmark
+    public String toStringRecursive() {
+        return recursiveToString(root);
+    }
+
+    @Benchmark
+    public String toStringBuilder() {
+        return root.toString();
+    }
+
+    @Benchmark
+    public IntSummaryStatistics heightsRecursive() {
+        return recursiveDescendants(root).mapToInt(Person::getHeight).summaryStatistics();
+    }
+
+    @Benchmark
+    public IntSummaryStatistics heightsDepthFirst() {
+        return root.descendants().mapToInt(Person::getHeight).summaryStatistics();
+    }
+
+    @Benchmark
+    public IntSummaryStatistics heightsDepthFirstParallel() {
+        return root.descendants().parallel().mapToInt(Person::getHeight).summaryStatistics();
+    }
+
+    @Benchmark
+    public IntSummaryStatistics heightsForkJoin() {
+        return root.descendantHeights();
+    }
+}
@@ -0,0 +1,74 @@
+package streams.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import streams.Person;
+import streams.cache.PipelineCache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Durchschnittsgröße je Nachname wie in More_about_Streams.tryYourself, bei jedem Aufruf neu berechnet gegen
+ * {@link PipelineCache}: unveränderliche Quelle (Treffer) und veränderliche Quelle, deren Version sich vor jedem
+ * Aufruf ändert (jeder Aufruf rechnet, zeigt den Aufwand des Caches bei einem Fehlschlag).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class PipelineCacheBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private List<Person> people;
+    private PipelineCache cache;
+    private long version;
+
+    @Setup
+    public void setup() {
+        people = List.copyOf(BenchmarkData.people(size));
+        cache = PipelineCache.builder().maximumSize(100).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.println(cache.stats());
+    }
+
+    @Benchmark
+    public Map<String, Double> averageHeightDirect() {
+        return averageHeight(people.stream());
+    }
+
+    @Benchmark
+    public Map<String, Double> averageHeightCached() {
+        return cache.get(people, "average height by last name", PipelineCacheBenchmark::averageHeight);
+    }
+
+    @Benchmark
+    public Map<String, Double> averageHeightCachedChanging() {
+        return cache.get(people, ++version, "average height by last name (versioned)",
+            PipelineCacheBenchmark::averageHeight);
+    }
+
+    private static Map<String, Double> averageHeight(Stream<Person> people) {
+        return people.collect(Collectors.groupingBy(Person::getLastName, Collectors.averagingDouble(Person::getHeight)));
+    }
+}
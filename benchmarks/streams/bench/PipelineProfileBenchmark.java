@@ -0,0 +1,75 @@
+package streams.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import streams.metrics.PipelineProfile;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Kosten der Messung mit {@link PipelineProfile}: dieselbe Pipeline (filter, map auf String, mapToInt, sum)
+ * ohne PipelineProfile, mit einem abgeschalteten und mit einem eingeschalteten. Die Messung kostet je Aufruf
+ * eines Lambdas einige Nanosekunden; wie viel das ausmacht, hängt davon ab, wie teuer map ist (mapper
+ * "toString": Integer.toString, "format": String.format).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class PipelineProfileBenchmark {
+
+    @Param({"1000000"})
+    public int size;
+
+    @Param({"toString", "format"})
+    public String mapper;
+
+    private List<Integer> numbers;
+    private Function<Integer, String> toText;
+
+    @Setup
+    public void setup() {
+        numbers = BenchmarkData.integers(size, 1_000_000);
+        toText = mapper.equals("format") ? n -> String.format("%08d", n) : n -> Integer.toString(n);
+    }
+
+    @Benchmark
+    public long plain() {
+        return numbers.stream()
+            .filter(n -> n % 3 == 0)
+            .map(toText)
+            .mapToInt(String::length)
+            .sum();
+    }
+
+    @Benchmark
+    public long disabled() {
+        return profiled(PipelineProfile.disabled());
+    }
+
+    @Benchmark
+    public long enabled() {
+        return profiled(PipelineProfile.enabled("benchmark"));
+    }
+
+    private long profiled(PipelineProfile profile) {
+        return profile.source("numbers", numbers.stream())
+            .filter(profile.filter("filter", n -> n % 3 == 0))
+            .map(profile.map("toText", toText))
+            .mapToInt(profile.mapToInt("length", String::length))
+            .sum();
+    }
+}
@@ -0,0 +1,91 @@
+package streams.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import streams.Person;
+import streams.collect.IntCollector;
+import streams.collect.Object2IntMap;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Boxing in den Aggregationen von More_about_Streams: Summe über eine Map&lt;String, Integer&gt; gegen
+ * {@link Object2IntMap}, Stimmen zählen mit groupingBy/summingInt gegen Object2IntMap.summing und
+ * averagingDouble gegen {@link IntCollector#averaging()} (als Downstream und mit IntCollector.groupingBy). Mit {@code -prof gc} ausführen,
+ * gc.alloc.rate.norm zeigt die Bytes je Aufruf.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class PrimitiveCollectorBenchmark {
+
+    @Param({"1000", "1000000"})
+    public int size;
+
+    private Map<String, Integer> votes;
+    private Object2IntMap<String> tally;
+    private List<Person> people;
+    private List<String> ballots;
+
+    @Setup
+    public void setup() {
+        votes = BenchmarkData.votes(size);
+        tally = Object2IntMap.of(votes);
+        people = BenchmarkData.people(size);
+        // je Stimmzettel der Nachname einer Person: wenige Parteien, viele Stimmen
+        ballots = people.stream().map(Person::getLastName).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public int totalVotesBoxed() {
+        return votes.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    @Benchmark
+    public int totalVotesObject2IntMap() {
+        return tally.values().sum();
+    }
+
+    @Benchmark
+    public Map<String, Integer> countBallotsGroupingBy() {
+        return ballots.stream().collect(Collectors.groupingBy(b -> b, Collectors.summingInt(b -> 1)));
+    }
+
+    @Benchmark
+    public Object2IntMap<String> countBallotsObject2IntMap() {
+        return ballots.stream().collect(Object2IntMap.counting(b -> b));
+    }
+
+    @Benchmark
+    public Map<String, Double> averageHeightAveragingDouble() {
+        return people.stream()
+            .collect(Collectors.groupingBy(Person::getLastName, Collectors.averagingDouble(Person::getHeight)));
+    }
+
+    @Benchmark
+    public Map<String, Double> averageHeightIntCollector() {
+        return people.stream()
+            .collect(Collectors.groupingBy(Person::getLastName, IntCollector.averaging().from(Person::getHeight)));
+    }
+
+    @Benchmark
+    public Map<String, Double> averageHeightIntCollectorGrouping() {
+        return people.stream()
+            .collect(IntCollector.groupingBy(Person::getLastName, Person::getHeight, IntCollector.averaging()));
+    }
+}
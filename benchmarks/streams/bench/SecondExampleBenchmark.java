@@ -0,0 +1,89 @@
+package streams.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Introduction_Streams.secondExample: Summe der drei größten durch 3 und durch 7 teilbaren Zahlen.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SecondExampleBenchmark {
+
+    @Param({"10", "1000", "100000", "10000000"})
+    public int size;
+
+    private List<Integer> numbers;
+
+    @Setup
+    public void setup() {
+        numbers = BenchmarkData.integers(size, 1000);
+    }
+
+    @Benchmark
+    public int loop() {
+        // die drei größten Werte (mit Duplikaten) mitführen: first >= second >= third
+        int first = Integer.MIN_VALUE;
+        int second = Integer.MIN_VALUE;
+        int third = Integer.MIN_VALUE;
+        int found = 0;
+        for (int n : numbers) {
+            if (n % 3 == 0 && n % 7 == 0) {
+                found++;
+                if (n > first) {
+                    third = second;
+                    second = first;
+                    first = n;
+                } else if (n > second) {
+                    third = second;
+                    second = n;
+                } else if (n > third) {
+                    third = n;
+                }
+            }
+        }
+        int sum = 0;
+        if (found > 0) sum += first;
+        if (found > 1) sum += second;
+        if (found > 2) sum += third;
+        return sum;
+    }
+
+    @Benchmark
+    public int stream() {
+        return numbers
+            .stream()
+            .filter(n -> n % 3 == 0 && n % 7 == 0)
+            .sorted((a, b) -> Integer.compare(b, a))
+            .limit(3)
+            .mapToInt(i -> i.intValue())
+            .sum();
+    }
+
+    @Benchmark
+    public int parallelStream() {
+        return numbers
+            .parallelStream()
+            .filter(n -> n % 3 == 0 && n % 7 == 0)
+            .sorted((a, b) -> Integer.compare(b, a))
+            .limit(3)
+            .mapToInt(i -> i.intValue())
+            .sum();
+    }
+}
@@ -0,0 +1,79 @@
+package streams.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import streams.collect.CountMinSketch;
+import streams.collect.HyperLogLog;
+import streams.collect.SpaceSaving;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Genaues Zählen (distinct().count(), groupingBy(counting())) gegen HyperLogLog, Count-Min Sketch und
+ * Space-Saving, über size Worte aus vocabulary verschiedenen. Bei großem Wortschatz zeigt gc.alloc.rate.norm,
+ * wie viel Speicher das genaue Zählen braucht; die Sketches haben eine feste Größe.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SketchBenchmark {
+
+    @Param({"1000000"})
+    public int size;
+
+    @Param({"1000", "1000000"})
+    public int vocabulary;
+
+    private List<String> words;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        words = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            words.add("w" + random.nextInt(vocabulary));
+        }
+    }
+
+    @Benchmark
+    public long distinctCount() {
+        return words.parallelStream().distinct().count();
+    }
+
+    @Benchmark
+    public long hyperLogLog() {
+        return words.parallelStream().collect(HyperLogLog.countDistinct(0.01));
+    }
+
+    @Benchmark
+    public Map<String, Long> groupingByCounting() {
+        return words.parallelStream().collect(Collectors.groupingBy(w -> w, Collectors.counting()));
+    }
+
+    @Benchmark
+    public CountMinSketch countMinSketch() {
+        return words.parallelStream().collect(CountMinSketch.counting(0.0005, 0.01));
+    }
+
+    @Benchmark
+    public SpaceSaving<String> spaceSaving() {
+        return words.parallelStream().collect(SpaceSaving.heavyHitters(1000));
+    }
+}
@@ -0,0 +1,88 @@
+package streams.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import streams.collect.IntStringMultimap;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * More_about_Streams.mapsAndStreams: Collectors.toMap() mit Merger-Funktion (Wortlänge -> Worte).
+ *
+ * Die Merger-Funktion verkettet bei jeder Kollision die Strings neu, der Aufwand wächst daher quadratisch
+ * mit der Anzahl der Worte je Schlüssel. Die Größen enden deshalb bei 100000 statt bei 10 Mio.
+ * Zum Vergleich: {@link IntStringMultimap} verkettet erst beim Lesen.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ToMapMergeBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    private List<String> words;
+
+    @Setup
+    public void setup() {
+        words = BenchmarkData.words(size);
+    }
+
+    @Benchmark
+    public Map<Integer, String> loop() {
+        Map<Integer, StringBuilder> builders = new HashMap<>();
+        for (String word : words) {
+            StringBuilder builder = builders.get(word.length());
+            if (builder == null) {
+                builders.put(word.length(), new StringBuilder(word));
+            } else {
+                builder.append(", ").append(word);
+            }
+        }
+        Map<Integer, String> map = new HashMap<>();
+        builders.forEach((k, v) -> map.put(k, v.toString()));
+        return map;
+    }
+
+    @Benchmark
+    public Map<Integer, String> stream() {
+        return words.stream()
+            .collect(Collectors.toMap(x -> x.length(), x -> x,
+                (oldValue, newValue) -> oldValue + ", " + newValue));
+    }
+
+    @Benchmark
+    public Map<Integer, String> parallelStream() {
+        return words.parallelStream()
+            .collect(Collectors.toMap(x -> x.length(), x -> x,
+                (oldValue, newValue) -> oldValue + ", " + newValue));
+    }
+
+    @Benchmark
+    public Map<Integer, String> multimap() {
+        return words.stream()
+            .collect(IntStringMultimap.toJoinedMap(x -> x.length(), x -> x, ", "));
+    }
+
+    @Benchmark
+    public Map<Integer, String> parallelMultimap() {
+        return words.parallelStream()
+            .collect(IntStringMultimap.toJoinedMap(x -> x.length(), x -> x, ", "));
+    }
+}
@@ -0,0 +1,87 @@
+package streams.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import streams.text.MappedText;
+import streams.text.WordSpliterator;
+import streams.text.WordTable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Worthäufigkeit eines 64 MB Textes mit parallel() auf einem ForkJoinPool mit 1 bis 16 Threads:
+ * String.split + Arrays.stream (wie in ExamplesCollectors) gegen {@link WordSpliterator} direkt auf der
+ * memory-mapped Datei.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class TokenizerScalingBenchmark {
+
+    private static final long CORPUS_BYTES = 64L << 20;
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int threads;
+
+    private ForkJoinPool pool;
+    private ByteBuffer buffer;
+    private String text;
+
+    @Setup
+    public void setup() throws IOException {
+        pool = new ForkJoinPool(threads);
+        Path file = BenchmarkData.textFile(CORPUS_BYTES);
+        buffer = MappedText.map(file).get(0);
+        byte[] bytes = new byte[buffer.limit()];
+        buffer.get(0, bytes);
+        text = new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Map<String, Long> splitAndStream() {
+        return pool.submit(() -> Arrays.stream(text.split("[\\P{Alpha}]+"))
+            .parallel()
+            .collect(Collectors.groupingBy(String::toLowerCase, Collectors.counting()))).join();
+    }
+
+    @Benchmark
+    public WordTable spliterator() {
+        return pool.submit(() -> WordSpliterator.words(buffer).parallel().collect(WordTable.counting())).join();
+    }
+
+    @Benchmark
+    public WordTable indexedSpliterator() {
+        return pool.submit(() -> WordSpliterator.indexedWords(buffer).parallel().collect(WordTable.counting())).join();
+    }
+
+    @Benchmark
+    public long wordCount() {
+        return pool.submit(() -> WordSpliterator.words(buffer).parallel().count()).join();
+    }
+}
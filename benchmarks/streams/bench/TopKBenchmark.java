@@ -0,0 +1,104 @@
+package streams.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import streams.collect.IntTopK;
+import streams.collect.TopK;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Introduction_Streams.secondExample: die k größten Werte mit sorted().limit(k) gegen {@link TopK} und
+ * {@link IntTopK}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class TopKBenchmark {
+
+    @Param({"1000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"3", "100"})
+    public int k;
+
+    private int[] values;
+    private List<Integer> numbers;
+
+    @Setup
+    public void setup() {
+        values = BenchmarkData.ints(size, Integer.MAX_VALUE);
+        numbers = BenchmarkData.integers(size, Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public int sortedLimit() {
+        return numbers.stream()
+            .sorted(Comparator.reverseOrder())
+            .limit(k)
+            .mapToInt(i -> i.intValue())
+            .sum();
+    }
+
+    @Benchmark
+    public int parallelSortedLimit() {
+        return numbers.parallelStream()
+            .sorted(Comparator.reverseOrder())
+            .limit(k)
+            .mapToInt(i -> i.intValue())
+            .sum();
+    }
+
+    @Benchmark
+    public int topK() {
+        return numbers.stream()
+            .collect(TopK.largest(k))
+            .stream()
+            .mapToInt(i -> i.intValue())
+            .sum();
+    }
+
+    @Benchmark
+    public int parallelTopK() {
+        return numbers.parallelStream()
+            .collect(TopK.largest(k))
+            .stream()
+            .mapToInt(i -> i.intValue())
+            .sum();
+    }
+
+    @Benchmark
+    public long intSortedLimit() {
+        int[] sorted = Arrays.stream(values).sorted().toArray();
+        long sum = 0;
+        for (int i = Math.max(0, sorted.length - k); i < sorted.length; i++) {
+            sum += sorted[i];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long intTopK() {
+        return Arrays.stream(values).collect(() -> IntTopK.largest(k), IntTopK::accept, IntTopK::combine).sum();
+    }
+
+    @Benchmark
+    public long parallelIntTopK() {
+        return Arrays.stream(values).parallel().collect(() -> IntTopK.largest(k), IntTopK::accept, IntTopK::combine).sum();
+    }
+}
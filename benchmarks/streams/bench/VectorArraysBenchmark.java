@@ -0,0 +1,105 @@
+package streams.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import streams.vector.DoubleCondition;
+import streams.vector.IntCondition;
+import streams.vector.VectorArrays;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Die Filter aus Introduction_Streams (n &lt; 10, n % 3 == 0 &amp;&amp; n % 7 == 0) und einfache Reduktionen:
+ * IntStream/DoubleStream gegen {@link VectorArrays}. Läuft mit jdk.incubator.vector; mit
+ * {@code -jvmArgsAppend -Dstreams.vector=false} misst dieselbe Klasse die einfachen Schleifen von VectorArrays.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class VectorArraysBenchmark {
+
+    private static final IntCondition SMALL = IntCondition.lessThan(10);
+    private static final IntCondition DIVISIBLE = IntCondition.divisibleBy(3).and(IntCondition.divisibleBy(7));
+    private static final DoubleCondition NEGATIVE = DoubleCondition.lessThan(0.0);
+
+    @Param({"1000", "1000000", "100000000"})
+    public int size;
+
+    private int[] a;
+    private double[] d;
+
+    @Setup
+    public void setup() {
+        a = new SplittableRandom(42).ints(size, 0, 100).toArray();
+        d = new SplittableRandom(42).doubles(size, -1.0, 1.0).toArray();
+        if (!VectorArrays.isVectorized()) {
+            System.out.println("VectorArrays: jdk.incubator.vector not used, scalar loops");
+        }
+    }
+
+    @Benchmark
+    public long countStream() {
+        return Arrays.stream(a).filter(n -> n < 10).count();
+    }
+
+    @Benchmark
+    public long countVector() {
+        return VectorArrays.count(a, SMALL);
+    }
+
+    @Benchmark
+    public long sumDivisibleStream() {
+        return Arrays.stream(a).filter(n -> n % 3 == 0 && n % 7 == 0).asLongStream().sum();
+    }
+
+    @Benchmark
+    public long sumDivisibleVector() {
+        return VectorArrays.sum(a, DIVISIBLE);
+    }
+
+    @Benchmark
+    public int maxStream() {
+        return Arrays.stream(a).max().getAsInt();
+    }
+
+    @Benchmark
+    public int maxVector() {
+        return VectorArrays.max(a).getAsInt();
+    }
+
+    @Benchmark
+    public long[] histogramStream() {
+        long[] counts = new long[10];
+        Arrays.stream(a).forEach(n -> counts[n / 10]++);
+        return counts;
+    }
+
+    @Benchmark
+    public long[] histogramVector() {
+        return VectorArrays.histogram(a, 0, 10, 20, 30, 40, 50, 60, 70, 80, 90, 100);
+    }
+
+    @Benchmark
+    public double sumNegativeDoubleStream() {
+        return Arrays.stream(d).filter(x -> x < 0.0).sum();
+    }
+
+    @Benchmark
+    public double sumNegativeDoubleVector() {
+        return VectorArrays.sum(d, NEGATIVE);
+    }
+}
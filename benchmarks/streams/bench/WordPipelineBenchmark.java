@@ -0,0 +1,186 @@
+package streams.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Die Wort-Pipelines aus ExamplesCollectors: joining, summarizingInt, partitioningBy, groupingBy
+ * (Anfangsbuchstabe) und die Worthäufigkeit.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class WordPipelineBenchmark {
+
+    @Param({"10", "1000", "100000", "10000000"})
+    public int size;
+
+    private List<String> words;
+
+    @Setup
+    public void setup() {
+        words = BenchmarkData.words(size);
+    }
+
+    /* joining */
+
+    @Benchmark
+    public String joiningLoop() {
+        StringBuilder builder = new StringBuilder();
+        for (String word : words) {
+            if (builder.length() > 0) {
+                builder.append(", ");
+            }
+            builder.append(word);
+        }
+        return builder.toString();
+    }
+
+    @Benchmark
+    public String joiningStream() {
+        return words.stream().collect(Collectors.joining(", "));
+    }
+
+    @Benchmark
+    public String joiningParallelStream() {
+        return words.parallelStream().collect(Collectors.joining(", "));
+    }
+
+    /* summarizingInt */
+
+    @Benchmark
+    public IntSummaryStatistics summarizingLoop() {
+        IntSummaryStatistics stat = new IntSummaryStatistics();
+        for (String word : words) {
+            stat.accept(word.length());
+        }
+        return stat;
+    }
+
+    @Benchmark
+    public IntSummaryStatistics summarizingStream() {
+        return words.stream().collect(Collectors.summarizingInt(w -> w.length()));
+    }
+
+    @Benchmark
+    public IntSummaryStatistics summarizingParallelStream() {
+        return words.parallelStream().collect(Collectors.summarizingInt(w -> w.length()));
+    }
+
+    /* partitioningBy: shortWords */
+
+    @Benchmark
+    public Map<Boolean, List<String>> shortWordsLoop() {
+        TreeSet<String> distinct = new TreeSet<>();
+        for (String word : words) {
+            distinct.add(word.toLowerCase());
+        }
+        Map<Boolean, List<String>> shortWords = new HashMap<>();
+        shortWords.put(true, new ArrayList<>());
+        shortWords.put(false, new ArrayList<>());
+        for (String word : distinct) {
+            shortWords.get(word.length() <= 5).add(word);
+        }
+        return shortWords;
+    }
+
+    @Benchmark
+    public Map<Boolean, List<String>> shortWordsStream() {
+        return words.stream()
+            .map(String::toLowerCase)
+            .distinct()
+            .sorted()
+            .collect(Collectors.partitioningBy(w -> w.length() <= 5));
+    }
+
+    @Benchmark
+    public Map<Boolean, List<String>> shortWordsParallelStream() {
+        return words.parallelStream()
+            .map(String::toLowerCase)
+            .distinct()
+            .sorted()
+            .collect(Collectors.partitioningBy(w -> w.length() <= 5));
+    }
+
+    /* groupingBy: firstLetter */
+
+    @Benchmark
+    public Map<String, List<String>> firstLetterLoop() {
+        TreeSet<String> distinct = new TreeSet<>();
+        for (String word : words) {
+            distinct.add(word.toLowerCase());
+        }
+        Map<String, List<String>> firstLetter = new HashMap<>();
+        for (String word : distinct) {
+            firstLetter.computeIfAbsent(word.substring(0, 1), k -> new ArrayList<>()).add(word);
+        }
+        return firstLetter;
+    }
+
+    @Benchmark
+    public Map<String, List<String>> firstLetterStream() {
+        return words.stream()
+            .map(String::toLowerCase)
+            .distinct()
+            .sorted()
+            .collect(Collectors.groupingBy(word -> word.substring(0, 1).toLowerCase()));
+    }
+
+    @Benchmark
+    public Map<String, List<String>> firstLetterParallelStream() {
+        return words.parallelStream()
+            .map(String::toLowerCase)
+            .distinct()
+            .sorted()
+            .collect(Collectors.groupingBy(word -> word.substring(0, 1).toLowerCase()));
+    }
+
+    /* groupingBy & counting: wordFrequency */
+
+    @Benchmark
+    public Map<String, Long> wordFrequencyLoop() {
+        Map<String, Long> wordFrequency = new TreeMap<>();
+        for (String word : words) {
+            wordFrequency.merge(word.toLowerCase(), 1L, Long::sum);
+        }
+        return wordFrequency;
+    }
+
+    @Benchmark
+    public Map<String, Long> wordFrequencyStream() {
+        return words.stream()
+            .map(String::toLowerCase)
+            .sorted()
+            .collect(Collectors.groupingBy(word -> word, TreeMap::new, Collectors.counting()));
+    }
+
+    @Benchmark
+    public Map<String, Long> wordFrequencyParallelStream() {
+        return words.parallelStream()
+            .map(String::toLowerCase)
+            .sorted()
+            .collect(Collectors.groupingBy(word -> word, TreeMap::new, Collectors.counting()));
+    }
+}
@@ -0,0 +1,38 @@
+package streams;
+
+import streams.concurrent.ConcurrentMapper;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Blockierende Aufrufe in map(): jedes Wort wird von einem (simulierten) langsamen Dienst übersetzt. Mit
+ * ConcurrentMapper warten bis zu 100 Aufrufe gleichzeitig, statt einer nach dem anderen; die Reihenfolge der
+ * Worte bleibt erhalten.
+ */
+public class ExamplesBlockingCalls {
+
+    public static void main(String[] args) {
+        List<String> words = Arrays.stream(ExamplesCollectors.GENESIS.split("[\\P{Alpha}]+"))
+                .collect(Collectors.toList());
+
+        long start = System.nanoTime();
+        try (Stream<String> translated = ConcurrentMapper.mapConcurrent(words.stream().limit(200), 100,
+                ExamplesBlockingCalls::slowUpperCase)) {
+            System.out.printf("übersetzt: %s%n", translated.collect(Collectors.joining(" ")));
+        }
+        System.out.printf("200 Aufrufe à 10 ms in %d ms%n", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /** simuliert einen entfernten Dienst, der für jede Antwort 10 ms braucht */
+    private static String slowUpperCase(String word) {
+        try {
+            Thread.sleep(10);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return word.toUpperCase();
+    }
+}
@@ -0,0 +1,250 @@
+package streams;
+
+import streams.cache.PipelineCache;
+import streams.collect.CountMinSketch;
+import streams.collect.HyperLogLog;
+import streams.collect.MultiCollector;
+import streams.collect.SpaceSaving;
+import streams.io.FrequencyCodec;
+import streams.sort.ExternalSort;
+import streams.text.WordAnalysis;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Musterbeispiele für Collectors-Objekte für die collect-Methode von Streams
+ *
+ * @author DI Franz Breunig, März 2016 (inspiriert von Dr. Ferdinand Kasper)
+ */
+public class ExamplesCollectors {
+
+    /** Text, der in allen Beispielen in Worte zerlegt wird (Genesis 1) */
+    public static final String GENESIS =
+            "Im Anfang schuf Gott Himmel und Erde; die Erde aber war wüst und " +
+                "wirr, Finsternis lag über der Urflut und Gottes Geist schwebte über dem " +
+                "Wasser. Gott sprach: Es werde Licht. Und es wurde Licht. Gott sah, dass " +
+                "das Licht gut war. Gott schied das Licht von der Finsternis und Gott " +
+                "nannte das Licht Tag und die Finsternis nannte er Nacht. Es wurde Abend " +
+                "und es wurde Morgen: erster Tag. Dann sprach Gott: Ein Gewölbe entstehe " +
+                "mitten im Wasser und scheide Wasser von Wasser. Gott machte also das " +
+                "Gewölbe und schied das Wasser unterhalb des Gewölbes vom Wasser oberhalb " +
+                "des Gewölbes. So geschah es und Gott nannte das Gewölbe Himmel. Es wurde " +
+                "Abend und es wurde Morgen: zweiter Tag. Dann sprach Gott: Das Wasser " +
+                "unterhalb des Himmels sammle sich an einem Ort, damit das Trockene " +
+                "sichtbar werde. So geschah es. Das Trockene nannte Gott Land und das " +
+                "angesammelte Wasser nannte er Meer. Gott sah, dass es gut war. Dann " +
+                "sprach Gott: Das Land lasse junges Grün wachsen, alle Arten von Pflanzen, " +
+                "die Samen tragen, und von Bäumen, die auf der Erde Früchte bringen mit " +
+                "ihrem Samen darin. So geschah es. Das Land brachte junges Grün hervor, " +
+                "alle Arten von Pflanzen, die Samen tragen, alle Arten von Bäumen, die " +
+                "Früchte bringen mit ihrem Samen darin. Gott sah, dass es gut war. Es wurde " +
+                "Abend und es wurde Morgen: dritter Tag. Dann sprach Gott: Lichter sollen " +
+                "am Himmelsgewölbe sein, um Tag und Nacht zu scheiden. Sie sollen Zeichen " +
+                "sein und zur Bestimmung von Festzeiten, von Tagen und Jahren dienen; sie " +
+                "sollen Lichter am Himmelsgewölbe sein, die über die Erde hin leuchten. So " +
+                "geschah es. Gott machte die beiden großen Lichter, das größere, das über " +
+                "den Tag herrscht, das kleinere, das über die Nacht herrscht, auch die " +
+                "Sterne. Gott setzte die Lichter an das Himmelsgewölbe, damit sie über die " +
+                "Erde hin leuchten, über Tag und Nacht herrschen und das Licht von der " +
+                "Finsternis scheiden. Gott sah, dass es gut war. Es wurde Abend und es " +
+                "wurde Morgen: vierter Tag. Dann sprach Gott: Das Wasser wimmle von " +
+                "lebendigen Wesen und Vögel sollen über dem Land am Himmelsgewölbe " +
+                "dahinfliegen. Gott schuf alle Arten von großen Seetieren und anderen " +
+                "Lebewesen, von denen das Wasser wimmelt, und alle Arten von gefiederten " +
+                "Vögeln. Gott sah, dass es gut war. Gott segnete sie und sprach: Seid " +
+                "fruchtbar und vermehrt euch und bevölkert das Wasser im Meer und die " +
+                "Vögel sollen sich auf dem Land vermehren. Es wurde Abend und es wurde " +
+                "Morgen: fünfter Tag. Dann sprach Gott: Das Land bringe alle Arten von " +
+                "lebendigen Wesen hervor, von Vieh, von Kriechtieren und von Tieren des " +
+                "Feldes. So geschah es. Gott machte alle Arten von Tieren des Feldes, " +
+                "alle Arten von Vieh und alle Arten von Kriechtieren auf dem Erdboden. " +
+                "Gott sah, dass es gut war. Dann sprach Gott: Lasst uns Menschen machen " +
+                "als unser Abbild, uns ähnlich. Sie sollen herrschen über die Fische des " +
+                "Meeres, über die Vögel des Himmels, über das Vieh, über die ganze Erde " +
+                "und über alle Kriechtiere auf dem Land. Gott schuf also den Menschen als " +
+                "sein Abbild; als Abbild Gottes schuf er ihn. Als Mann und Frau schuf er " +
+                "sie. Gott segnete sie und Gott sprach zu ihnen: Seid fruchtbar und " +
+                "vermehrt euch, bevölkert die Erde, unterwerft sie euch und herrscht über " +
+                "die Fische des Meeres, über die Vögel des Himmels und über alle Tiere, " +
+                "die sich auf dem Land regen. Dann sprach Gott: Hiermit übergebe ich euch " +
+                "alle Pflanzen auf der ganzen Erde, die Samen tragen, und alle Bäume mit " +
+                "samenhaltigen Früchten. Euch sollen sie zur Nahrung dienen. Allen Tieren " +
+                "des Feldes, allen Vögeln des Himmels und allem, was sich auf der Erde " +
+                "regt, was Lebensatem in sich hat, gebe ich alle grünen Pflanzen zur " +
+                "Nahrung. So geschah es. Gott sah alles an, was er gemacht hatte: Es war " +
+                "sehr gut. Es wurde Abend und es wurde Morgen: der sechste Tag.";
+
+    public static void main(String[] args) throws IOException {
+        // mit einer Textdatei als Argument: alle Auswertungen in einem Durchlauf direkt auf der Datei
+        if (args.length > 0) {
+            analyzeFile(Path.of(args[0]));
+            return;
+        }
+
+        List<String> words =
+                Arrays.stream(GENESIS.split("[\\P{Alpha}]+")).collect(Collectors.toList());
+
+        // simple-joined: mit Trennelement
+        System.out.println("just joined: " + words.stream().collect(Collectors.joining(", ")));
+
+        // complex-joined - als String-Array-Darstellung
+        String complexJoind = words.stream()
+                // Elemente zu einem String verketten
+                .collect(Collectors.joining(
+                        "\", \"",                // Trennelement:  ", "
+                        "new String[] { \"",     // Prefix;        new String {"
+                        "\" }"                   // Sufix:         "}
+                ));
+        System.out.printf("Worte als Array-Literal: %s%n%n", complexJoind);
+
+        // toList
+        List<String> wordList = words.stream().collect(Collectors.toList());
+        System.out.printf("WortListe: %s%n%n", wordList);
+
+
+        // Statistik: Wortlänge
+        IntSummaryStatistics stat = words.stream()
+                .collect(Collectors.summarizingInt(w -> w.length()));
+        System.out.println(stat);
+        System.out.printf(
+                "wordlen statistic: min=%d, max=%d, mid=%f%n%n" ,
+                stat.getMin(), stat.getMax(), stat.getAverage());
+
+        // words ist eine ArrayList und könnte sich ändern: PipelineCache merkt sich das Ergebnis dann nur zusammen
+        // mit einer Versionsnummer, die bei jeder Änderung erhöht wird (oder man cached List.copyOf(words))
+        PipelineCache cache = PipelineCache.builder().maximumSize(100).build();
+        long version = 0;
+        for (int i = 0; i < 3; i++) {
+            stat = cache.get(words, version, "word length", s -> s.collect(Collectors.summarizingInt(String::length)));
+        }
+        System.out.printf("wordlen statistic (cached): %s%n%s%n%n", stat, cache.stats());
+
+        // Partitionieren: shortWords haben maximal fünf Zeichen
+        Map<Boolean, List<String>> shortWords = words.stream()
+                .map(String::toLowerCase)
+                .distinct()
+                .sorted()
+                .collect(Collectors.partitioningBy(w -> w.length() <= 5));
+        System.out.printf("short words: %s%n",   shortWords.get(true));
+        System.out.printf("long  words: %s%n%n", shortWords.get(false));
+
+        // Gruppieren: nach dem Anfangsbuchstaben
+        Map<String, List<String>> firstLetter = words.stream()
+                .map(String::toLowerCase)
+                .distinct()
+                .sorted()
+                .collect(Collectors.groupingBy(word -> word.substring(0,1).toLowerCase()));
+        System.out.printf("grouped by first Letter: %s%n%n", firstLetter);
+
+        // Gruppieren (& Reduzieren): nach der Worthäufigkeit mit Supplier und Downstream-Collector
+        Map<String, Long> wordFrequency = words.stream()
+                .map(String::toLowerCase)
+                .sorted()
+                .collect(
+                        Collectors.groupingBy(
+                                word -> word,          // key der Map (= bei uns das Wort selbst)
+                                TreeMap::new,          // mapFactory (= Map-Art zum Speichern)
+                                Collectors.counting()  // value der Map (= Worthäufigkeit)
+                        ));
+        System.out.printf("Worthäufigkeit: %s%n%n", wordFrequency);
+
+        // sorted() puffert alle Worte im Heap. ExternalSort sortiert Läufe aus höchstens 100 Worten und schreibt sie
+        // in temporäre Dateien, die beim Lesen zusammengeführt werden - so lassen sich auch Texte sortieren, die
+        // größer als der Heap sind. Das Ergebnis ist dasselbe.
+        try (Stream<String> sorted = ExternalSort.sorted(words.stream().map(String::toLowerCase), 100)) {
+            Map<String, Long> externalFrequency =
+                    sorted.collect(Collectors.groupingBy(word -> word, TreeMap::new, Collectors.counting()));
+            System.out.printf("Worthäufigkeit (ExternalSort) gleich: %b%n%n", externalFrequency.equals(wordFrequency));
+        }
+
+        // FrequencyCodec speichert die Worthäufigkeit kompakt: Worte mit gemeinsamem Anfang (front coding) und
+        // Anzahlen als Varint; gelesen wird aus der memory-mapped Datei.
+        Path frequencyFile = Files.createTempFile("frequency", ".bin");
+        FrequencyCodec.write(wordFrequency, frequencyFile);
+        System.out.printf("Worthäufigkeit (FrequencyCodec, %d Byte) gleich: %b%n%n", Files.size(frequencyFile),
+                FrequencyCodec.read(frequencyFile).equals(wordFrequency));
+        Files.delete(frequencyFile);
+
+        // Alle Auswertungen in einem einzigen Durchlauf: ein MultiCollector versorgt beliebig viele Collectors.
+        // toLowerCase, distinct() und sorted() laufen dabei nur einmal statt in jeder Pipeline erneut.
+        MultiCollector<String> all = new MultiCollector<>();
+        MultiCollector.Key<IntSummaryStatistics> statKey = all.add(Collectors.summarizingInt(w -> w.length()));
+        MultiCollector<String> lower = all.mapping(String::toLowerCase);
+        MultiCollector.Key<Map<String, Long>> frequencyKey =
+                lower.add(Collectors.groupingBy(word -> word, TreeMap::new, Collectors.counting()));
+        MultiCollector<String> distinct = lower.distinctSorted(Comparator.naturalOrder());
+        MultiCollector.Key<Map<Boolean, List<String>>> shortWordsKey =
+                distinct.add(Collectors.partitioningBy(w -> w.length() <= 5));
+        MultiCollector.Key<Map<String, List<String>>> firstLetterKey =
+                distinct.add(Collectors.groupingBy(word -> word.substring(0,1)));
+
+        MultiCollector.Results results = words.stream().collect(all.collector());
+        System.out.printf("in einem Durchlauf: %s%n", results.get(statKey));
+        System.out.printf("short words: %s%n", results.get(shortWordsKey).get(true));
+        System.out.printf("grouped by first Letter: %s%n", results.get(firstLetterKey));
+        System.out.printf("Worthäufigkeit: %s%n", results.get(frequencyKey));
+
+        // Näherungen mit fester Speichergröße für sehr große (oder endlose) Wortströme, verglichen mit den
+        // genauen Ergebnissen (die Fehlerschranken prüft SketchesTest auf einer Million Worten)
+        compareSketches(words.stream().map(String::toLowerCase).collect(Collectors.toList()));
+
+        // Worte in Blöcken oder Fenstern weitergeben: siehe ExamplesWindows
+        // blockierende Aufrufe (z.B. eines entfernten Dienstes) in map(): siehe ExamplesBlockingCalls
+        // ein endloser Wortstrom von einem Produzenten in einem anderen Thread: siehe ExamplesEventFeed
+    }
+
+    /**
+     * HyperLogLog statt distinct().count(), Count-Min Sketch statt groupingBy(counting()) und Space-Saving für
+     * die häufigsten Worte: der Speicher bleibt gleich, egal wie viele verschiedene Worte vorkommen.
+     */
+    private static void compareSketches(List<String> words) {
+        Map<String, Long> exact = words.parallelStream().collect(Collectors.groupingBy(word -> word, Collectors.counting()));
+        List<String> exactTop = exact.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(5)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+
+        HyperLogLog distinct = words.parallelStream().collect(HyperLogLog.collector(14));
+        CountMinSketch frequency = words.parallelStream().collect(CountMinSketch.counting(0.0005, 0.01));
+        SpaceSaving<String> heavyHitters = words.parallelStream().collect(SpaceSaving.heavyHitters(500));
+
+        System.out.printf("%n%d Worte%n", words.size());
+        System.out.printf("verschiedene Worte: genau %d, HyperLogLog %d (Standardfehler %.1f %%, %d Byte)%n",
+                exact.size(), distinct.estimate(), 100 * distinct.relativeError(), distinct.memoryBytes());
+        for (String word : exactTop) {
+            System.out.printf("  %-10s genau %6d, Count-Min Sketch %6d%n", word, exact.get(word), frequency.estimate(word));
+        }
+        System.out.printf("Count-Min Sketch: höchstens %.0f zu viel (%d Byte)%n",
+                frequency.epsilon() * frequency.size(), frequency.memoryBytes());
+        System.out.printf("häufigste Worte: genau %s, Space-Saving %s%n", exactTop, heavyHitters.top(5));
+    }
+
+    /**
+     * Die Auswertungen von oben für große Textdateien: Die Datei wird memory-mapped und in einem einzigen
+     * Durchlauf ausgewertet, ohne vorher eine Liste aller Worte anzulegen (siehe {@link WordAnalysis}).
+     */
+    private static void analyzeFile(Path file) throws IOException {
+        WordAnalysis analysis = WordAnalysis.ofFile(file, false);
+
+        IntSummaryStatistics stat = analysis.getStatistics();
+        System.out.printf(
+                "wordlen statistic: count=%d, min=%d, max=%d, mid=%f%n%n",
+                stat.getCount(), stat.getMin(), stat.getMax(), stat.getAverage());
+        System.out.printf("short words: %d%n",   analysis.getShortWords().get(true).size());
+        System.out.printf("long  words: %d%n%n", analysis.getShortWords().get(false).size());
+        analysis.getFirstLetter().forEach((letter, list) ->
+                System.out.printf("first letter %s: %d words%n", letter, list.size()));
+        System.out.printf("%nWorthäufigkeit: %s%n", analysis.getWordFrequency());
+    }
+}
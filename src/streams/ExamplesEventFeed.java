@@ -0,0 +1,63 @@
+package streams;
+
+import streams.collect.Object2IntMap;
+import streams.concurrent.FlowStreams;
+import streams.window.Windows;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Ein endloser Strom von Ereignissen: ein Produzent liefert laufend Worte über einen SubmissionPublisher,
+ * der Stream fordert immer nur so viele an, wie in seinen Puffer passen - ist er voll, wartet der Produzent.
+ * Ausgewertet wird je Fenster aus 10.000 Worten; die Gesamthäufigkeit wächst nur mit der Anzahl verschiedener
+ * Worte, nicht mit der Länge des Stroms.
+ */
+public class ExamplesEventFeed {
+
+    public static void main(String[] args) throws InterruptedException {
+        List<String> words = Arrays.stream(ExamplesCollectors.GENESIS.split("[\\P{Alpha}]+"))
+                .map(String::toLowerCase)
+                .collect(Collectors.toList());
+
+        SubmissionPublisher<String> publisher = new SubmissionPublisher<>();
+        Thread producer = new Thread(() -> {
+            SplittableRandom random = new SplittableRandom(42);
+            try {
+                while (!publisher.isClosed()) {
+                    publisher.submit(words.get(random.nextInt(words.size())));
+                }
+            } catch (IllegalStateException e) {
+                // publisher geschlossen
+            }
+        }, "producer");
+        producer.start();
+
+        Object2IntMap<String> total = Object2IntMap.create();
+        // erst wird der Stream geschlossen (kündigt das Abonnement), dann der Publisher: submit wirft danach
+        // eine IllegalStateException, und der Produzent endet
+        try (publisher; Stream<String> feed = FlowStreams.toStream(publisher, 256)) {
+            Windows.batch(feed, 10_000).limit(5).forEach(window -> {
+                IntSummaryStatistics lengths = window.stream().collect(Collectors.summarizingInt(String::length));
+                Map<Boolean, Long> shortWords =
+                        window.stream().collect(Collectors.partitioningBy(w -> w.length() <= 5, Collectors.counting()));
+                total.addAll(window.stream().collect(Object2IntMap.counting(w -> w)));
+                System.out.printf("Fenster: Länge %.2f im Mittel, %d kurze Worte%n", lengths.getAverage(), shortWords.get(true));
+            });
+        }
+        producer.join();
+
+        System.out.printf("häufigste Worte im Strom: %s%n", total.keys()
+                .sorted(Comparator.comparingInt(total::get).reversed())
+                .limit(3)
+                .map(w -> w + "=" + total.get(w))
+                .collect(Collectors.toList()));
+    }
+}
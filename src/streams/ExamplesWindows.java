@@ -0,0 +1,32 @@
+package streams;
+
+import streams.window.Windows;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Worte in Blöcken oder überlappenden Fenstern weitergeben, statt jedes für sich: Blöcke z.B. um sie gesammelt in
+ * eine Datei zu schreiben, Fenster z.B. um Wortpaare zu zählen.
+ */
+public class ExamplesWindows {
+
+    public static void main(String[] args) {
+        List<String> words = Arrays.stream(ExamplesCollectors.GENESIS.split("[\\P{Alpha}]+"))
+                .collect(Collectors.toList());
+
+        // je 10 Worte in einer Zeile
+        Windows.batch(words.stream(), 10).limit(3).forEach(batch -> System.out.println(String.join(" ", batch)));
+
+        // die häufigsten Wortpaare: Fenster aus 2 Worten, jedes um 1 Wort weiter
+        System.out.println(Windows.sliding(words, 2, 1)
+                .map(pair -> String.join(" ", pair).toLowerCase())
+                .collect(Collectors.groupingBy(pair -> pair, Collectors.counting()))
+                .entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(5)
+                .collect(Collectors.toList()));
+    }
+}
@@ -1,5 +1,9 @@
+package streams;
+
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * In diesem Kapitel behandeln wir Java Optionals
@@ -12,6 +16,7 @@ public class Introduction_Optionals {
 
         showTheProblem();
         whatAreOptionals();
+        childrenWithoutNull();
         optionalsAndStreams();
     }
 
@@ -52,6 +57,19 @@ public class Introduction_Optionals {
          */
     }
 
+    private static void childrenWithoutNull() {
+
+        /* Person bietet neben getChildren() auch Methoden, die nie null liefern: getFirstChild() und
+           getOptionalChildren() liefern ein Optional, children() einen (evt. leeren) Stream.
+         */
+        Person p1 = new Person("Hannes", "Haus");
+        Person p2 = new Person("Susanne", "Sonnenschein");
+        p2.addChild(new Person("Manuel", "Sonnenschein"));
+
+        p1.getFirstChild().ifPresentOrElse(System.out::println, () -> System.out.println(p1 + " hat keine Kinder."));
+        System.out.println("Kinder: " + Stream.of(p1, p2).flatMap(Person::children).collect(Collectors.toList()));
+    }
+
     private static void whatAreOptionals() {
 
         /*
@@ -125,6 +143,11 @@ public class Introduction_Optionals {
 
         Optional<Person> p2 = people.stream().filter(e -> e.getFirstName().startsWith("T")).findFirst();
         p2.ifPresentOrElse(System.out::println, ()-> System.out.println("Keine Person gefunden"));
+
+        //Viele solche Abfragen: die Vornamen einmal sortieren, dann sucht jede Abfrage binär statt alle Personen zu durchlaufen
+        PersonIndex index = PersonIndex.byFirstName(people);
+        index.findFirst("S").ifPresentOrElse(System.out::println, ()-> System.out.println("Keine Person gefunden"));
+        index.findFirst("T").ifPresentOrElse(System.out::println, ()-> System.out.println("Keine Person gefunden"));
     }
 
 
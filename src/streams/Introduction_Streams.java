@@ -1,3 +1,10 @@
+package streams;
+
+import streams.collect.TopK;
+import streams.metrics.PipelineProfile;
+import streams.vector.IntCondition;
+import streams.vector.VectorArrays;
+
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
@@ -73,6 +80,9 @@ public class Introduction_Streams {
         // kürzer mit Streams (filtere alle Elemente < 10 und zähle sie)
         System.out.printf("%d kleine Elemente\n",
             Arrays.stream(a).filter(n -> n < 10).count()); // Ausgabe: "5 kleine Elemente"
+
+        // für große Arrays: ParallelExecutor entscheidet, ob parallel schneller ist (ParallelExecutorBenchmark),
+        // VectorArrays zählt mit SIMD-Befehlen ohne Lambda (VectorArraysBenchmark)
     }
 
 
@@ -107,6 +117,45 @@ public class Introduction_Streams {
          */
 
         System.out.println("second example: " +sum);
+
+        /*
+           Für sehr große Datenmengen ist sorted() teuer: Um die drei größten Zahlen zu finden, werden ALLE Zahlen
+           gepuffert und sortiert. Der Collector TopK merkt sich stattdessen nur die drei größten bisher gefundenen.
+         */
+        sum = numbers
+            .stream()
+            .filter(n->n%3==0 && n%7==0)
+            .collect(TopK.largest(3))       //liefert eine Liste mit den drei größten Zahlen
+            .stream()
+            .mapToInt(i->i.intValue())
+            .sum();
+        System.out.println("second example (TopK): " +sum);
+
+        /*
+           Liegen die Zahlen in einem int[], zählt und summiert VectorArrays die durch 3 und durch 7 teilbaren
+           (= die durch 21 teilbaren) ohne Lambda und ohne Boxing.
+         */
+        int[] values = numbers.stream().mapToInt(i->i.intValue()).toArray();
+        IntCondition divisible = IntCondition.divisibleBy(3).and(IntCondition.divisibleBy(7));
+        System.out.println("second example (VectorArrays): " + VectorArrays.count(values, divisible)
+            + " Zahlen, Summe " + VectorArrays.sum(values, divisible));
+
+        /*
+           Wo braucht eine Pipeline ihre Zeit? PipelineProfile zählt für jeden Schritt die Aufrufe und die
+           weitergegebenen Elemente und schätzt Zeit und Speicher. Mit PipelineProfile.create(...) wird nur
+           gemessen, wenn die JVM mit -Dstreams.profile=true gestartet wurde; sonst läuft die Pipeline unverändert.
+         */
+        PipelineProfile profile = PipelineProfile.create("secondExample");
+        sum = profile.source("numbers", numbers.stream())
+            .filter(profile.filter("filter", n->n%3==0 && n%7==0))
+            .sorted(profile.sorted("sorted", (a,b) -> Integer.compare(b,a)))
+            .limit(3)
+            .mapToInt(profile.mapToInt("mapToInt", i->i.intValue()))
+            .sum();
+        System.out.println("second example (profiled): " +sum);
+        if (profile.isEnabled()) {
+            System.out.print(profile.report());
+        }
     }
 
     private static void thirdExample() {
@@ -1,3 +1,17 @@
+package streams;
+
+import streams.cache.PipelineCache;
+import streams.collect.GroupStats;
+import streams.collect.IncrementalGroupStats;
+import streams.collect.IntCollector;
+import streams.collect.IntStringMultimap;
+import streams.collect.Object2IntMap;
+import streams.text.CharPipeline;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -87,6 +101,11 @@ public class More_about_Streams {
         int totalVotes = votes.values().stream().mapToInt(Integer::intValue).sum();
         System.out.println("Total votes: "+totalVotes);
 
+        //ohne Integer-Objekte: Object2IntMap speichert die Stimmen in einem int-Array
+        Object2IntMap<String> tally = Object2IntMap.of(votes);
+        System.out.println("Total votes: " + tally.values().sum() + ", parties with > 1000 votes: "
+            + tally.keys(n -> n > 1000).collect(Collectors.toList()));
+
         //stream von Map.Entry
         //ein Map.Entry fasst immer einen Key und einen Value in einem Objekt zusammen
         //@link https://docs.oracle.com/javase/8/docs/api/java/util/Map.Entry.html
@@ -119,6 +138,12 @@ public class More_about_Streams {
             .collect(Collectors.toMap(x->x.length(),x->x,
                 (oldValue, newValue)-> oldValue+", "+newValue));
         System.out.println("String to map v2: "+map);
+
+        //Bei sehr vielen Kollisionen wird mit der Merger-Funktion bei jedem Aufruf ein neuer, immer längerer String erzeugt.
+        // IntStringMultimap sammelt die Werte je Schlüssel (ohne Boxing der int-Schlüssel) und verkettet sie erst am Ende.
+        map = Stream.of("Karli", "Franz","Ottokar")
+            .collect(IntStringMultimap.toJoinedMap(x->x.length(), x->x, ", "));
+        System.out.println("String to map v3: "+map);
     }
 
     private static void grouping() {
@@ -139,6 +164,16 @@ public class More_about_Streams {
         Map<String, Long> countSameLastName =  people.stream().collect(Collectors.groupingBy(Person::getLastName, Collectors.counting()));
         System.out.println("Wie oft kommt welcher Nachname vor: "+countSameLastName);
 
+        //people ändert sich nicht (List.of): wird dieselbe Gruppierung immer wieder gebraucht, rechnet PipelineCache
+        // sie nur beim ersten Mal und liefert danach das gespeicherte Ergebnis
+        PipelineCache cache = PipelineCache.builder().maximumSize(100).build();
+        for (int i = 0; i < 3; i++) {
+            countSameLastName = cache.get(people, "count by last name",
+                s -> s.collect(Collectors.collectingAndThen(
+                    Collectors.groupingBy(Person::getLastName, Collectors.counting()), Map::copyOf)));
+        }
+        System.out.println("Wie oft kommt welcher Nachname vor (cached): "+countSameLastName+", "+cache.stats());
+
         //für den "downstream collector" verwenden wir, wenn immer möglich, einen der bereits in der Klasse Collectors
         // zu Verfügung gestellten @link https://docs.oracle.com/javase/8/docs/api/java/util/stream/Collectors.html
         //Es ist natürlich auch möglich eigene Collectors zu schreiben.
@@ -160,6 +195,30 @@ public class More_about_Streams {
 
         System.out.println(people.stream().collect(Collectors.groupingBy(Person::getLastName,Collectors.averagingDouble(Person::getHeight))));
 
+        //IntCollector bekommt die Größen als int, ohne den Umweg über averagingDouble
+        System.out.println(people.stream().collect(IntCollector.groupingBy(Person::getLastName, Person::getHeight, IntCollector.averaging())));
+
+        //Lösung mit GroupStats: Summen und Anzahlen je Nachname in long-Arrays statt in Akkumulator-Objekten
+        System.out.println(people.stream().collect(GroupStats.by(Person::getLastName, Person::getHeight)).averages());
+
+        //ändern sich die Personen laufend, muss nicht jedes Mal neu gruppiert werden:
+        // IncrementalGroupStats ändert bei jedem add/remove nur die Summen der betroffenen Gruppe
+        IncrementalGroupStats<Person, String> heights = IncrementalGroupStats.of(Person::getLastName, Person::getHeight);
+        heights.addAll(people);
+        heights.add(new Person("Willi", "Wunderlich", 180));
+        System.out.println(heights.snapshot().averages());
+
+        //gespeichert werden die Personen kompakt mit PersonCodec (Nachnamen nur einmal, Größen als Varint);
+        // readTable liest die Datei direkt in die Spalten einer PersonTable
+        try {
+            Path file = Files.createTempFile("people", ".bin");
+            PersonCodec.write(people, file);
+            System.out.println(PersonCodec.readTable(file).averageHeightByLastName() + " aus " + Files.size(file) + " Byte");
+            Files.delete(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
         //Aufgabe 2: Ersetze im folgenden String jedes 'a' durch ein 'e' mit Hilfe von Streams
         //und ja, ein replaceAll() wäre die einfachere Lösung ;)
         String s ="Wissan und Erkannan sind dia Frauda und dia Barachtigung dar Manschhait";
@@ -177,6 +236,13 @@ public class More_about_Streams {
                 .mapToObj(c -> ""+(char)c).collect(Collectors.joining())
         );
 
+        //Lösung ohne einen String je Zeichen: CharPipeline schreibt die Zeichen direkt in einen StringBuilder
+        System.out.println(
+            CharPipeline.identity()
+                .map(c -> c == 'a'? 'e': c)
+                .apply(s)
+        );
+
 
 
 
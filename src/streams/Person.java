@@ -0,0 +1,197 @@
+package streams;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+
+
+
+public class Person {
+
+
+    private String firstName;
+    private String lastName;
+    private int height;   //height in cm
+
+    //die meisten Personen haben kein oder ein Kind: die ersten zwei Kinder stehen direkt im Objekt,
+    // erst ab dem dritten Kind werden alle Kinder in einem Array gespeichert
+    private int childCount;
+    private Person child0;
+    private Person child1;
+    private Person[] moreChildren;
+    private List<Person> childrenView;
+
+    public Person(String firstName, String lastName) {
+
+        this.firstName = firstName;
+        this.lastName = lastName;
+    }
+
+    public Person(String firstName, String lastName, int height) {
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.height = height;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void addChild(Person child) {
+        if (childCount < 2) {
+            if (childCount == 0) {
+                child0 = child;
+            } else {
+                child1 = child;
+            }
+        } else {
+            if (moreChildren == null) {
+                moreChildren = new Person[4];
+                moreChildren[0] = child0;
+                moreChildren[1] = child1;
+                child0 = null;
+                child1 = null;
+            } else if (childCount == moreChildren.length) {
+                moreChildren = Arrays.copyOf(moreChildren, childCount * 2);
+            }
+            moreChildren[childCount] = child;
+        }
+        childCount++;
+    }
+
+    /**
+     * Die Kinder als unveränderbare Liste (eine Sicht, die auch später hinzugefügte Kinder enthält)
+     * oder null, wenn es keine Kinder gibt (siehe Introduction_Optionals.showTheProblem).
+     */
+    public List<Person> getChildren() {
+        if (childCount == 0) {
+            return null;
+        }
+        if (childrenView == null) {
+            childrenView = new ChildrenView(this);
+        }
+        return childrenView;
+    }
+
+    /** wie getChildren(), aber eine leere Liste statt null */
+    public List<Person> getChildrenOrEmpty() {
+        return childCount == 0 ? List.of() : getChildren();
+    }
+
+    /** wie getChildren(), aber ein leeres Optional statt null */
+    public Optional<List<Person>> getOptionalChildren() {
+        return Optional.ofNullable(getChildren());
+    }
+
+    public Optional<Person> getFirstChild() {
+        return childCount == 0 ? Optional.empty() : Optional.of(childAt(0));
+    }
+
+    public int getChildCount() {
+        return childCount;
+    }
+
+    /** die Kinder als Stream, z.B. für {@code people.stream().flatMap(Person::children)} */
+    public Stream<Person> children() {
+        switch (childCount) {
+            case 0:
+                return Stream.empty();
+            case 1:
+                return Stream.of(child0);
+            case 2:
+                return Stream.of(child0, child1);
+            default:
+                return Arrays.stream(moreChildren, 0, childCount);
+        }
+    }
+
+    /**
+     * Ruft action mit jedem Kind auf. Ohne ein Objekt je Person, z.B.
+     * {@code people.stream().<Person>mapMulti(Person::forEachChild)} statt {@code flatMap(Person::children)}.
+     */
+    public void forEachChild(Consumer<? super Person> action) {
+        if (moreChildren != null) {
+            for (int i = 0; i < childCount; i++) {
+                action.accept(moreChildren[i]);
+            }
+        } else if (childCount > 0) {
+            action.accept(child0);
+            if (childCount > 1) {
+                action.accept(child1);
+            }
+        }
+    }
+
+    /** das Kind mit Index i, ohne Prüfung von i */
+    Person childAt(int i) {
+        return moreChildren != null ? moreChildren[i] : i == 0 ? child0 : child1;
+    }
+
+
+    public int getHeight() {
+        return height;
+    }
+
+    /** Kinder, Enkel, ... in Tiefensuche (siehe {@link PersonTree#depthFirst(Person)}) */
+    public Stream<Person> descendants() {
+        return PersonTree.depthFirst(this);
+    }
+
+    /** Kinder, Enkel, ... in Breitensuche (siehe {@link PersonTree#breadthFirst(Person)}) */
+    public Stream<Person> descendantsBreadthFirst() {
+        return PersonTree.breadthFirst(this);
+    }
+
+    /** Anzahl aller Kinder, Enkel, ... (parallel berechnet) */
+    public long countDescendants() {
+        return descendantHeights().getCount();
+    }
+
+    /** Statistik über die Größen aller Kinder, Enkel, ... (parallel berechnet) */
+    public IntSummaryStatistics descendantHeights() {
+        return PersonTree.heightStatistics(this);
+    }
+
+
+    @Override
+    public String toString() {
+        //alle Nachkommen werden in denselben StringBuilder geschrieben (siehe PersonTree.render)
+        return PersonTree.render(this, new StringBuilder()).toString();
+    }
+
+    private static final class ChildrenView extends AbstractList<Person> implements RandomAccess {
+        private final Person parent;
+
+        ChildrenView(Person parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public Person get(int index) {
+            if (index < 0 || index >= parent.childCount) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + parent.childCount);
+            }
+            return parent.childAt(index);
+        }
+
+        @Override
+        public int size() {
+            return parent.childCount;
+        }
+
+        @Override
+        public void forEach(Consumer<? super Person> action) {
+            parent.forEachChild(action);
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package streams;
+
+import streams.collect.StringDictionary;
+import streams.io.BinaryReader;
+import streams.io.BinaryWriter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Speichert Personen samt ihren Nachkommen in einem kompakten Binärformat und liest sie wieder.
+ *
+ * <ul>
+ *     <li>Vor- und Nachnamen stehen einmal in je einer String-Tabelle am Anfang, je Person nur ihre Nummer</li>
+ *     <li>Zahlen (Namensnummern, Größe, Anzahl der Kinder) sind Varints: meist ein oder zwei Byte</li>
+ *     <li>Kinder stehen vor ihren Eltern; ein Kind wird als Abstand zur Position der Elternperson gespeichert</li>
+ * </ul>
+ * Eine Person braucht so typischerweise 6 bis 8 Byte.
+ *
+ * Gelesen wird wahlweise
+ * <ul>
+ *     <li>als {@link PersonTable} ({@link #readTable(Path)}): die Datei wird memory-mapped und direkt in die
+ *     int-Spalten der Tabelle dekodiert, ohne ein Objekt je Person - der schnellste Weg für große Dateien</li>
+ *     <li>als Person-Objekte ({@link #read(Path)}): die Personen, die geschrieben wurden, mit allen Nachkommen</li>
+ *     <li>als Stream ({@link #stream(Path)}): jede Person, sobald sie gelesen ist; es werden nur die Personen
+ *     im Speicher gehalten, deren Eltern noch nicht gelesen sind</li>
+ * </ul>
+ */
+public final class PersonCodec {
+
+    private static final int MAGIC = 0x50455253;     // "PERS"
+    private static final int VERSION = 1;
+
+    private PersonCodec() {
+    }
+
+    // ---- Schreiben ----
+
+    /** schreibt people und alle ihre Nachkommen in die Datei file */
+    public static void write(Collection<Person> people, Path file) throws IOException {
+        try (BinaryWriter out = BinaryWriter.create(file)) {
+            write(people, out);
+        }
+    }
+
+    /** schreibt people und alle ihre Nachkommen; {@link #read} liefert wieder people */
+    public static void write(Collection<Person> people, BinaryWriter out) throws IOException {
+        PersonTable table = PersonTable.of(people);
+        int[] roots = new int[people.size()];
+        Arrays.setAll(roots, i -> i);
+        write(table, roots, out);
+    }
+
+    /** schreibt alle Zeilen von table in die Datei file */
+    public static void write(PersonTable table, Path file) throws IOException {
+        try (BinaryWriter out = BinaryWriter.create(file)) {
+            write(table, out);
+        }
+    }
+
+    /** schreibt alle Zeilen von table; {@link #read} liefert die Zeilen, die nicht Kind einer anderen sind */
+    public static void write(PersonTable table, BinaryWriter out) throws IOException {
+        int[] parents = parentCounts(table);
+        write(table, IntStream.range(0, table.size()).filter(r -> parents[r] == 0).toArray(), out);
+    }
+
+    private static void write(PersonTable table, int[] roots, BinaryWriter out) throws IOException {
+        int n = table.size();
+        int[] order = childrenFirst(table);
+        int[] position = new int[n];
+        for (int i = 0; i < n; i++) {
+            position[order[i]] = i;
+        }
+        int[] parents = parentCounts(table);
+
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeVarLong(n);
+        writeStrings(table.firstNames(), out);
+        writeStrings(table.lastNames(), out);
+        out.writeVarLong(roots.length);
+        for (int root : roots) {
+            out.writeVarLong(position[root]);
+        }
+        for (int i = 0; i < n; i++) {
+            int row = order[i];
+            out.writeVarLong(table.firstNameId(row));
+            out.writeVarLong(table.lastNameId(row));
+            out.writeSignedVarLong(table.height(row));
+            out.writeVarLong(parents[row]);
+            int children = table.childCount(row);
+            out.writeVarLong(children);
+            for (int c = 0; c < children; c++) {
+                out.writeVarLong(i - position[table.child(row, c)]);
+            }
+        }
+    }
+
+    private static void writeStrings(StringDictionary strings, BinaryWriter out) throws IOException {
+        out.writeVarLong(strings.size());
+        for (int id = 0; id < strings.size(); id++) {
+            out.writeString(strings.decode(id));
+        }
+    }
+
+    /** wie oft jede Zeile Kind einer anderen ist */
+    private static int[] parentCounts(PersonTable table) {
+        int[] parents = new int[table.size()];
+        for (int row = 0; row < table.size(); row++) {
+            for (int c = 0; c < table.childCount(row); c++) {
+                parents[table.child(row, c)]++;
+            }
+        }
+        return parents;
+    }
+
+    /** die Zeilen so geordnet, dass jede nach allen ihren Kindern kommt (iterative Tiefensuche, Post-Order) */
+    private static int[] childrenFirst(PersonTable table) {
+        int n = table.size();
+        int[] order = new int[n];
+        byte[] state = new byte[n];     // 0: noch nicht besucht, 1: auf dem Stack, 2: fertig
+        int[] stack = new int[n];
+        int[] nextChild = new int[n];
+        int count = 0;
+        for (int start = 0; start < n; start++) {
+            if (state[start] != 0) {
+                continue;
+            }
+            int top = 0;
+            stack[top++] = start;
+            state[start] = 1;
+            while (top > 0) {
+                int row = stack[top - 1];
+                if (nextChild[row] < table.childCount(row)) {
+                    int child = table.child(row, nextChild[row]++);
+                    if (state[child] == 0) {
+                        state[child] = 1;
+                        stack[top++] = child;
+                    } else if (state[child] == 1) {
+                        throw new IllegalArgumentException("person is its own descendant: " + table.firstName(child)
+                            + " " + table.lastName(child));
+                    }
+                } else {
+                    top--;
+                    state[row] = 2;
+                    order[count++] = row;
+                }
+            }
+        }
+        return order;
+    }
+
+    // ---- Lesen ----
+
+    /** liest die Datei (memory-mapped) in eine PersonTable; die Zeilen haben die Reihenfolge der Datei */
+    public static PersonTable readTable(Path file) throws IOException {
+        return readTable(BinaryReader.map(file));
+    }
+
+    public static PersonTable readTable(BinaryReader in) throws IOException {
+        Header header = new Header(in);
+        int n = header.size;
+        int[] firstNameIds = new int[n];
+        int[] lastNameIds = new int[n];
+        int[] heights = new int[n];
+        int[] childStart = new int[n + 1];
+        int[] childRows = new int[Math.max(16, n)];
+        int edges = 0;
+        for (int i = 0; i < n; i++) {
+            firstNameIds[i] = header.firstNameId(in);
+            lastNameIds[i] = header.lastNameId(in);
+            heights[i] = (int) in.readSignedVarLong();
+            in.readVarInt();    // Anzahl der Eltern, nur für stream()
+            int children = in.readVarInt();
+            if (edges + children > childRows.length) {
+                childRows = Arrays.copyOf(childRows, Math.max(edges + children, 2 * childRows.length));
+            }
+            for (int c = 0; c < children; c++) {
+                childRows[edges++] = childPosition(in, i);
+            }
+            childStart[i + 1] = edges;
+        }
+        return PersonTable.of(header.firstNames, header.lastNames, firstNameIds, lastNameIds, heights, childStart,
+            Arrays.copyOf(childRows, edges));
+    }
+
+    /** liest die Datei (memory-mapped): die Personen, die geschrieben wurden, samt allen Nachkommen */
+    public static List<Person> read(Path file) throws IOException {
+        return read(BinaryReader.map(file));
+    }
+
+    public static List<Person> read(BinaryReader in) throws IOException {
+        Header header = new Header(in);
+        Person[] people = new Person[header.size];
+        for (int i = 0; i < people.length; i++) {
+            people[i] = header.readPerson(in, i, people);
+        }
+        List<Person> roots = new ArrayList<>(header.roots.length);
+        for (int root : header.roots) {
+            roots.add(people[root]);
+        }
+        return roots;
+    }
+
+    /** jede Person der Datei, sobald sie gelesen ist (ihre Kinder also vor ihr), siehe {@link #stream(BinaryReader)} */
+    public static Stream<Person> stream(Path file) throws IOException {
+        return stream(BinaryReader.map(file));
+    }
+
+    /**
+     * Jede Person aus in, sobald sie gelesen ist: Kinder kommen vor ihren Eltern, eine Person ist bei ihrer
+     * Ausgabe vollständig (mit allen Nachkommen). Gelesen wird erst beim Verarbeiten des Streams; im Speicher
+     * bleiben nur die Personen, deren Eltern noch nicht gelesen sind.
+     */
+    public static Stream<Person> stream(BinaryReader in) throws IOException {
+        Header header = new Header(in);
+        Spliterator<Person> spliterator = new Spliterators.AbstractSpliterator<Person>(header.size,
+                Spliterator.ORDERED | Spliterator.SIZED | Spliterator.NONNULL) {
+            private final Map<Integer, Pending> pending = new HashMap<>();
+            private int next;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Person> action) {
+                if (next == header.size) {
+                    return false;
+                }
+                try {
+                    action.accept(read());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return true;
+            }
+
+            private Person read() throws IOException {
+                int i = next++;
+                Person p = new Person(header.firstNames.decode(header.firstNameId(in)),
+                    header.lastNames.decode(header.lastNameId(in)), (int) in.readSignedVarLong());
+                int parents = in.readVarInt();
+                int children = in.readVarInt();
+                for (int c = 0; c < children; c++) {
+                    int child = childPosition(in, i);
+                    Pending entry = pending.get(child);
+                    if (entry == null) {
+                        throw new IOException("child " + child + " of person " + i + " referenced too often");
+                    }
+                    p.addChild(entry.person);
+                    if (--entry.parents == 0) {
+                        pending.remove(child);
+                    }
+                }
+                if (parents > 0) {
+                    pending.put(i, new Pending(p, parents));
+                }
+                return p;
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                in.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static int childPosition(BinaryReader in, int parent) throws IOException {
+        int distance = in.readVarInt();
+        if (distance < 1 || distance > parent) {
+            throw new IOException("invalid child reference at person " + parent + ": " + distance);
+        }
+        return parent - distance;
+    }
+
+    /** eine gelesene Person, deren Eltern noch nicht alle gelesen sind */
+    private static final class Pending {
+        final Person person;
+        int parents;
+
+        Pending(Person person, int parents) {
+            this.person = person;
+            this.parents = parents;
+        }
+    }
+
+    /** Kopf der Datei: Anzahl der Personen, String-Tabellen und die Positionen der geschriebenen Personen */
+    private static final class Header {
+        final int size;
+        final StringDictionary firstNames;
+        final StringDictionary lastNames;
+        final int[] roots;
+
+        Header(BinaryReader in) throws IOException {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("not a person file");
+            }
+            int version = in.readByte();
+            if (version != VERSION) {
+                throw new IOException("unsupported version: " + version);
+            }
+            size = in.readVarInt();
+            firstNames = readStrings(in);
+            lastNames = readStrings(in);
+            roots = new int[in.readVarInt()];
+            for (int i = 0; i < roots.length; i++) {
+                roots[i] = in.readVarInt();
+                if (roots[i] >= size) {
+                    throw new IOException("invalid person reference: " + roots[i]);
+                }
+            }
+        }
+
+        int firstNameId(BinaryReader in) throws IOException {
+            return checkId(in.readVarInt(), firstNames);
+        }
+
+        int lastNameId(BinaryReader in) throws IOException {
+            return checkId(in.readVarInt(), lastNames);
+        }
+
+        Person readPerson(BinaryReader in, int i, Person[] people) throws IOException {
+            Person p = new Person(firstNames.decode(firstNameId(in)), lastNames.decode(lastNameId(in)),
+                (int) in.readSignedVarLong());
+            in.readVarInt();    // Anzahl der Eltern, nur für stream()
+            int children = in.readVarInt();
+            for (int c = 0; c < children; c++) {
+                p.addChild(people[childPosition(in, i)]);
+            }
+            return p;
+        }
+
+        private static int checkId(int id, StringDictionary strings) throws IOException {
+            if (id >= strings.size()) {
+                throw new IOException("invalid name reference: " + id);
+            }
+            return id;
+        }
+
+        private static StringDictionary readStrings(BinaryReader in) throws IOException {
+            StringDictionary strings = new StringDictionary();
+            int count = in.readVarInt();
+            for (int i = 0; i < count; i++) {
+                strings.encode(in.readString());
+            }
+            return strings;
+        }
+    }
+}
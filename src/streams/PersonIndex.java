@@ -0,0 +1,157 @@
+package streams;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Präfix-Suche über einen Namen (z.B. den Vornamen) einer Sammlung von Personen.
+ *
+ * Statt für jede Abfrage alle Personen zu durchlaufen
+ * <pre>
+ *   people.stream().filter(p -&gt; p.getFirstName().startsWith("S")).findFirst()
+ * </pre>
+ * werden die Namen einmal sortiert. Alle Namen mit demselben Präfix stehen dann hintereinander und werden mit
+ * binärer Suche gefunden: O(log n) für findFirst/count, O(log n + k) für alle k Treffer.
+ *
+ * Ein PersonIndex ist unveränderbar und kann von mehreren Threads gleichzeitig abgefragt werden; später
+ * hinzugefügte oder umbenannte Personen werden nicht berücksichtigt.
+ */
+public final class PersonIndex {
+
+    private final Person[] people;      // in der ursprünglichen Reihenfolge
+    private final String[] keys;        // sortiert
+    private final int[] positions;      // positions[i]: Position (in people) der Person mit Namen keys[i]
+    private final int[] minPosition;    // Segmentbaum über positions: kleinste Position eines Bereichs
+
+    private PersonIndex(Collection<Person> people, Function<? super Person, String> key) {
+        this.people = people.toArray(new Person[0]);
+        int n = this.people.length;
+        String[] unsorted = new String[n];
+        for (int i = 0; i < n; i++) {
+            unsorted[i] = key.apply(this.people[i]);
+        }
+        // stabil sortieren: Personen mit gleichem Namen bleiben in der ursprünglichen Reihenfolge
+        Integer[] order = new Integer[n];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, Comparator.comparing(i -> unsorted[i]));
+
+        keys = new String[n];
+        positions = new int[n];
+        minPosition = new int[2 * n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = unsorted[order[i]];
+            positions[i] = order[i];
+            minPosition[n + i] = order[i];
+        }
+        for (int i = n - 1; i > 0; i--) {
+            minPosition[i] = Math.min(minPosition[2 * i], minPosition[2 * i + 1]);
+        }
+    }
+
+    /** Index über die Vornamen von people */
+    public static PersonIndex byFirstName(Collection<Person> people) {
+        return new PersonIndex(people, Person::getFirstName);
+    }
+
+    /** Index über die Nachnamen von people */
+    public static PersonIndex byLastName(Collection<Person> people) {
+        return new PersonIndex(people, Person::getLastName);
+    }
+
+    /** Index über einen beliebigen Namen von people, key darf nicht null liefern */
+    public static PersonIndex of(Collection<Person> people, Function<? super Person, String> key) {
+        return new PersonIndex(people, key);
+    }
+
+    /** wie {@code people.stream().filter(p -> key(p).startsWith(prefix)).findFirst()} */
+    public Optional<Person> findFirst(String prefix) {
+        int from = lowerBound(prefix);
+        int to = upperBound(prefix, from);
+        if (from == to) {
+            return Optional.empty();
+        }
+        return Optional.of(people[minPosition(from, to)]);
+    }
+
+    /** irgendeine Person, deren Name mit prefix beginnt (die mit dem alphabetisch kleinsten Namen) */
+    public Optional<Person> findAny(String prefix) {
+        int from = lowerBound(prefix);
+        return from < keys.length && keys[from].startsWith(prefix)
+            ? Optional.of(people[positions[from]])
+            : Optional.empty();
+    }
+
+    /** alle Personen, deren Name mit prefix beginnt, alphabetisch nach dem Namen sortiert */
+    public Stream<Person> find(String prefix) {
+        int from = lowerBound(prefix);
+        return IntStream.range(from, upperBound(prefix, from)).mapToObj(i -> people[positions[i]]);
+    }
+
+    /** Anzahl der Personen, deren Name mit prefix beginnt */
+    public int count(String prefix) {
+        int from = lowerBound(prefix);
+        return upperBound(prefix, from) - from;
+    }
+
+    /** {@link #findFirst(String)} für jedes der prefixes, parallel; das Ergebnis hat dieselbe Reihenfolge */
+    public List<Optional<Person>> findFirst(List<String> prefixes) {
+        return prefixes.parallelStream().map(this::findFirst).collect(Collectors.toList());
+    }
+
+    /** Anzahl der Personen im Index */
+    public int size() {
+        return people.length;
+    }
+
+    /** erster Index i mit keys[i] &gt;= prefix */
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /** erster Index i ab from, bei dem keys[i] nicht mehr mit prefix beginnt */
+    private int upperBound(String prefix, int from) {
+        int low = from;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].startsWith(prefix)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /** kleinste Position im Bereich [from, to) von positions */
+    private int minPosition(int from, int to) {
+        int n = keys.length;
+        int min = Integer.MAX_VALUE;
+        for (int l = from + n, r = to + n; l < r; l >>>= 1, r >>>= 1) {
+            if ((l & 1) == 1) {
+                min = Math.min(min, minPosition[l++]);
+            }
+            if ((r & 1) == 1) {
+                min = Math.min(min, minPosition[--r]);
+            }
+        }
+        return min;
+    }
+}
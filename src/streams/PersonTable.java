@@ -0,0 +1,305 @@
+package streams;
+
+import streams.collect.GroupStats;
+import streams.collect.StringDictionary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Personen spaltenweise gespeichert: Statt eines Person-Objekts je Person (mit zwei Strings und einer
+ * ArrayList für die Kinder) gibt es je Eigenschaft ein int-Array, indiziert mit der Zeilennummer der Person.
+ *
+ * <ul>
+ *     <li>Vor- und Nachnamen sind dictionary-encoded: jeder Name wird nur einmal gespeichert, je Zeile steht
+ *     nur seine Nummer ({@link StringDictionary})</li>
+ *     <li>die Größe steht direkt als int im Array heights</li>
+ *     <li>die Kinder sind im CSR-Format (compressed sparse row) gespeichert: die Kinder der Zeile r stehen in
+ *     childRows[childStart[r]] bis childRows[childStart[r + 1] - 1]</li>
+ * </ul>
+ *
+ * Auswertungen wie {@code groupingBy(Person::getLastName, averagingDouble(Person::getHeight))} laufen damit über
+ * int-Arrays, ohne Boxing und ohne ein Objekt je Zeile (siehe {@link #heightsByLastName()}).
+ * Eine PersonTable ist unveränderbar.
+ */
+public final class PersonTable {
+
+    private final StringDictionary firstNames;
+    private final StringDictionary lastNames;
+    private final int size;
+    private final int[] firstNameIds;
+    private final int[] lastNameIds;
+    private final int[] heights;
+    private final int[] childStart;
+    private final int[] childRows;
+
+    private PersonTable(Builder builder) {
+        this.firstNames = builder.firstNames.readOnlyView();
+        this.lastNames = builder.lastNames.readOnlyView();
+        this.size = builder.size;
+        this.firstNameIds = Arrays.copyOf(builder.firstNameIds, size);
+        this.lastNameIds = Arrays.copyOf(builder.lastNameIds, size);
+        this.heights = Arrays.copyOf(builder.heights, size);
+
+        // Kanten (parent, child) nach parent sortieren (counting sort), Reihenfolge der Kinder bleibt erhalten
+        childStart = new int[size + 1];
+        for (int i = 0; i < builder.edges; i++) {
+            childStart[builder.edgeParents[i] + 1]++;
+        }
+        for (int r = 0; r < size; r++) {
+            childStart[r + 1] += childStart[r];
+        }
+        childRows = new int[builder.edges];
+        int[] next = Arrays.copyOf(childStart, size);
+        for (int i = 0; i < builder.edges; i++) {
+            childRows[next[builder.edgeParents[i]]++] = builder.edgeChildren[i];
+        }
+    }
+
+    private PersonTable(StringDictionary firstNames, StringDictionary lastNames, int[] firstNameIds,
+                        int[] lastNameIds, int[] heights, int[] childStart, int[] childRows) {
+        this.firstNames = firstNames.readOnlyView();
+        this.lastNames = lastNames.readOnlyView();
+        this.size = heights.length;
+        this.firstNameIds = firstNameIds;
+        this.lastNameIds = lastNameIds;
+        this.heights = heights;
+        this.childStart = childStart;
+        this.childRows = childRows;
+    }
+
+    /** Tabelle direkt aus fertigen Spalten (z.B. von {@link PersonCodec}); die Arrays werden nicht kopiert */
+    static PersonTable of(StringDictionary firstNames, StringDictionary lastNames, int[] firstNameIds,
+                          int[] lastNameIds, int[] heights, int[] childStart, int[] childRows) {
+        return new PersonTable(firstNames, lastNames, firstNameIds, lastNameIds, heights, childStart, childRows);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Tabelle aus den Personen (in der Reihenfolge von people) und allen ihren Nachkommen, die nicht selbst in
+     * people vorkommen (diese werden hinten angefügt).
+     */
+    public static PersonTable of(Collection<Person> people) {
+        Builder builder = new Builder();
+        List<Person> persons = new ArrayList<>(people);
+        Map<Person, Integer> rows = new IdentityHashMap<>();
+        for (Person p : persons) {
+            rows.put(p, builder.add(p.getFirstName(), p.getLastName(), p.getHeight()));
+        }
+        // neu angefügte Kinder werden in derselben Schleife weiter bearbeitet
+        for (int row = 0; row < persons.size(); row++) {
+            Person parent = persons.get(row);
+            for (int i = 0; i < parent.getChildCount(); i++) {
+                Person child = parent.childAt(i);
+                Integer childRow = rows.get(child);
+                if (childRow == null) {
+                    childRow = builder.add(child.getFirstName(), child.getLastName(), child.getHeight());
+                    rows.put(child, childRow);
+                    persons.add(child);
+                }
+                builder.addChild(row, childRow);
+            }
+        }
+        return builder.build();
+    }
+
+    /** Anzahl der Personen (Zeilen) */
+    public int size() {
+        return size;
+    }
+
+    public String firstName(int row) {
+        return firstNames.decode(firstNameIds[row]);
+    }
+
+    public String lastName(int row) {
+        return lastNames.decode(lastNameIds[row]);
+    }
+
+    int firstNameId(int row) {
+        return firstNameIds[row];
+    }
+
+    /** Nummer des Nachnamens der Zeile, siehe {@link #lastNames()} */
+    public int lastNameId(int row) {
+        return lastNameIds[row];
+    }
+
+    public int height(int row) {
+        return heights[row];
+    }
+
+    /**
+     * die verschiedenen Nachnamen; lastNames().decode(lastNameId(row)) ist der Nachname der Zeile row.
+     * Nur lesbar: neue Namen (encode) werden abgelehnt.
+     */
+    public StringDictionary lastNames() {
+        return lastNames;
+    }
+
+    StringDictionary firstNames() {
+        return firstNames;
+    }
+
+    /** die Zeilennummern 0 bis size() - 1 */
+    public IntStream rows() {
+        return IntStream.range(0, size);
+    }
+
+    public IntStream heights() {
+        return Arrays.stream(heights);
+    }
+
+    public IntStream lastNameIds() {
+        return Arrays.stream(lastNameIds);
+    }
+
+    /** die Zeilennummern der Kinder von row */
+    public IntStream children(int row) {
+        return Arrays.stream(childRows, childStart[row], childStart[row + 1]);
+    }
+
+    public int childCount(int row) {
+        return childStart[row + 1] - childStart[row];
+    }
+
+    /** Zeilennummer des i-ten Kinds von row */
+    int child(int row, int i) {
+        return childRows[childStart[row] + i];
+    }
+
+    /**
+     * erzeugt ein Person-Objekt (samt Nachkommen) für die Zeile row. Ohne Rekursion, auch sehr lange Ketten von
+     * Generationen gehen; ein Kind, das mehrere Eltern hat, ist dasselbe Objekt.
+     */
+    public Person toPerson(int row) {
+        Map<Integer, Person> persons = new HashMap<>();
+        List<Integer> reached = new ArrayList<>();
+        persons.put(row, newPerson(row));
+        reached.add(row);
+        // reached wächst während der Schleife: jede erreichte Zeile wird genau einmal besucht
+        for (int k = 0; k < reached.size(); k++) {
+            int r = reached.get(k);
+            for (int i = childStart[r]; i < childStart[r + 1]; i++) {
+                int child = childRows[i];
+                if (!persons.containsKey(child)) {
+                    persons.put(child, newPerson(child));
+                    reached.add(child);
+                }
+            }
+        }
+        for (int r : reached) {
+            Person p = persons.get(r);
+            for (int i = childStart[r]; i < childStart[r + 1]; i++) {
+                p.addChild(persons.get(childRows[i]));
+            }
+        }
+        return persons.get(row);
+    }
+
+    /**
+     * Person-Objekte für alle Zeilen, in einem Durchlauf erzeugt und mit ihren Kindern verknüpft: je Zeile genau
+     * ein Objekt, Kinder sind dieselben Objekte wie ihre eigenen Zeilen - nur für Code, der Person-Objekte braucht
+     */
+    public Stream<Person> people() {
+        Person[] persons = new Person[size];
+        for (int r = 0; r < size; r++) {
+            persons[r] = newPerson(r);
+        }
+        for (int r = 0; r < size; r++) {
+            for (int i = childStart[r]; i < childStart[r + 1]; i++) {
+                persons[r].addChild(persons[childRows[i]]);
+            }
+        }
+        return Arrays.stream(persons);
+    }
+
+    private Person newPerson(int row) {
+        return new Person(firstName(row), lastName(row), height(row));
+    }
+
+    /** Anzahl, Summe, Minimum und Maximum der Größen je Nachname, ohne einen Nachnamen zu hashen */
+    public GroupStats<String> heightsByLastName() {
+        return GroupStats.of(lastNames, lastNameIds, heights);
+    }
+
+    /** wie {@code groupingBy(Person::getLastName, counting())} */
+    public Map<String, Long> countByLastName() {
+        return heightsByLastName().counts();
+    }
+
+    /** wie {@code groupingBy(Person::getLastName, averagingDouble(Person::getHeight))} */
+    public Map<String, Double> averageHeightByLastName() {
+        return heightsByLastName().averages();
+    }
+
+    /** baut eine PersonTable Zeile für Zeile auf */
+    public static final class Builder {
+        private final StringDictionary firstNames = new StringDictionary();
+        private final StringDictionary lastNames = new StringDictionary();
+        private int size;
+        private int[] firstNameIds = new int[16];
+        private int[] lastNameIds = new int[16];
+        private int[] heights = new int[16];
+        private int edges;
+        private int[] edgeParents = new int[16];
+        private int[] edgeChildren = new int[16];
+        private boolean built;
+
+        private Builder() {
+        }
+
+        /** fügt eine Person an und liefert ihre Zeilennummer */
+        public int add(String firstName, String lastName, int height) {
+            checkNotBuilt();
+            if (size == heights.length) {
+                firstNameIds = Arrays.copyOf(firstNameIds, size * 2);
+                lastNameIds = Arrays.copyOf(lastNameIds, size * 2);
+                heights = Arrays.copyOf(heights, size * 2);
+            }
+            firstNameIds[size] = firstNames.encode(firstName);
+            lastNameIds[size] = lastNames.encode(lastName);
+            heights[size] = height;
+            return size++;
+        }
+
+        /** child (Zeilennummer) ist ein Kind von parent (Zeilennummer) */
+        public Builder addChild(int parent, int child) {
+            checkNotBuilt();
+            if (parent < 0 || parent >= size || child < 0 || child >= size) {
+                throw new IndexOutOfBoundsException("parent: " + parent + ", child: " + child + ", size: " + size);
+            }
+            if (edges == edgeParents.length) {
+                edgeParents = Arrays.copyOf(edgeParents, edges * 2);
+                edgeChildren = Arrays.copyOf(edgeChildren, edges * 2);
+            }
+            edgeParents[edges] = parent;
+            edgeChildren[edges] = child;
+            edges++;
+            return this;
+        }
+
+        /** erzeugt die Tabelle; danach kann der Builder nicht mehr verändert werden */
+        public PersonTable build() {
+            checkNotBuilt();
+            built = true;
+            return new PersonTable(this);
+        }
+
+        private void checkNotBuilt() {
+            if (built) {
+                throw new IllegalStateException("build() has already been called");
+            }
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package streams;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Durchläuft den Baum aus einer Person und ihren Kindern, Enkeln, ... ohne Rekursion.
+ *
+ * Statt rekursiver Methodenaufrufe (ein Stack-Frame je Generation, StackOverflowError bei sehr tiefen Stammbäumen)
+ * verwenden alle Durchläufe einen eigenen Stack bzw. eine Queue auf dem Heap. Kommt eine Person mehrfach als Kind
+ * vor, wird sie auch mehrfach besucht; Zyklen (eine Person als ihr eigener Nachkomme) sind nicht erlaubt.
+ */
+public final class PersonTree {
+
+    private PersonTree() {
+    }
+
+    /**
+     * Alle Nachkommen von root (ohne root) in Tiefensuche: zuerst das erste Kind und alle seine Nachkommen, dann
+     * das zweite Kind usw. Der Stream kann parallel verarbeitet werden.
+     */
+    public static Stream<Person> depthFirst(Person root) {
+        return StreamSupport.stream(new DepthFirstSpliterator(root), false);
+    }
+
+    /**
+     * Alle Nachkommen von root (ohne root) in Breitensuche: zuerst die Kinder, dann die Enkel usw.
+     * Die Reihenfolge lässt sich nicht in zusammenhängende Teile zerlegen, der Stream wird daher sequentiell
+     * erzeugt (auch mit parallel()).
+     */
+    public static Stream<Person> breadthFirst(Person root) {
+        return StreamSupport.stream(new BreadthFirstSpliterator(root), false);
+    }
+
+    /** Statistik über die Größen aller Nachkommen von root (ohne root), parallel berechnet */
+    public static IntSummaryStatistics heightStatistics(Person root) {
+        return heightStatistics(root, ForkJoinPool.commonPool());
+    }
+
+    /** wie {@link #heightStatistics(Person)}, aber in pool */
+    public static IntSummaryStatistics heightStatistics(Person root, ForkJoinPool pool) {
+        if (root.getChildCount() == 0) {
+            return new IntSummaryStatistics();
+        }
+        Deque<Person> stack = new ArrayDeque<>();
+        pushChildren(root, stack);
+        return pool.invoke(new HeightTask(stack));
+    }
+
+    /** hängt {@code person.toString()} an builder an, ohne Zwischen-Strings für die Teilbäume */
+    public static StringBuilder render(Person person, StringBuilder builder) {
+        // je begonnener Kinderliste: die Person und der Index des nächsten Kindes
+        Deque<Person> parents = new ArrayDeque<>();
+        int[] next = new int[16];
+        Person current = person;
+        while (true) {
+            if (current != null) {
+                builder.append(current.getFirstName()).append(' ').append(current.getLastName());
+                if (current.getChildCount() > 0) {
+                    builder.append(" (Kinder: ");
+                    if (parents.size() == next.length) {
+                        next = Arrays.copyOf(next, next.length * 2);
+                    }
+                    next[parents.size()] = 0;
+                    parents.push(current);
+                }
+            }
+            if (parents.isEmpty()) {
+                return builder;
+            }
+            int depth = parents.size() - 1;
+            Person parent = parents.peek();
+            if (next[depth] < parent.getChildCount()) {
+                if (next[depth] > 0) {
+                    builder.append(", ");
+                }
+                current = parent.childAt(next[depth]++);
+            } else {
+                builder.append(')');
+                parents.pop();
+                current = null;
+            }
+        }
+    }
+
+    /** legt die Kinder von p so auf stack, dass das erste Kind oben liegt */
+    private static void pushChildren(Person p, Deque<Person> stack) {
+        for (int i = p.getChildCount() - 1; i >= 0; i--) {
+            stack.push(p.childAt(i));
+        }
+    }
+
+    /**
+     * Der Stack enthält die noch zu besuchenden Teilbäume, der nächste oben. Beim Teilen bekommt der neue
+     * Spliterator die obere Hälfte (die in Tiefensuche zuerst besucht wird), dieser behält die untere.
+     */
+    private static final class DepthFirstSpliterator implements Spliterator<Person> {
+        private static final int CHARACTERISTICS = ORDERED | NONNULL;
+
+        private final Deque<Person> stack;
+        private long estimate;
+
+        DepthFirstSpliterator(Person root) {
+            this(new ArrayDeque<>(), Long.MAX_VALUE);
+            pushChildren(root, stack);
+        }
+
+        private DepthFirstSpliterator(Deque<Person> stack, long estimate) {
+            this.stack = stack;
+            this.estimate = estimate;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Person> action) {
+            Person p = stack.poll();
+            if (p == null) {
+                return false;
+            }
+            pushChildren(p, stack);
+            action.accept(p);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Person> action) {
+            Person p;
+            while ((p = stack.poll()) != null) {
+                pushChildren(p, stack);
+                action.accept(p);
+            }
+        }
+
+        @Override
+        public Spliterator<Person> trySplit() {
+            int size = stack.size();
+            if (size == 0) {
+                return null;
+            }
+            if (size == 1) {
+                // die oberste Person allein abgeben, dieser Spliterator übernimmt ihre Nachkommen
+                Person p = stack.peek();
+                if (p.getChildCount() == 0) {
+                    return null;
+                }
+                stack.pop();
+                pushChildren(p, stack);
+                estimate >>>= 1;
+                return Spliterators.spliterator(new Object[]{p}, CHARACTERISTICS);
+            }
+            estimate >>>= 1;
+            Deque<Person> prefix = new ArrayDeque<>(size / 2);
+            for (int i = 0; i < size / 2; i++) {
+                prefix.addLast(stack.pollFirst());
+            }
+            return new DepthFirstSpliterator(prefix, estimate);
+        }
+
+        @Override
+        public long estimateSize() {
+            return stack.isEmpty() ? 0 : estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS;
+        }
+    }
+
+    private static final class BreadthFirstSpliterator extends Spliterators.AbstractSpliterator<Person> {
+        private final Deque<Person> queue = new ArrayDeque<>();
+
+        BreadthFirstSpliterator(Person root) {
+            super(Long.MAX_VALUE, ORDERED | NONNULL);
+            addChildren(root);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Person> action) {
+            Person p = queue.poll();
+            if (p == null) {
+                return false;
+            }
+            addChildren(p);
+            action.accept(p);
+            return true;
+        }
+
+        private void addChildren(Person p) {
+            for (int i = 0; i < p.getChildCount(); i++) {
+                queue.add(p.childAt(i));
+            }
+        }
+
+        @Override
+        public Spliterator<Person> trySplit() {
+            return null;
+        }
+    }
+
+    /**
+     * Besucht die Teilbäume in stack iterativ; solange andere Threads ohne Arbeit sein könnten, wird der zuletzt
+     * zu besuchende Teilbaum als eigene Aufgabe abgegeben. Abgegebene Aufgaben, die noch kein anderer Thread
+     * übernommen hat, werden zurückgeholt und im selben Stack weiterbearbeitet (join() würde sie verschachtelt
+     * ausführen und bei tiefen Bäumen wieder den Stack des Threads füllen).
+     */
+    private static final class HeightTask extends RecursiveTask<IntSummaryStatistics> {
+        private static final long serialVersionUID = 1L;
+
+        private final Deque<Person> stack;
+
+        HeightTask(Deque<Person> stack) {
+            this.stack = stack;
+        }
+
+        @Override
+        protected IntSummaryStatistics compute() {
+            IntSummaryStatistics statistics = new IntSummaryStatistics();
+            List<HeightTask> forked = new ArrayList<>();
+            while (true) {
+                Person p;
+                while ((p = stack.poll()) != null) {
+                    statistics.accept(p.getHeight());
+                    pushChildren(p, stack);
+                    while (stack.size() > 1 && getSurplusQueuedTaskCount() < 3) {
+                        Deque<Person> subtree = new ArrayDeque<>();
+                        subtree.push(stack.pollLast());
+                        HeightTask task = new HeightTask(subtree);
+                        task.fork();
+                        forked.add(task);
+                    }
+                }
+                if (forked.isEmpty()) {
+                    return statistics;
+                }
+                HeightTask last = forked.remove(forked.size() - 1);
+                if (last.tryUnfork()) {
+                    stack.addAll(last.stack);
+                } else {
+                    statistics.combine(last.join());
+                }
+            }
+        }
+    }
+}
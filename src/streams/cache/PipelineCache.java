@@ -0,0 +1,449 @@
+package streams.cache;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Merkt sich das Ergebnis einer Pipeline über einer Collection, damit dieselbe Gruppierung oder Statistik über
+ * unveränderten Daten nicht bei jedem Aufruf neu berechnet wird.
+ * <pre>
+ *   PipelineCache cache = PipelineCache.builder().maximumSize(1_000).build();
+ *   Map&lt;String, Double&gt; averages = cache.get(people, "average height by last name",
+ *       s -&gt; s.collect(groupingBy(Person::getLastName, averagingDouble(Person::getHeight))));
+ * </pre>
+ * Schlüssel ist die Quelle selbst (Identität, nicht equals) zusammen mit dem Namen der Pipeline; derselbe Name
+ * muss also immer dieselbe Berechnung meinen. Die Quelle wird nur schwach referenziert: wird sie nicht mehr
+ * verwendet, verschwinden auch ihre Einträge.
+ *
+ * Damit nie ein veraltetes Ergebnis geliefert wird, gilt:
+ * <ul>
+ *   <li>{@link #get(Collection, String, Function)} nimmt nur Quellen, von denen sicher ist, dass sie sich nicht
+ *   ändern: List.of, Set.of, List.copyOf, Stream.toList(), Collections.emptyList(), Collections.singleton(), ...
+ *   und Klassen, die mit {@link Builder#trustImmutable(Class)} ausdrücklich als unveränderlich angegeben
+ *   wurden. Alle anderen (ArrayList, Collections.unmodifiableList, das nur eine Sicht auf eine veränderliche
+ *   Liste ist, eigene Unterklassen, Collections anderer Bibliotheken) werden mit einer
+ *   IllegalArgumentException abgelehnt.</li>
+ *   <li>Veränderliche Quellen gehen über {@link #get(Collection, long, String, Function)} mit einer Versionsnummer,
+ *   die sich bei jeder Änderung ändert. Ein Ergebnis gilt nur für die Version, mit der es berechnet wurde.</li>
+ * </ul>
+ * Begrenzt wird die Anzahl der Einträge und ihr Gesamtgewicht (Standard: Anzahl der Elemente einer Collection oder
+ * Map im Ergebnis, sonst 1); verdrängt wird der am längsten nicht verwendete Eintrag (LRU). Fragen mehrere Threads
+ * gleichzeitig nach einem fehlenden Eintrag, rechnet nur einer, die anderen warten auf sein Ergebnis.
+ *
+ * Alle Aufrufer bekommen dasselbe Ergebnisobjekt: es darf nicht verändert werden (z.B. mit
+ * {@code collectingAndThen(groupingBy(...), Map::copyOf)} unveränderlich machen).
+ */
+public final class PipelineCache {
+
+    private final long maximumSize;
+    private final long maximumWeight;
+    private final ToLongFunction<Object> weigher;
+    private final Set<Class<?>> trustedImmutableTypes;
+    // in Zugriffsreihenfolge: der erste Eintrag ist der am längsten nicht verwendete
+    private final Map<SourceKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);   // geschützt durch this
+    private final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long staleResults;
+
+    private PipelineCache(Builder builder) {
+        this.maximumSize = builder.maximumSize;
+        this.maximumWeight = builder.maximumWeight;
+        this.weigher = builder.weigher;
+        this.trustedImmutableTypes = Set.copyOf(builder.trustedImmutableTypes);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Das Ergebnis von terminal(source.stream()), berechnet beim ersten Aufruf für source und pipeline.
+     *
+     * @throws IllegalArgumentException wenn nicht sicher ist, dass source unveränderlich ist
+     */
+    public <T, R> R get(Collection<T> source, String pipeline, Function<? super Stream<T>, ? extends R> terminal) {
+        if (!isImmutable(source)) {
+            throw new IllegalArgumentException("source of type " + source.getClass().getName()
+                + " can change; use List.copyOf(source) or pass a version");
+        }
+        return get(source, 0, pipeline, terminal);
+    }
+
+    /**
+     * Wie {@link #get(Collection, String, Function)} für eine veränderliche Quelle: ein Ergebnis, das für eine
+     * andere version berechnet wurde, wird verworfen und neu berechnet.
+     */
+    public <T, R> R get(Collection<T> source, long version, String pipeline,
+                        Function<? super Stream<T>, ? extends R> terminal) {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(pipeline, "pipeline");
+        Objects.requireNonNull(terminal, "terminal");
+        Entry entry;
+        boolean compute = false;
+        synchronized (this) {
+            removeCollected();
+            entry = entries.get(new Lookup(source, pipeline));
+            if (entry != null && entry.version == version) {
+                if (entry.owner == Thread.currentThread() && !entry.result.isDone()) {
+                    throw new IllegalStateException("pipeline '" + pipeline + "' uses its own cached result");
+                }
+                hits++;
+            } else {
+                if (entry != null) {
+                    remove(entry);
+                    staleResults++;
+                }
+                misses++;
+                entry = new Entry(new Key(source, pipeline, collected), version);
+                entries.put(entry.key, entry);
+                evict();
+                compute = true;
+            }
+        }
+        return compute ? compute(entry, source, terminal) : await(entry);
+    }
+
+    /** verwirft alle Ergebnisse für source */
+    public synchronized void invalidate(Object source) {
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.key.source() == source) {
+                it.remove();
+                weight -= entry.weight;
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized Stats stats() {
+        removeCollected();
+        return new Stats(hits, misses, evictions, staleResults, entries.size(), weight);
+    }
+
+    private <T, R> R compute(Entry entry, Collection<T> source, Function<? super Stream<T>, ? extends R> terminal) {
+        R value;
+        long w;
+        try (Stream<T> stream = source.stream()) {
+            value = terminal.apply(stream);
+            w = weigher.applyAsLong(value);
+            if (w < 0) {
+                throw new IllegalStateException("negative weight " + w + " for pipeline '" + entry.key.pipeline + "'");
+            }
+        } catch (RuntimeException | Error e) {
+            synchronized (this) {
+                if (entries.get(entry.key) == entry) {
+                    remove(entry);
+                }
+            }
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+        synchronized (this) {
+            // sonst inzwischen verdrängt oder verworfen: das Ergebnis gilt trotzdem für diesen Aufruf
+            if (entries.get(entry.key) == entry) {
+                if (w > maximumWeight) {
+                    // passt allein nicht in den Cache, dafür werden keine anderen Einträge verdrängt
+                    remove(entry);
+                    evictions++;
+                } else {
+                    entry.weight = w;
+                    weight += w;
+                    evict();
+                }
+            }
+        }
+        entry.result.complete(value);
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> R await(Entry entry) {
+        try {
+            return (R) entry.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+
+    /** verdrängt die am längsten nicht verwendeten Einträge, bis Anzahl und Gewicht passen */
+    private void evict() {
+        Iterator<Entry> it = entries.values().iterator();
+        while ((entries.size() > maximumSize || weight > maximumWeight) && it.hasNext()) {
+            Entry entry = it.next();
+            it.remove();
+            weight -= entry.weight;
+            evictions++;
+        }
+    }
+
+    private void remove(Entry entry) {
+        entries.remove(entry.key);
+        weight -= entry.weight;
+    }
+
+    /** entfernt die Einträge von Quellen, die der Garbage Collector freigegeben hat */
+    private void removeCollected() {
+        SourceReference reference;
+        while ((reference = (SourceReference) collected.poll()) != null) {
+            Entry entry = entries.remove(reference.key);
+            if (entry != null) {
+                weight -= entry.weight;
+                evictions++;
+            }
+        }
+    }
+
+    /**
+     * List.of &amp; Co., Collections.empty*, singleton* und nCopies sowie die mit trustImmutable angegebenen Klassen
+     * (genau diese, nicht ihre Unterklassen)
+     */
+    private boolean isImmutable(Collection<?> source) {
+        Class<?> type = source.getClass();
+        if (trustedImmutableTypes.contains(type)) {
+            return true;
+        }
+        String name = type.getName();
+        return name.startsWith("java.util.ImmutableCollections$")
+            || name.startsWith("java.util.Collections$Empty")
+            || name.startsWith("java.util.Collections$Singleton")
+            || name.equals("java.util.Collections$CopiesList");
+    }
+
+    /** Anzahl der Elemente einer Collection oder Map, Länge eines Arrays, sonst 1 */
+    private static long elementCount(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Map) {
+            return ((Map<?, ?>) result).size();
+        }
+        if (result != null && result.getClass().isArray()) {
+            return Array.getLength(result);
+        }
+        return 1;
+    }
+
+    /** Quelle (Identität) und Name der Pipeline; gleich für einen gespeicherten {@link Key} und ein {@link Lookup} */
+    private abstract static class SourceKey {
+        final String pipeline;
+        final int hash;
+
+        SourceKey(Object source, String pipeline) {
+            this.pipeline = pipeline;
+            this.hash = System.identityHashCode(source) * 31 + pipeline.hashCode();
+        }
+
+        abstract Object source();
+
+        @Override
+        public final boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SourceKey)) {
+                return false;
+            }
+            SourceKey other = (SourceKey) o;
+            Object source = source();
+            return source != null && source == other.source() && pipeline.equals(other.pipeline);
+        }
+
+        @Override
+        public final int hashCode() {
+            return hash;
+        }
+    }
+
+    /** der gespeicherte Schlüssel: hält die Quelle nicht fest */
+    private static final class Key extends SourceKey {
+        private final SourceReference reference;
+
+        Key(Object source, String pipeline, ReferenceQueue<Object> queue) {
+            super(source, pipeline);
+            this.reference = new SourceReference(source, queue, this);
+        }
+
+        @Override
+        Object source() {
+            return reference.get();
+        }
+    }
+
+    /** kommt in die ReferenceQueue, wenn die Quelle freigegeben wurde, und kennt den zu entfernenden Schlüssel */
+    private static final class SourceReference extends WeakReference<Object> {
+        final Key key;
+
+        SourceReference(Object source, ReferenceQueue<Object> queue, Key key) {
+            super(source, queue);
+            this.key = key;
+        }
+    }
+
+    /** zum Nachschlagen, ohne eine WeakReference anzulegen */
+    private static final class Lookup extends SourceKey {
+        private final Object source;
+
+        Lookup(Object source, String pipeline) {
+            super(source, pipeline);
+            this.source = source;
+        }
+
+        @Override
+        Object source() {
+            return source;
+        }
+    }
+
+    private static final class Entry {
+        final Key key;
+        final long version;
+        final Thread owner = Thread.currentThread();
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+        long weight;            // 0, solange gerechnet wird; geschützt durch den Cache
+
+        Entry(Key key, long version) {
+            this.key = key;
+            this.version = version;
+        }
+    }
+
+    /** Zähler seit dem Anlegen des Caches und der aktuelle Umfang */
+    public static final class Stats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long staleResults;
+        private final long size;
+        private final long weight;
+
+        Stats(long hits, long misses, long evictions, long staleResults, long size, long weight) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.staleResults = staleResults;
+            this.size = size;
+            this.weight = weight;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        /** Aufrufe, die rechnen mussten (einschließlich {@link #getStaleResults()}) */
+        public long getMisses() {
+            return misses;
+        }
+
+        /** wegen Anzahl, Gewicht oder einer freigegebenen Quelle entfernte Einträge */
+        public long getEvictions() {
+            return evictions;
+        }
+
+        /** Ergebnisse, die verworfen wurden, weil sich die Version der Quelle geändert hat */
+        public long getStaleResults() {
+            return staleResults;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getWeight() {
+            return weight;
+        }
+
+        public double getHitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? Double.NaN : (double) hits / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d, misses=%d (stale %d), hit rate=%.1f%%, evictions=%d, size=%d, weight=%d",
+                hits, misses, staleResults, 100 * getHitRate(), evictions, size, weight);
+        }
+    }
+
+    public static final class Builder {
+        private long maximumSize = 1_000;
+        private long maximumWeight = Long.MAX_VALUE;
+        private ToLongFunction<Object> weigher = PipelineCache::elementCount;
+        private final Set<Class<?>> trustedImmutableTypes = new HashSet<>();
+
+        private Builder() {
+        }
+
+        /** höchstens so viele Ergebnisse (Standard 1000) */
+        public Builder maximumSize(long maximumSize) {
+            if (maximumSize < 0) {
+                throw new IllegalArgumentException("maximumSize must not be negative: " + maximumSize);
+            }
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /** höchstens dieses Gesamtgewicht (Standard unbegrenzt) */
+        public Builder maximumWeight(long maximumWeight) {
+            if (maximumWeight < 0) {
+                throw new IllegalArgumentException("maximumWeight must not be negative: " + maximumWeight);
+            }
+            this.maximumWeight = maximumWeight;
+            return this;
+        }
+
+        /** das Gewicht eines Ergebnisses, z.B. die geschätzte Größe in Bytes; nicht negativ */
+        public Builder weigher(ToLongFunction<Object> weigher) {
+            this.weigher = Objects.requireNonNull(weigher, "weigher");
+            return this;
+        }
+
+        /**
+         * Collections genau dieser Klasse (z.B. eine unveränderliche Liste einer anderen Bibliothek) nimmt
+         * {@link PipelineCache#get(Collection, String, Function)} ohne Versionsnummer an; der Aufrufer sichert
+         * zu, dass sie sich nie ändern.
+         */
+        public Builder trustImmutable(Class<?> type) {
+            if (!Collection.class.isAssignableFrom(type)) {
+                throw new IllegalArgumentException("not a Collection: " + type.getName());
+            }
+            trustedImmutableTypes.add(type);
+            return this;
+        }
+
+        public PipelineCache build() {
+            return new PipelineCache(this);
+        }
+    }
+}
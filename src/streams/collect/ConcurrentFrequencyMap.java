@@ -0,0 +1,104 @@
+package streams.collect;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+/**
+ * Häufigkeiten, die von mehreren Threads gleichzeitig gezählt werden können (ConcurrentHashMap mit LongAdder).
+ *
+ * Ersatz für {@code groupingBy(word -> word, TreeMap::new, counting())} in parallelen Streams: Der Collector ist
+ * CONCURRENT und UNORDERED, alle Threads zählen also in dieselbe Map - es wird weder eine TreeMap je Teilaufgabe
+ * angelegt und zusammengeführt noch bei jedem Schritt ein Long geboxt. Die sortierte Sicht wird erst am Ende,
+ * einmal, erzeugt ({@link #toSortedMap()}).
+ */
+public final class ConcurrentFrequencyMap<K> {
+
+    private final ConcurrentHashMap<K, LongAdder> counts = new ConcurrentHashMap<>();
+
+    /** zählt, wie oft classifier jeden Wert liefert */
+    public static <T, K> Collector<T, ?, ConcurrentFrequencyMap<K>> counting(Function<? super T, ? extends K> classifier) {
+        return Collector.of(
+            ConcurrentFrequencyMap::new,
+            (map, t) -> map.increment(classifier.apply(t)),
+            (left, right) -> left.addAll(right),
+            Collector.Characteristics.CONCURRENT,
+            Collector.Characteristics.UNORDERED,
+            Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    /**
+     * Liefert das gleiche Ergebnis wie {@code groupingBy(classifier, TreeMap::new, counting())}.
+     * Die Schlüssel müssen Comparable sein.
+     */
+    public static <T, K> Collector<T, ?, SortedMap<K, Long>> sortedCounting(Function<? super T, ? extends K> classifier) {
+        return Collector.of(
+            ConcurrentFrequencyMap<K>::new,
+            (map, t) -> map.increment(classifier.apply(t)),
+            (left, right) -> left.addAll(right),
+            ConcurrentFrequencyMap::toSortedMap,
+            Collector.Characteristics.CONCURRENT,
+            Collector.Characteristics.UNORDERED);
+    }
+
+    public void increment(K key) {
+        LongAdder adder = counts.get(key);
+        if (adder == null) {
+            adder = counts.computeIfAbsent(key, k -> new LongAdder());
+        }
+        adder.increment();
+    }
+
+    public void add(K key, long count) {
+        counts.computeIfAbsent(key, k -> new LongAdder()).add(count);
+    }
+
+    public ConcurrentFrequencyMap<K> addAll(ConcurrentFrequencyMap<K> other) {
+        other.counts.forEach((key, adder) -> add(key, adder.sum()));
+        return this;
+    }
+
+    /** Häufigkeit von key, 0 wenn key nicht vorkommt */
+    public long count(K key) {
+        LongAdder adder = counts.get(key);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /** Anzahl der verschiedenen Schlüssel */
+    public int size() {
+        return counts.size();
+    }
+
+    public void forEach(BiConsumer<? super K, Long> action) {
+        counts.forEach((key, adder) -> action.accept(key, adder.sum()));
+    }
+
+    /** Kopie als unsortierte Map */
+    public Map<K, Long> toMap() {
+        Map<K, Long> map = new HashMap<>(counts.size() * 2);
+        forEach(map::put);
+        return map;
+    }
+
+    /**
+     * Kopie als sortierte Map, gedacht für den Aufruf nach dem Zählen (sortiert wird nur einmal, am Ende).
+     * Die Schlüssel müssen Comparable sein.
+     */
+    public SortedMap<K, Long> toSortedMap() {
+        SortedMap<K, Long> map = new TreeMap<>();
+        forEach(map::put);
+        return map;
+    }
+
+    /** in keiner bestimmten Reihenfolge; die Schlüssel müssen (anders als bei toSortedMap) nicht Comparable sein */
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
@@ -0,0 +1,160 @@
+package streams.collect;
+
+import java.util.stream.Collector;
+
+/**
+ * Schätzt, wie oft jedes Element in einem Stream vorkommt, mit fester Speichergröße (Count-Min Sketch).
+ *
+ * Statt
+ * <pre>
+ *   Map&lt;String, Long&gt; frequency = words.stream().collect(groupingBy(w -&gt; w, counting()));
+ * </pre>
+ * (ein Eintrag je verschiedenem Wort) zählt der Sketch in depth Zeilen aus je width Zählern; jedes Element
+ * erhöht in jeder Zeile den Zähler, auf den es gehasht wird:
+ * <pre>
+ *   CountMinSketch frequency = words.stream().collect(CountMinSketch.counting(0.001, 0.01));
+ *   frequency.estimate("Gott");
+ * </pre>
+ * Die Schätzung (das Minimum der depth Zähler) ist nie zu klein. Mit width = e / epsilon und
+ * depth = ln(1 / delta) ist sie mit Wahrscheinlichkeit 1 - delta höchstens um epsilon * N zu groß
+ * (N = Anzahl aller Elemente). Gut geeignet für häufige Elemente; seltene werden relativ stark überschätzt.
+ *
+ * Sketches gleicher Größe lassen sich verlustfrei zusammenführen (Summe je Zähler), in parallelen Streams hat
+ * daher jede Teilaufgabe einen eigenen.
+ */
+public final class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final long[] counts;    // Zeile i: counts[i * width] bis counts[i * width + width - 1]
+    private long size;
+
+    private CountMinSketch(int width, int depth) {
+        if (width < 1 || depth < 1) {
+            throw new IllegalArgumentException("width and depth must be positive: " + width + ", " + depth);
+        }
+        if ((long) width * depth > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("too many counters: " + width + " * " + depth);
+        }
+        this.width = width;
+        this.depth = depth;
+        this.counts = new long[width * depth];
+    }
+
+    /** ein leerer Sketch mit depth Zeilen aus je width Zählern */
+    public static CountMinSketch of(int width, int depth) {
+        return new CountMinSketch(width, depth);
+    }
+
+    /** ein leerer Sketch, der mit Wahrscheinlichkeit 1 - delta um höchstens epsilon * N überschätzt */
+    public static CountMinSketch withError(double epsilon, double delta) {
+        return new CountMinSketch(widthFor(epsilon), depthFor(delta));
+    }
+
+    /** zählt die Elemente in einem Sketch mit den Fehlerschranken epsilon und delta (siehe {@link #withError}) */
+    public static <T> Collector<T, ?, CountMinSketch> counting(double epsilon, double delta) {
+        int width = widthFor(epsilon);
+        int depth = depthFor(delta);
+        return Collector.of(
+            () -> new CountMinSketch(width, depth),
+            CountMinSketch::add,
+            CountMinSketch::merge,
+            Collector.Characteristics.UNORDERED,
+            Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    public void add(Object element) {
+        add(element, 1);
+    }
+
+    /** zählt element count-mal */
+    public void add(Object element, long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative: " + count);
+        }
+        long hash = Hashing.hash(element);
+        for (int row = 0; row < depth; row++) {
+            counts[row * width + column(hash, row)] += count;
+        }
+        size += count;
+    }
+
+    /** wie oft element (höchstens) gezählt wurde */
+    public long estimate(Object element) {
+        long hash = Hashing.hash(element);
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counts[row * width + column(hash, row)]);
+        }
+        return min;
+    }
+
+    /**
+     * Übernimmt alle Zählungen von other.
+     *
+     * @throws IllegalArgumentException wenn other eine andere Größe hat
+     */
+    public CountMinSketch merge(CountMinSketch other) {
+        if (other.width != width || other.depth != depth) {
+            throw new IllegalArgumentException("size differs: " + width + "x" + depth + " and "
+                + other.width + "x" + other.depth);
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        size += other.size;
+        return this;
+    }
+
+    /** Anzahl aller gezählten Elemente (N) */
+    public long size() {
+        return size;
+    }
+
+    /** die Schätzung ist (mit Wahrscheinlichkeit 1 - {@link #delta()}) um höchstens epsilon() * size() zu groß */
+    public double epsilon() {
+        return Math.E / width;
+    }
+
+    public double delta() {
+        return Math.exp(-depth);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    /** Größe der Zähler in Byte */
+    public long memoryBytes() {
+        return (long) counts.length * Long.BYTES;
+    }
+
+    @Override
+    public String toString() {
+        return "CountMinSketch[" + width + "x" + depth + ", size=" + size + "]";
+    }
+
+    /** Spalte in Zeile row: die Zeilen verwenden h1 + row * h2 aus den beiden Hälften des Hashwerts */
+    private int column(long hash, int row) {
+        int combined = (int) hash + row * (int) (hash >>> 32);
+        return (combined & Integer.MAX_VALUE) % width;
+    }
+
+    private static int widthFor(double epsilon) {
+        if (!(epsilon > 0 && epsilon < 1)) {
+            throw new IllegalArgumentException("epsilon must be between 0 and 1: " + epsilon);
+        }
+        return (int) Math.ceil(Math.E / epsilon);
+    }
+
+    private static int depthFor(double delta) {
+        if (!(delta > 0 && delta < 1)) {
+            throw new IllegalArgumentException("delta must be between 0 and 1: " + delta);
+        }
+        return (int) Math.ceil(Math.log(1 / delta));
+    }
+}
@@ -0,0 +1,155 @@
+package streams.collect;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+import java.util.stream.DoubleStream;
+
+/**
+ * Ein Collector für double-Werte: der Akkumulator bekommt jeden Wert als double, nie als Double. Gegenstück zu
+ * {@link IntCollector}:
+ * <pre>
+ *   double total = DoubleCollector.collectDouble(DoubleStream.of(prices), DoubleCollector.summing());
+ * </pre>
+ *
+ * @param <A> Typ des (veränderlichen) Akkumulators
+ * @param <R> Typ des Ergebnisses
+ */
+public interface DoubleCollector<A, R> {
+
+    Supplier<A> supplier();
+
+    ObjDoubleConsumer<A> accumulator();
+
+    /** übernimmt das zweite Teilergebnis in das erste */
+    BiConsumer<A, A> combiner();
+
+    Function<A, R> finisher();
+
+    static <A, R> DoubleCollector<A, R> of(Supplier<A> supplier, ObjDoubleConsumer<A> accumulator,
+                                        BiConsumer<A, A> combiner, Function<A, R> finisher) {
+        return new DoubleCollector<>() {
+            @Override
+            public Supplier<A> supplier() {
+                return supplier;
+            }
+
+            @Override
+            public ObjDoubleConsumer<A> accumulator() {
+                return accumulator;
+            }
+
+            @Override
+            public BiConsumer<A, A> combiner() {
+                return combiner;
+            }
+
+            @Override
+            public Function<A, R> finisher() {
+                return finisher;
+            }
+        };
+    }
+
+    static <A> DoubleCollector<A, A> of(Supplier<A> supplier, ObjDoubleConsumer<A> accumulator, BiConsumer<A, A> combiner) {
+        return of(supplier, accumulator, combiner, Function.identity());
+    }
+
+    /** sammelt die Werte von stream mit collector (auch parallel) */
+    static <A, R> R collectDouble(DoubleStream stream, DoubleCollector<A, R> collector) {
+        A result = stream.collect(collector.supplier(), collector.accumulator(), collector.combiner());
+        return collector.finisher().apply(result);
+    }
+
+    /** dieser Collector für Objekte, deren double-Wert mapper liefert (z.B. als Downstream von groupingBy) */
+    default <T> Collector<T, A, R> from(ToDoubleFunction<? super T> mapper) {
+        ObjDoubleConsumer<A> accumulator = accumulator();
+        BiConsumer<A, A> combiner = combiner();
+        return Collector.of(
+            supplier(),
+            (a, t) -> accumulator.accept(a, mapper.applyAsDouble(t)),
+            (a, b) -> {
+                combiner.accept(a, b);
+                return a;
+            },
+            finisher());
+    }
+
+    /**
+     * Gruppiert nach classifier und sammelt je Gruppe die Werte von value mit downstream. Liefert dasselbe wie
+     * {@code groupingBy(classifier, downstream.from(value))}, legt aber je Element kein Lambda für
+     * computeIfAbsent an.
+     */
+    static <T, K, A, R> Collector<T, ?, Map<K, R>> groupingBy(Function<? super T, ? extends K> classifier,
+                                                             ToDoubleFunction<? super T> value,
+                                                             DoubleCollector<A, R> downstream) {
+        Supplier<A> supplier = downstream.supplier();
+        ObjDoubleConsumer<A> accumulator = downstream.accumulator();
+        BiConsumer<A, A> combiner = downstream.combiner();
+        Function<A, R> finisher = downstream.finisher();
+        return Collector.<T, Map<K, A>, Map<K, R>>of(
+            HashMap::new,
+            (groups, t) -> {
+                K key = Objects.requireNonNull(classifier.apply(t), "element cannot be mapped to a null key");
+                A group = groups.get(key);
+                if (group == null) {
+                    group = supplier.get();
+                    groups.put(key, group);
+                }
+                accumulator.accept(group, value.applyAsDouble(t));
+            },
+            (left, right) -> {
+                right.forEach((key, group) -> {
+                    A existing = left.putIfAbsent(key, group);
+                    if (existing != null) {
+                        combiner.accept(existing, group);
+                    }
+                });
+                return left;
+            },
+            groups -> {
+                Map<K, R> result = new HashMap<>(groups.size() * 2);
+                groups.forEach((key, group) -> result.put(key, finisher.apply(group)));
+                return result;
+            });
+    }
+
+    /** Anzahl der Werte */
+    static DoubleCollector<long[], Long> counting() {
+        return of(() -> new long[1], (a, value) -> a[0]++, (a, b) -> a[0] += b[0], a -> a[0]);
+    }
+
+    /** Summe der Werte, mit Fehlerkorrektur wie Collectors.summingDouble */
+    static DoubleCollector<DoubleSummaryStatistics, Double> summing() {
+        return of(DoubleSummaryStatistics::new, DoubleSummaryStatistics::accept, DoubleSummaryStatistics::combine,
+            DoubleSummaryStatistics::getSum);
+    }
+
+    /** Mittelwert der Werte, 0 wenn es keine gibt (wie Collectors.averagingDouble) */
+    static DoubleCollector<DoubleSummaryStatistics, Double> averaging() {
+        return of(DoubleSummaryStatistics::new, DoubleSummaryStatistics::accept, DoubleSummaryStatistics::combine,
+            DoubleSummaryStatistics::getAverage);
+    }
+
+    static DoubleCollector<DoubleSummaryStatistics, DoubleSummaryStatistics> summarizing() {
+        return of(DoubleSummaryStatistics::new, DoubleSummaryStatistics::accept, DoubleSummaryStatistics::combine);
+    }
+
+    static DoubleCollector<DoubleSummaryStatistics, OptionalDouble> min() {
+        return of(DoubleSummaryStatistics::new, DoubleSummaryStatistics::accept, DoubleSummaryStatistics::combine,
+            s -> s.getCount() == 0 ? OptionalDouble.empty() : OptionalDouble.of(s.getMin()));
+    }
+
+    static DoubleCollector<DoubleSummaryStatistics, OptionalDouble> max() {
+        return of(DoubleSummaryStatistics::new, DoubleSummaryStatistics::accept, DoubleSummaryStatistics::combine,
+            s -> s.getCount() == 0 ? OptionalDouble.empty() : OptionalDouble.of(s.getMax()));
+    }
+}
@@ -0,0 +1,277 @@
+package streams.collect;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+import java.util.stream.IntStream;
+
+/**
+ * Anzahl, Summe, Minimum und Maximum eines long-Werts je Gruppe, in einem Durchlauf berechnet.
+ *
+ * Statt
+ * <pre>
+ *   people.stream().collect(Collectors.groupingBy(Person::getLastName, Collectors.averagingDouble(Person::getHeight)))
+ * </pre>
+ * (je Zeile ein Hash-Lookup mit computeIfAbsent und ein Akkumulator-Objekt je Gruppe und Downstream-Collector)
+ * bekommt jede Gruppe beim ersten Auftreten eine fortlaufende Nummer; die Werte werden in long-Arrays mit dieser
+ * Nummer als Index aufsummiert:
+ * <pre>
+ *   GroupStats&lt;String&gt; stats = people.parallelStream().collect(GroupStats.by(Person::getLastName, Person::getHeight));
+ *   stats.counts();      // wie groupingBy(..., counting())
+ *   stats.averages();    // wie groupingBy(..., averagingDouble(...))
+ * </pre>
+ * Folgen gleiche Schlüssel aufeinander, entfällt auch der Hash-Lookup. Beim Zusammenführen paralleler
+ * Teilergebnisse wird nur je Gruppe (nicht je Zeile) einmal nachgeschlagen.
+ *
+ * Sind die Schlüssel schon als Nummern gespeichert (z.B. in einer {@code PersonTable}), rechnet
+ * {@link #of(StringDictionary, int[], int[])} ganz ohne Hashing.
+ */
+public final class GroupStats<K> {
+
+    private final List<K> keys;
+    private final Map<K, Integer> index;
+    private final long[] counts;
+    private final long[] sums;
+    private final long[] mins;
+    private final long[] maxs;
+
+    /** übernimmt aus partial die Gruppen mit mindestens einem Element */
+    private GroupStats(List<K> keys, Partial partial) {
+        int groups = 0;
+        for (int id = 0; id < keys.size(); id++) {
+            if (partial.counts[id] > 0) {
+                groups++;
+            }
+        }
+        List<K> present = new ArrayList<>(groups);
+        this.index = new HashMap<>();
+        this.counts = new long[groups];
+        this.sums = new long[groups];
+        this.mins = new long[groups];
+        this.maxs = new long[groups];
+        for (int id = 0; id < keys.size(); id++) {
+            if (partial.counts[id] > 0) {
+                int i = present.size();
+                present.add(keys.get(id));
+                index.put(keys.get(id), i);
+                counts[i] = partial.counts[id];
+                sums[i] = partial.sums[id];
+                mins[i] = partial.mins[id];
+                maxs[i] = partial.maxs[id];
+            }
+        }
+        this.keys = Collections.unmodifiableList(present);
+    }
+
+    /** gruppiert nach classifier und fasst value je Gruppe zusammen */
+    public static <T, K> Collector<T, ?, GroupStats<K>> by(Function<? super T, ? extends K> classifier,
+                                                          ToLongFunction<? super T> value) {
+        return Collector.of(
+            () -> new Accumulator<T, K>(classifier, value),
+            Accumulator::accept,
+            Accumulator::merge,
+            acc -> new GroupStats<>(acc.keys, acc.partial),
+            Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Gruppen aus bereits kodierten Schlüsseln: Zeile i gehört zur Gruppe keys.decode(ids[i]) und hat den Wert
+     * values[i]. Die Zeilen werden parallel durchlaufen.
+     */
+    public static GroupStats<String> of(StringDictionary keys, int[] ids, int[] values) {
+        if (ids.length != values.length) {
+            throw new IllegalArgumentException("ids and values differ in length: " + ids.length + ", " + values.length);
+        }
+        int groups = keys.size();
+        Partial partial = IntStream.range(0, ids.length).parallel().collect(
+            () -> new Partial(groups),
+            (p, row) -> p.add(ids[row], values[row]),
+            Partial::mergeAll);
+        List<String> decoded = new ArrayList<>(groups);
+        for (int id = 0; id < groups; id++) {
+            decoded.add(keys.decode(id));
+        }
+        return new GroupStats<>(decoded, partial);
+    }
+
+    /** die Gruppen in der Reihenfolge ihres ersten Auftretens (bei parallelen Streams beliebig) */
+    public List<K> keys() {
+        return keys;
+    }
+
+    /** Anzahl der Gruppen */
+    public int size() {
+        return keys.size();
+    }
+
+    /** Anzahl der Elemente in der Gruppe key, 0 wenn es die Gruppe nicht gibt */
+    public long count(K key) {
+        Integer i = index.get(key);
+        return i == null ? 0 : counts[i];
+    }
+
+    /** Summe der Werte in der Gruppe key, 0 wenn es die Gruppe nicht gibt */
+    public long sum(K key) {
+        Integer i = index.get(key);
+        return i == null ? 0 : sums[i];
+    }
+
+    /** alle Kennzahlen der Gruppe key; leer, wenn es die Gruppe nicht gibt */
+    public LongSummaryStatistics statistics(K key) {
+        Integer i = index.get(key);
+        return i == null ? new LongSummaryStatistics() : statistics(i);
+    }
+
+    /** wie {@code groupingBy(classifier, counting())} */
+    public Map<K, Long> counts() {
+        Map<K, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            result.put(keys.get(i), counts[i]);
+        }
+        return result;
+    }
+
+    /** wie {@code groupingBy(classifier, summingLong(value))} */
+    public Map<K, Long> sums() {
+        Map<K, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            result.put(keys.get(i), sums[i]);
+        }
+        return result;
+    }
+
+    /** wie {@code groupingBy(classifier, averagingDouble(value))} */
+    public Map<K, Double> averages() {
+        Map<K, Double> result = new LinkedHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            result.put(keys.get(i), (double) sums[i] / counts[i]);
+        }
+        return result;
+    }
+
+    /** wie {@code groupingBy(classifier, summarizingLong(value))} */
+    public Map<K, LongSummaryStatistics> statistics() {
+        Map<K, LongSummaryStatistics> result = new LinkedHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            result.put(keys.get(i), statistics(i));
+        }
+        return result;
+    }
+
+    private LongSummaryStatistics statistics(int i) {
+        return new LongSummaryStatistics(counts[i], mins[i], maxs[i], sums[i]);
+    }
+
+    @Override
+    public String toString() {
+        return statistics().toString();
+    }
+
+    /** Kennzahlen je Gruppennummer, beim Zusammenführen werden die Arrays elementweise kombiniert */
+    private static final class Partial {
+        long[] counts;
+        long[] sums;
+        long[] mins;
+        long[] maxs;
+
+        Partial(int capacity) {
+            counts = new long[capacity];
+            sums = new long[capacity];
+            mins = new long[capacity];
+            maxs = new long[capacity];
+            Arrays.fill(mins, Long.MAX_VALUE);
+            Arrays.fill(maxs, Long.MIN_VALUE);
+        }
+
+        void grow() {
+            int oldCapacity = counts.length;
+            int capacity = Math.max(8, oldCapacity * 2);
+            counts = Arrays.copyOf(counts, capacity);
+            sums = Arrays.copyOf(sums, capacity);
+            mins = Arrays.copyOf(mins, capacity);
+            maxs = Arrays.copyOf(maxs, capacity);
+            Arrays.fill(mins, oldCapacity, capacity, Long.MAX_VALUE);
+            Arrays.fill(maxs, oldCapacity, capacity, Long.MIN_VALUE);
+        }
+
+        void add(int id, long value) {
+            counts[id]++;
+            sums[id] += value;
+            if (value < mins[id]) {
+                mins[id] = value;
+            }
+            if (value > maxs[id]) {
+                maxs[id] = value;
+            }
+        }
+
+        /** Gruppe otherId von other in die Gruppe id übernehmen */
+        void merge(int id, Partial other, int otherId) {
+            counts[id] += other.counts[otherId];
+            sums[id] += other.sums[otherId];
+            mins[id] = Math.min(mins[id], other.mins[otherId]);
+            maxs[id] = Math.max(maxs[id], other.maxs[otherId]);
+        }
+
+        /** beide Partials verwenden dieselben Gruppennummern */
+        void mergeAll(Partial other) {
+            for (int id = 0; id < counts.length; id++) {
+                merge(id, other, id);
+            }
+        }
+    }
+
+    /** vergibt die Gruppennummern für einen Teil des Streams */
+    private static final class Accumulator<T, K> {
+        private final Function<? super T, ? extends K> classifier;
+        private final ToLongFunction<? super T> value;
+        private final Map<K, Integer> ids = new HashMap<>();
+        private final List<K> keys = new ArrayList<>();
+        private final Partial partial = new Partial(8);
+        private K lastKey;
+        private int lastId;
+
+        Accumulator(Function<? super T, ? extends K> classifier, ToLongFunction<? super T> value) {
+            this.classifier = classifier;
+            this.value = value;
+        }
+
+        void accept(T t) {
+            K key = Objects.requireNonNull(classifier.apply(t), "element cannot be mapped to a null key");
+            if (key != lastKey) {
+                lastId = idOf(key);
+                lastKey = key;
+            }
+            partial.add(lastId, value.applyAsLong(t));
+        }
+
+        Accumulator<T, K> merge(Accumulator<T, K> other) {
+            for (int otherId = 0; otherId < other.keys.size(); otherId++) {
+                partial.merge(idOf(other.keys.get(otherId)), other.partial, otherId);
+            }
+            return this;
+        }
+
+        private int idOf(K key) {
+            Integer id = ids.get(key);
+            if (id == null) {
+                id = keys.size();
+                if (id == partial.counts.length) {
+                    partial.grow();
+                }
+                ids.put(key, id);
+                keys.add(key);
+            }
+            return id;
+        }
+    }
+}
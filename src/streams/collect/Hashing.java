@@ -0,0 +1,31 @@
+package streams.collect;
+
+/** 64-Bit-Hashwerte für die Sketches (HyperLogLog, CountMinSketch) */
+final class Hashing {
+
+    private Hashing() {
+    }
+
+    /**
+     * Hashwert von element: Zeichenketten werden Zeichen für Zeichen gehasht (FNV-1a), alles andere über
+     * hashCode(). Beides wird anschließend durchmischt, damit alle 64 Bit gleichmäßig verteilt sind.
+     */
+    static long hash(Object element) {
+        if (element instanceof CharSequence) {
+            CharSequence s = (CharSequence) element;
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < s.length(); i++) {
+                h = (h ^ s.charAt(i)) * 0x100000001b3L;
+            }
+            return mix(h);
+        }
+        return mix(element.hashCode());
+    }
+
+    /** Finalizer von MurmurHash3 (fmix64) */
+    static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+}
@@ -0,0 +1,164 @@
+package streams.collect;
+
+import java.util.stream.Collector;
+
+/**
+ * Schätzt die Anzahl verschiedener Elemente eines Streams mit fester Speichergröße (HyperLogLog).
+ *
+ * Statt
+ * <pre>
+ *   words.stream().distinct().count()
+ * </pre>
+ * (ein HashSet mit allen verschiedenen Worten: der Speicher wächst mit dem Wortschatz) merkt sich HyperLogLog
+ * je Register nur die längste Folge führender Null-Bits der Hashwerte, die in dieses Register fallen:
+ * <pre>
+ *   long distinct = words.stream().collect(HyperLogLog.countDistinct(0.01));
+ * </pre>
+ * Mit 2^precision Registern (je ein Byte) ist der relative Standardfehler etwa 1,04 / sqrt(2^precision),
+ * z.B. 1,6 % mit precision 12 (4 KB) oder 0,4 % mit precision 16 (64 KB) - unabhängig von der Anzahl der
+ * Elemente. Zwei HyperLogLog mit gleicher precision lassen sich verlustfrei zusammenführen (Maximum je
+ * Register), in parallelen Streams hat daher jede Teilaufgabe ein eigenes.
+ */
+public final class HyperLogLog {
+
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 18;
+
+    private final int precision;
+    private final byte[] registers;
+
+    private HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("precision must be between " + MIN_PRECISION + " and "
+                + MAX_PRECISION + ": " + precision);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    /** ein leeres HyperLogLog mit 2^precision Registern */
+    public static HyperLogLog of(int precision) {
+        return new HyperLogLog(precision);
+    }
+
+    /** ein leeres HyperLogLog, dessen relativer Standardfehler höchstens relativeError ist (z.B. 0.01) */
+    public static HyperLogLog withError(double relativeError) {
+        return new HyperLogLog(precisionFor(relativeError));
+    }
+
+    /** sammelt die Elemente in ein HyperLogLog mit 2^precision Registern */
+    public static <T> Collector<T, ?, HyperLogLog> collector(int precision) {
+        return Collector.of(
+            () -> new HyperLogLog(precision),
+            HyperLogLog::add,
+            HyperLogLog::merge,
+            Collector.Characteristics.UNORDERED,
+            Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    /** ungefähr {@code distinct().count()}, mit einem relativen Standardfehler von höchstens relativeError */
+    public static <T> Collector<T, ?, Long> countDistinct(double relativeError) {
+        int precision = precisionFor(relativeError);
+        return Collector.of(
+            () -> new HyperLogLog(precision),
+            HyperLogLog::add,
+            HyperLogLog::merge,
+            HyperLogLog::estimate,
+            Collector.Characteristics.UNORDERED);
+    }
+
+    public void add(Object element) {
+        addHash(Hashing.hash(element));
+    }
+
+    /** fügt ein Element über seinen (gut verteilten) 64-Bit-Hashwert hinzu */
+    public void addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // Position der ersten 1 in den übrigen Bits; das Sentinel-Bit begrenzt sie auf 64 - precision + 1
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    /**
+     * Übernimmt alle Elemente von other; danach schätzt dieses HyperLogLog die Anzahl verschiedener Elemente
+     * beider zusammen.
+     *
+     * @throws IllegalArgumentException wenn other eine andere precision hat
+     */
+    public HyperLogLog merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("precision differs: " + precision + " and " + other.precision);
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+        return this;
+    }
+
+    /** die geschätzte Anzahl verschiedener Elemente */
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += Math.scalb(1.0, -register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            // wenige Elemente: Linear Counting über die leeren Register ist genauer
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /** der relative Standardfehler von {@link #estimate()} */
+    public double relativeError() {
+        return 1.04 / Math.sqrt(registers.length);
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    /** Größe der Register in Byte */
+    public int memoryBytes() {
+        return registers.length;
+    }
+
+    @Override
+    public String toString() {
+        return "HyperLogLog[precision=" + precision + ", estimate=" + estimate() + "]";
+    }
+
+    private static int precisionFor(double relativeError) {
+        if (!(relativeError > 0 && relativeError < 1)) {
+            throw new IllegalArgumentException("relativeError must be between 0 and 1: " + relativeError);
+        }
+        double registers = Math.pow(1.04 / relativeError, 2);
+        int precision = 64 - Long.numberOfLeadingZeros((long) Math.ceil(registers) - 1);
+        if (precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("relativeError too small: " + relativeError);
+        }
+        return Math.max(MIN_PRECISION, precision);
+    }
+
+    private static double alpha(int m) {
+        switch (m) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package streams.collect;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Anzahl, Summe und Quadratsumme eines long-Werts je Gruppe, die bei jeder Änderung nachgeführt werden.
+ *
+ * Statt nach jeder Änderung der Daten
+ * <pre>
+ *   people.stream().collect(Collectors.groupingBy(Person::getLastName, Collectors.averagingDouble(Person::getHeight)))
+ * </pre>
+ * neu zu berechnen, ändert add/remove/update nur die Zahlen der betroffenen Gruppe (O(1)):
+ * <pre>
+ *   IncrementalGroupStats&lt;Person, String&gt; stats = IncrementalGroupStats.of(Person::getLastName, Person::getHeight);
+ *   stats.addAll(people);
+ *   stats.add(newPerson);
+ *   stats.snapshot().averages();
+ * </pre>
+ * Änderungen sind synchronisiert. Lesen geschieht über {@link #snapshot()}: ein unveränderbarer, in sich
+ * konsistenter Stand, der bis zur nächsten Änderung zwischengespeichert wird. Das passt, wenn viel öfter
+ * gelesen als geändert wird; jede Änderung macht den nächsten snapshot() O(Anzahl der Gruppen) teuer.
+ *
+ * Bei remove und update muss das Element so übergeben werden, wie es hinzugefügt wurde (gleiche Gruppe,
+ * gleicher Wert), sonst stimmen die Zahlen nicht mehr.
+ */
+public final class IncrementalGroupStats<T, K> {
+
+    private static final int COUNT = 0;
+    private static final int SUM = 1;
+    private static final int SUM_OF_SQUARES = 2;
+
+    private final Function<? super T, ? extends K> classifier;
+    private final ToLongFunction<? super T> value;
+    private final Map<K, long[]> groups = new HashMap<>();     // geschützt durch this
+    private volatile Snapshot<K> snapshot;                      // null nach jeder Änderung
+
+    private IncrementalGroupStats(Function<? super T, ? extends K> classifier, ToLongFunction<? super T> value) {
+        this.classifier = classifier;
+        this.value = value;
+    }
+
+    public static <T, K> IncrementalGroupStats<T, K> of(Function<? super T, ? extends K> classifier,
+                                                         ToLongFunction<? super T> value) {
+        return new IncrementalGroupStats<>(classifier, value);
+    }
+
+    public synchronized void add(T element) {
+        apply(element, 1);
+        snapshot = null;
+    }
+
+    /** fügt alle Elemente hinzu oder, wenn classifier oder value für eines scheitert, keines */
+    public synchronized void addAll(Collection<? extends T> elements) {
+        // erst alle Gruppen und Werte bestimmen, dann ändern: eine Exception lässt die Zahlen unverändert
+        List<K> keys = new ArrayList<>(elements.size());
+        long[] values = new long[elements.size()];
+        for (T element : elements) {
+            values[keys.size()] = value.applyAsLong(element);
+            keys.add(keyOf(element));
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            apply(keys.get(i), values[i], 1);
+        }
+        snapshot = null;
+    }
+
+    /**
+     * Nimmt ein zuvor hinzugefügtes Element wieder heraus.
+     *
+     * @throws IllegalStateException wenn es in der Gruppe des Elements keine Elemente gibt
+     */
+    public synchronized void remove(T element) {
+        apply(element, -1);
+        snapshot = null;
+    }
+
+    /** ersetzt oldElement durch newElement (z.B. nach einer Namensänderung); beide Änderungen sind gemeinsam sichtbar */
+    public synchronized void update(T oldElement, T newElement) {
+        K oldKey = keyOf(oldElement);
+        K newKey = keyOf(newElement);
+        long newValue = value.applyAsLong(newElement);
+        apply(oldKey, value.applyAsLong(oldElement), -1);
+        apply(newKey, newValue, 1);
+        snapshot = null;
+    }
+
+    /** der aktuelle Stand; bleibt unverändert, auch wenn später Elemente hinzugefügt oder entfernt werden */
+    public Snapshot<K> snapshot() {
+        Snapshot<K> current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = new Snapshot<>(groups);
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private K keyOf(T element) {
+        return Objects.requireNonNull(classifier.apply(element), "element cannot be mapped to a null key");
+    }
+
+    private void apply(T element, int sign) {
+        apply(keyOf(element), value.applyAsLong(element), sign);
+    }
+
+    private void apply(K key, long v, int sign) {
+        long[] group = groups.get(key);
+        if (group == null) {
+            if (sign < 0) {
+                throw new IllegalStateException("no elements in group " + key);
+            }
+            group = new long[3];
+            groups.put(key, group);
+        }
+        group[COUNT] += sign;
+        group[SUM] += sign * v;
+        group[SUM_OF_SQUARES] += sign * v * v;
+        if (group[COUNT] == 0) {
+            groups.remove(key);
+        }
+    }
+
+    /** unveränderbarer Stand aller Gruppen */
+    public static final class Snapshot<K> {
+        private final Map<K, long[]> groups;
+
+        private Snapshot(Map<K, long[]> groups) {
+            Map<K, long[]> copy = new HashMap<>();
+            groups.forEach((key, group) -> copy.put(key, group.clone()));
+            this.groups = copy;
+        }
+
+        /** die Gruppen mit mindestens einem Element */
+        public Set<K> keys() {
+            return Collections.unmodifiableSet(groups.keySet());
+        }
+
+        public long count(K key) {
+            long[] group = groups.get(key);
+            return group == null ? 0 : group[COUNT];
+        }
+
+        public long sum(K key) {
+            long[] group = groups.get(key);
+            return group == null ? 0 : group[SUM];
+        }
+
+        public OptionalDouble average(K key) {
+            long[] group = groups.get(key);
+            return group == null ? OptionalDouble.empty() : OptionalDouble.of((double) group[SUM] / group[COUNT]);
+        }
+
+        /** Varianz (der Grundgesamtheit) der Werte in der Gruppe key */
+        public OptionalDouble variance(K key) {
+            long[] group = groups.get(key);
+            if (group == null) {
+                return OptionalDouble.empty();
+            }
+            double mean = (double) group[SUM] / group[COUNT];
+            return OptionalDouble.of(Math.max(0, (double) group[SUM_OF_SQUARES] / group[COUNT] - mean * mean));
+        }
+
+        public OptionalDouble standardDeviation(K key) {
+            OptionalDouble variance = variance(key);
+            return variance.isPresent() ? OptionalDouble.of(Math.sqrt(variance.getAsDouble())) : variance;
+        }
+
+        /** wie {@code groupingBy(classifier, counting())} */
+        public Map<K, Long> counts() {
+            Map<K, Long> result = new HashMap<>();
+            groups.forEach((key, group) -> result.put(key, group[COUNT]));
+            return result;
+        }
+
+        /** wie {@code groupingBy(classifier, averagingDouble(value))} */
+        public Map<K, Double> averages() {
+            Map<K, Double> result = new HashMap<>();
+            groups.forEach((key, group) -> result.put(key, (double) group[SUM] / group[COUNT]));
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return averages().toString();
+        }
+    }
+}
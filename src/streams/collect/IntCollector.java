@@ -0,0 +1,172 @@
+package streams.collect;
+
+import java.util.HashMap;
+import java.util.IntSummaryStatistics;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collector;
+import java.util.stream.IntStream;
+
+/**
+ * Ein Collector für int-Werte: der Akkumulator bekommt jeden Wert als int, nie als Integer.
+ *
+ * Direkt auf einem IntStream:
+ * <pre>
+ *   IntSummaryStatistics stats = IntCollector.collectInt(IntStream.of(numbers), IntCollector.summarizing());
+ * </pre>
+ * oder als Downstream-Collector mit einer ToIntFunction, statt averagingDouble(Person::getHeight):
+ * <pre>
+ *   people.stream().collect(groupingBy(Person::getLastName, IntCollector.averaging().from(Person::getHeight)));
+ *   people.stream().collect(IntCollector.groupingBy(Person::getLastName, Person::getHeight, IntCollector.averaging()));
+ * </pre>
+ * Die zweite Form vermeidet zusätzlich das Lambda, das Collectors.groupingBy je Element für computeIfAbsent
+ * anlegt.
+ * Anzahl, Summe, Minimum und Maximum je Gruppe berechnet {@link GroupStats} noch günstiger (Arrays statt
+ * einem Akkumulator je Gruppe); für Zählungen je Schlüssel siehe {@link Object2IntMap}.
+ *
+ * @param <A> Typ des (veränderlichen) Akkumulators
+ * @param <R> Typ des Ergebnisses
+ */
+public interface IntCollector<A, R> {
+
+    Supplier<A> supplier();
+
+    ObjIntConsumer<A> accumulator();
+
+    /** übernimmt das zweite Teilergebnis in das erste */
+    BiConsumer<A, A> combiner();
+
+    Function<A, R> finisher();
+
+    static <A, R> IntCollector<A, R> of(Supplier<A> supplier, ObjIntConsumer<A> accumulator,
+                                        BiConsumer<A, A> combiner, Function<A, R> finisher) {
+        return new IntCollector<>() {
+            @Override
+            public Supplier<A> supplier() {
+                return supplier;
+            }
+
+            @Override
+            public ObjIntConsumer<A> accumulator() {
+                return accumulator;
+            }
+
+            @Override
+            public BiConsumer<A, A> combiner() {
+                return combiner;
+            }
+
+            @Override
+            public Function<A, R> finisher() {
+                return finisher;
+            }
+        };
+    }
+
+    static <A> IntCollector<A, A> of(Supplier<A> supplier, ObjIntConsumer<A> accumulator, BiConsumer<A, A> combiner) {
+        return of(supplier, accumulator, combiner, Function.identity());
+    }
+
+    /** sammelt die Werte von stream mit collector (auch parallel) */
+    static <A, R> R collectInt(IntStream stream, IntCollector<A, R> collector) {
+        A result = stream.collect(collector.supplier(), collector.accumulator(), collector.combiner());
+        return collector.finisher().apply(result);
+    }
+
+    /** dieser Collector für Objekte, deren int-Wert mapper liefert (z.B. als Downstream von groupingBy) */
+    default <T> Collector<T, A, R> from(ToIntFunction<? super T> mapper) {
+        ObjIntConsumer<A> accumulator = accumulator();
+        BiConsumer<A, A> combiner = combiner();
+        return Collector.of(
+            supplier(),
+            (a, t) -> accumulator.accept(a, mapper.applyAsInt(t)),
+            (a, b) -> {
+                combiner.accept(a, b);
+                return a;
+            },
+            finisher());
+    }
+
+    /**
+     * Gruppiert nach classifier und sammelt je Gruppe die Werte von value mit downstream. Liefert dasselbe wie
+     * {@code groupingBy(classifier, downstream.from(value))}, legt aber je Element kein Lambda für
+     * computeIfAbsent an.
+     */
+    static <T, K, A, R> Collector<T, ?, Map<K, R>> groupingBy(Function<? super T, ? extends K> classifier,
+                                                             ToIntFunction<? super T> value,
+                                                             IntCollector<A, R> downstream) {
+        Supplier<A> supplier = downstream.supplier();
+        ObjIntConsumer<A> accumulator = downstream.accumulator();
+        BiConsumer<A, A> combiner = downstream.combiner();
+        Function<A, R> finisher = downstream.finisher();
+        return Collector.<T, Map<K, A>, Map<K, R>>of(
+            HashMap::new,
+            (groups, t) -> {
+                K key = Objects.requireNonNull(classifier.apply(t), "element cannot be mapped to a null key");
+                A group = groups.get(key);
+                if (group == null) {
+                    group = supplier.get();
+                    groups.put(key, group);
+                }
+                accumulator.accept(group, value.applyAsInt(t));
+            },
+            (left, right) -> {
+                right.forEach((key, group) -> {
+                    A existing = left.putIfAbsent(key, group);
+                    if (existing != null) {
+                        combiner.accept(existing, group);
+                    }
+                });
+                return left;
+            },
+            groups -> {
+                Map<K, R> result = new HashMap<>(groups.size() * 2);
+                groups.forEach((key, group) -> result.put(key, finisher.apply(group)));
+                return result;
+            });
+    }
+
+    /** Anzahl der Werte */
+    static IntCollector<long[], Long> counting() {
+        return of(() -> new long[1], (a, value) -> a[0]++, (a, b) -> a[0] += b[0], a -> a[0]);
+    }
+
+    /** Summe der Werte als long (kein Überlauf bei vielen großen int-Werten) */
+    static IntCollector<long[], Long> summing() {
+        return of(() -> new long[1], (a, value) -> a[0] += value, (a, b) -> a[0] += b[0], a -> a[0]);
+    }
+
+    /** Mittelwert der Werte, 0 wenn es keine gibt (wie Collectors.averagingInt) */
+    static IntCollector<long[], Double> averaging() {
+        return of(() -> new long[2],
+            (a, value) -> {
+                a[0] += value;
+                a[1]++;
+            },
+            (a, b) -> {
+                a[0] += b[0];
+                a[1] += b[1];
+            },
+            a -> a[1] == 0 ? 0.0 : (double) a[0] / a[1]);
+    }
+
+    static IntCollector<IntSummaryStatistics, IntSummaryStatistics> summarizing() {
+        return of(IntSummaryStatistics::new, IntSummaryStatistics::accept, IntSummaryStatistics::combine);
+    }
+
+    static IntCollector<IntSummaryStatistics, OptionalInt> min() {
+        return of(IntSummaryStatistics::new, IntSummaryStatistics::accept, IntSummaryStatistics::combine,
+            s -> s.getCount() == 0 ? OptionalInt.empty() : OptionalInt.of(s.getMin()));
+    }
+
+    static IntCollector<IntSummaryStatistics, OptionalInt> max() {
+        return of(IntSummaryStatistics::new, IntSummaryStatistics::accept, IntSummaryStatistics::combine,
+            s -> s.getCount() == 0 ? OptionalInt.empty() : OptionalInt.of(s.getMax()));
+    }
+}
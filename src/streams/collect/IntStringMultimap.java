@@ -0,0 +1,215 @@
+package streams.collect;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collector;
+import java.util.stream.IntStream;
+
+/**
+ * Map von int-Schlüsseln auf Listen von Strings (open addressing, lineares Sondieren).
+ *
+ * Gedacht als Ersatz für
+ * <pre>
+ *   Collectors.toMap(x -> x.length(), x -> x, (oldValue, newValue) -> oldValue + ", " + newValue)
+ * </pre>
+ * Die Schlüssel werden nicht geboxt und die Werte eines Schlüssels erst beim Lesen ({@link #get(int)})
+ * einmal verkettet - statt bei jeder Kollision einen neuen, immer längeren String zu erzeugen.
+ *
+ * Nicht thread-safe; parallele Streams verwenden (wie bei jedem Collector) eine Instanz je Teilaufgabe.
+ */
+public final class IntStringMultimap {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final String delimiter;
+
+    // Slot ist frei, wenn values[slot] == null
+    private int[] keys;
+    private String[][] values;
+    private int[] counts;
+    private String[] joined;    // Cache für get(), wird bei put() verworfen
+    private int size;
+
+    public IntStringMultimap(CharSequence delimiter) {
+        this.delimiter = delimiter.toString();
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Collector, der wie toMap() mit verkettender Merger-Funktion gruppiert, aber eine IntStringMultimap liefert.
+     * Die Reihenfolge der Werte je Schlüssel entspricht der Reihenfolge im Stream (auch bei parallel()).
+     */
+    public static <T> Collector<T, ?, IntStringMultimap> grouping(ToIntFunction<? super T> keyMapper,
+                                                                Function<? super T, String> valueMapper,
+                                                                CharSequence delimiter) {
+        return Collector.of(
+            () -> new IntStringMultimap(delimiter),
+            (map, t) -> map.put(keyMapper.applyAsInt(t), valueMapper.apply(t)),
+            IntStringMultimap::putAll);
+    }
+
+    /**
+     * Liefert das gleiche Ergebnis wie
+     * {@code Collectors.toMap(keyMapper, valueMapper, (o, n) -> o + delimiter + n)}.
+     */
+    public static <T> Collector<T, ?, Map<Integer, String>> toJoinedMap(ToIntFunction<? super T> keyMapper,
+                                                                      Function<? super T, String> valueMapper,
+                                                                      CharSequence delimiter) {
+        return Collector.of(
+            () -> new IntStringMultimap(delimiter),
+            (map, t) -> map.put(keyMapper.applyAsInt(t), valueMapper.apply(t)),
+            IntStringMultimap::putAll,
+            IntStringMultimap::toMap);
+    }
+
+    public void put(int key, String value) {
+        int slot = slot(key);
+        String[] list = values[slot];
+        if (list == null) {
+            keys[slot] = key;
+            values[slot] = new String[]{value, null};
+            counts[slot] = 1;
+            if (++size > keys.length >> 1) {
+                allocate(keys.length << 1);
+            }
+            return;
+        }
+        int count = counts[slot];
+        if (count == list.length) {
+            list = values[slot] = Arrays.copyOf(list, count << 1);
+        }
+        list[count] = value;
+        counts[slot] = count + 1;
+        joined[slot] = null;
+    }
+
+    /** hängt alle Werte von other (in deren Reihenfolge) an die Werte dieser Map an */
+    public IntStringMultimap putAll(IntStringMultimap other) {
+        for (int i = 0; i < other.keys.length; i++) {
+            String[] list = other.values[i];
+            if (list != null) {
+                for (int j = 0; j < other.counts[i]; j++) {
+                    put(other.keys[i], list[j]);
+                }
+            }
+        }
+        return this;
+    }
+
+    /** die mit dem Trennelement verketteten Werte zu key oder null, wenn key nicht vorkommt */
+    public String get(int key) {
+        int slot = slot(key);
+        if (values[slot] == null) {
+            return null;
+        }
+        String s = joined[slot];
+        if (s == null) {
+            s = joined[slot] = join(values[slot], counts[slot]);
+        }
+        return s;
+    }
+
+    /** die einzelnen Werte zu key (unveränderbar, leer wenn key nicht vorkommt) */
+    public List<String> values(int key) {
+        int slot = slot(key);
+        if (values[slot] == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(Arrays.asList(values[slot]).subList(0, counts[slot]));
+    }
+
+    public boolean containsKey(int key) {
+        return values[slot(key)] != null;
+    }
+
+    /** Anzahl der verschiedenen Schlüssel */
+    public int size() {
+        return size;
+    }
+
+    public IntStream keys() {
+        return IntStream.range(0, keys.length).filter(i -> values[i] != null).map(i -> keys[i]);
+    }
+
+    /** ruft action mit den verketteten Werten und dem Schlüssel für jeden Eintrag auf */
+    public void forEach(ObjIntConsumer<String> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] != null) {
+                action.accept(get(keys[i]), keys[i]);
+            }
+        }
+    }
+
+    /** Kopie als gewöhnliche Map, Schlüssel werden erst hier (einmal je Schlüssel) geboxt */
+    public Map<Integer, String> toMap() {
+        Map<Integer, String> map = new HashMap<>();
+        forEach((value, key) -> map.put(key, value));
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+
+    private String join(String[] list, int count) {
+        if (count == 1) {
+            return list[0];
+        }
+        int length = delimiter.length() * (count - 1);
+        for (int i = 0; i < count; i++) {
+            length += list[i].length();
+        }
+        StringBuilder builder = new StringBuilder(length);
+        builder.append(list[0]);
+        for (int i = 1; i < count; i++) {
+            builder.append(delimiter).append(list[i]);
+        }
+        return builder.toString();
+    }
+
+    /** Slot von key oder der freie Slot, an dem key eingefügt werden würde */
+    private int slot(int key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (values[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private void allocate(int capacity) {
+        int[] oldKeys = keys;
+        String[][] oldValues = values;
+        int[] oldCounts = counts;
+        String[] oldJoined = joined;
+
+        keys = new int[capacity];
+        values = new String[capacity][];
+        counts = new int[capacity];
+        joined = new String[capacity];
+
+        if (oldKeys != null) {
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != null) {
+                    int slot = slot(oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                    counts[slot] = oldCounts[i];
+                    joined[slot] = oldJoined[i];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package streams.collect;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Die k größten (oder kleinsten) Werte eines IntStreams in einem int-Heap (siehe {@link TopK}).
+ *
+ * <pre>
+ *   int[] top3 = IntTopK.largest(Arrays.stream(a), 3);
+ *   IntTopK top = stream.collect(() -&gt; IntTopK.largest(3), IntTopK::accept, IntTopK::combine);
+ * </pre>
+ */
+public final class IntTopK implements IntConsumer {
+
+    private final boolean largest;
+    private final int[] heap;       // Wurzel = der schlechteste der behaltenen Werte
+    private int size;
+
+    private IntTopK(int k, boolean largest) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        this.largest = largest;
+        this.heap = new int[k];
+    }
+
+    public static IntTopK largest(int k) {
+        return new IntTopK(k, true);
+    }
+
+    public static IntTopK smallest(int k) {
+        return new IntTopK(k, false);
+    }
+
+    /** die k größten Werte von stream, der größte zuerst */
+    public static int[] largest(IntStream stream, int k) {
+        return stream.collect(() -> largest(k), IntTopK::accept, IntTopK::combine).toArray();
+    }
+
+    /** die k kleinsten Werte von stream, der kleinste zuerst */
+    public static int[] smallest(IntStream stream, int k) {
+        return stream.collect(() -> smallest(k), IntTopK::accept, IntTopK::combine).toArray();
+    }
+
+    @Override
+    public void accept(int value) {
+        if (size < heap.length) {
+            heap[size] = value;
+            siftUp(size++);
+        } else if (size > 0 && better(value, heap[0])) {
+            heap[0] = value;
+            siftDown(0);
+        }
+    }
+
+    public void combine(IntTopK other) {
+        for (int i = 0; i < other.size; i++) {
+            accept(other.heap[i]);
+        }
+    }
+
+    /** die behaltenen Werte, der beste zuerst */
+    public int[] toArray() {
+        int[] values = Arrays.copyOf(heap, size);
+        Arrays.sort(values);
+        if (largest) {
+            for (int i = 0, j = values.length - 1; i < j; i++, j--) {
+                int t = values[i];
+                values[i] = values[j];
+                values[j] = t;
+            }
+        }
+        return values;
+    }
+
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += heap[i];
+        }
+        return sum;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** a gehört eher zu den besten k als b */
+    private boolean better(int a, int b) {
+        return largest ? a > b : a < b;
+    }
+
+    private void siftUp(int i) {
+        int value = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!better(heap[parent], value)) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = value;
+    }
+
+    private void siftDown(int i) {
+        int value = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && better(heap[child], heap[child + 1])) {
+                child++;
+            }
+            if (!better(value, heap[child])) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = value;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
@@ -0,0 +1,162 @@
+package streams.collect;
+
+import java.util.HashMap;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+import java.util.stream.LongStream;
+
+/**
+ * Ein Collector für long-Werte: der Akkumulator bekommt jeden Wert als long, nie als Long. Gegenstück zu
+ * {@link IntCollector}:
+ * <pre>
+ *   long total = LongCollector.collectLong(LongStream.of(sizes), LongCollector.summing());
+ * </pre>
+ *
+ * @param <A> Typ des (veränderlichen) Akkumulators
+ * @param <R> Typ des Ergebnisses
+ */
+public interface LongCollector<A, R> {
+
+    Supplier<A> supplier();
+
+    ObjLongConsumer<A> accumulator();
+
+    /** übernimmt das zweite Teilergebnis in das erste */
+    BiConsumer<A, A> combiner();
+
+    Function<A, R> finisher();
+
+    static <A, R> LongCollector<A, R> of(Supplier<A> supplier, ObjLongConsumer<A> accumulator,
+                                        BiConsumer<A, A> combiner, Function<A, R> finisher) {
+        return new LongCollector<>() {
+            @Override
+            public Supplier<A> supplier() {
+                return supplier;
+            }
+
+            @Override
+            public ObjLongConsumer<A> accumulator() {
+                return accumulator;
+            }
+
+            @Override
+            public BiConsumer<A, A> combiner() {
+                return combiner;
+            }
+
+            @Override
+            public Function<A, R> finisher() {
+                return finisher;
+            }
+        };
+    }
+
+    static <A> LongCollector<A, A> of(Supplier<A> supplier, ObjLongConsumer<A> accumulator, BiConsumer<A, A> combiner) {
+        return of(supplier, accumulator, combiner, Function.identity());
+    }
+
+    /** sammelt die Werte von stream mit collector (auch parallel) */
+    static <A, R> R collectLong(LongStream stream, LongCollector<A, R> collector) {
+        A result = stream.collect(collector.supplier(), collector.accumulator(), collector.combiner());
+        return collector.finisher().apply(result);
+    }
+
+    /** dieser Collector für Objekte, deren long-Wert mapper liefert (z.B. als Downstream von groupingBy) */
+    default <T> Collector<T, A, R> from(ToLongFunction<? super T> mapper) {
+        ObjLongConsumer<A> accumulator = accumulator();
+        BiConsumer<A, A> combiner = combiner();
+        return Collector.of(
+            supplier(),
+            (a, t) -> accumulator.accept(a, mapper.applyAsLong(t)),
+            (a, b) -> {
+                combiner.accept(a, b);
+                return a;
+            },
+            finisher());
+    }
+
+    /**
+     * Gruppiert nach classifier und sammelt je Gruppe die Werte von value mit downstream. Liefert dasselbe wie
+     * {@code groupingBy(classifier, downstream.from(value))}, legt aber je Element kein Lambda für
+     * computeIfAbsent an.
+     */
+    static <T, K, A, R> Collector<T, ?, Map<K, R>> groupingBy(Function<? super T, ? extends K> classifier,
+                                                             ToLongFunction<? super T> value,
+                                                             LongCollector<A, R> downstream) {
+        Supplier<A> supplier = downstream.supplier();
+        ObjLongConsumer<A> accumulator = downstream.accumulator();
+        BiConsumer<A, A> combiner = downstream.combiner();
+        Function<A, R> finisher = downstream.finisher();
+        return Collector.<T, Map<K, A>, Map<K, R>>of(
+            HashMap::new,
+            (groups, t) -> {
+                K key = Objects.requireNonNull(classifier.apply(t), "element cannot be mapped to a null key");
+                A group = groups.get(key);
+                if (group == null) {
+                    group = supplier.get();
+                    groups.put(key, group);
+                }
+                accumulator.accept(group, value.applyAsLong(t));
+            },
+            (left, right) -> {
+                right.forEach((key, group) -> {
+                    A existing = left.putIfAbsent(key, group);
+                    if (existing != null) {
+                        combiner.accept(existing, group);
+                    }
+                });
+                return left;
+            },
+            groups -> {
+                Map<K, R> result = new HashMap<>(groups.size() * 2);
+                groups.forEach((key, group) -> result.put(key, finisher.apply(group)));
+                return result;
+            });
+    }
+
+    /** Anzahl der Werte */
+    static LongCollector<long[], Long> counting() {
+        return of(() -> new long[1], (a, value) -> a[0]++, (a, b) -> a[0] += b[0], a -> a[0]);
+    }
+
+    /** Summe der Werte */
+    static LongCollector<long[], Long> summing() {
+        return of(() -> new long[1], (a, value) -> a[0] += value, (a, b) -> a[0] += b[0], a -> a[0]);
+    }
+
+    /** Mittelwert der Werte, 0 wenn es keine gibt (wie Collectors.averagingLong) */
+    static LongCollector<long[], Double> averaging() {
+        return of(() -> new long[2],
+            (a, value) -> {
+                a[0] += value;
+                a[1]++;
+            },
+            (a, b) -> {
+                a[0] += b[0];
+                a[1] += b[1];
+            },
+            a -> a[1] == 0 ? 0.0 : (double) a[0] / a[1]);
+    }
+
+    static LongCollector<LongSummaryStatistics, LongSummaryStatistics> summarizing() {
+        return of(LongSummaryStatistics::new, LongSummaryStatistics::accept, LongSummaryStatistics::combine);
+    }
+
+    static LongCollector<LongSummaryStatistics, OptionalLong> min() {
+        return of(LongSummaryStatistics::new, LongSummaryStatistics::accept, LongSummaryStatistics::combine,
+            s -> s.getCount() == 0 ? OptionalLong.empty() : OptionalLong.of(s.getMin()));
+    }
+
+    static LongCollector<LongSummaryStatistics, OptionalLong> max() {
+        return of(LongSummaryStatistics::new, LongSummaryStatistics::accept, LongSummaryStatistics::combine,
+            s -> s.getCount() == 0 ? OptionalLong.empty() : OptionalLong.of(s.getMax()));
+    }
+}
@@ -0,0 +1,131 @@
+package streams.collect;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+/**
+ * Die k größten (oder kleinsten) Werte eines LongStreams in einem long-Heap (siehe {@link TopK}).
+ *
+ * <pre>
+ *   long[] top3 = LongTopK.largest(Arrays.stream(a), 3);
+ *   LongTopK top = stream.collect(() -&gt; LongTopK.largest(3), LongTopK::accept, LongTopK::combine);
+ * </pre>
+ */
+public final class LongTopK implements LongConsumer {
+
+    private final boolean largest;
+    private final long[] heap;       // Wurzel = der schlechteste der behaltenen Werte
+    private int size;
+
+    private LongTopK(int k, boolean largest) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        this.largest = largest;
+        this.heap = new long[k];
+    }
+
+    public static LongTopK largest(int k) {
+        return new LongTopK(k, true);
+    }
+
+    public static LongTopK smallest(int k) {
+        return new LongTopK(k, false);
+    }
+
+    /** die k größten Werte von stream, der größte zuerst */
+    public static long[] largest(LongStream stream, int k) {
+        return stream.collect(() -> largest(k), LongTopK::accept, LongTopK::combine).toArray();
+    }
+
+    /** die k kleinsten Werte von stream, der kleinste zuerst */
+    public static long[] smallest(LongStream stream, int k) {
+        return stream.collect(() -> smallest(k), LongTopK::accept, LongTopK::combine).toArray();
+    }
+
+    @Override
+    public void accept(long value) {
+        if (size < heap.length) {
+            heap[size] = value;
+            siftUp(size++);
+        } else if (size > 0 && better(value, heap[0])) {
+            heap[0] = value;
+            siftDown(0);
+        }
+    }
+
+    public void combine(LongTopK other) {
+        for (int i = 0; i < other.size; i++) {
+            accept(other.heap[i]);
+        }
+    }
+
+    /** die behaltenen Werte, der beste zuerst */
+    public long[] toArray() {
+        long[] values = Arrays.copyOf(heap, size);
+        Arrays.sort(values);
+        if (largest) {
+            for (int i = 0, j = values.length - 1; i < j; i++, j--) {
+                long t = values[i];
+                values[i] = values[j];
+                values[j] = t;
+            }
+        }
+        return values;
+    }
+
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += heap[i];
+        }
+        return sum;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** a gehört eher zu den besten k als b */
+    private boolean better(long a, long b) {
+        return largest ? a > b : a < b;
+    }
+
+    private void siftUp(int i) {
+        long value = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!better(heap[parent], value)) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = value;
+    }
+
+    private void siftDown(int i) {
+        long value = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && better(heap[child], heap[child + 1])) {
+                child++;
+            }
+            if (!better(value, heap[child])) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = value;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
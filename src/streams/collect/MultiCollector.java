@@ -0,0 +1,241 @@
+package streams.collect;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+/**
+ * Verallgemeinerung von {@code Collectors.teeing()} auf beliebig viele Downstream-Collectors: Ein einziger
+ * Durchlauf durch den Stream versorgt alle Collectors.
+ *
+ * Zusätzlich können Stufen eingehängt werden, die für alle ihre Collectors nur einmal je Element ausgeführt
+ * werden:
+ * <ul>
+ *     <li>{@link #mapping(Function)}: wandelt jedes Element einmal um (z.B. String::toLowerCase)</li>
+ *     <li>{@link #distinct()} / {@link #distinctSorted(Comparator)}: entfernt Duplikate (und sortiert) einmal;
+ *     die Collectors dieser Stufe erhalten ihre Elemente erst am Ende</li>
+ * </ul>
+ *
+ * Beispiel (ExamplesCollectors):
+ * <pre>
+ *   MultiCollector&lt;String&gt; all = new MultiCollector&lt;&gt;();
+ *   MultiCollector.Key&lt;IntSummaryStatistics&gt; stat = all.add(Collectors.summarizingInt(String::length));
+ *   MultiCollector&lt;String&gt; lower = all.mapping(String::toLowerCase);
+ *   MultiCollector.Key&lt;Map&lt;String, Long&gt;&gt; frequency = lower.add(Collectors.groupingBy(w -&gt; w, Collectors.counting()));
+ *   MultiCollector.Key&lt;Map&lt;Boolean, List&lt;String&gt;&gt;&gt; shortWords =
+ *       lower.distinctSorted(Comparator.naturalOrder()).add(Collectors.partitioningBy(w -&gt; w.length() &lt;= 5));
+ *
+ *   MultiCollector.Results results = words.stream().collect(all.collector());
+ *   results.get(shortWords) ...
+ * </pre>
+ */
+public final class MultiCollector<T> {
+
+    /** Zugriff auf das Ergebnis eines mit {@link #add(Collector)} hinzugefügten Collectors */
+    public static final class Key<R> {
+        private final int index;
+
+        private Key(int index) {
+            this.index = index;
+        }
+    }
+
+    /** die Ergebnisse aller Collectors eines Durchlaufs */
+    public static final class Results {
+        private final Object[] values;
+
+        private Results(Object[] values) {
+            this.values = values;
+        }
+
+        @SuppressWarnings("unchecked")
+        public <R> R get(Key<R> key) {
+            return (R) values[key.index];
+        }
+    }
+
+    private static final class Stage<T, U> {
+        final Function<? super T, ? extends U> mapper;
+        final MultiCollector<U> target;
+
+        Stage(Function<? super T, ? extends U> mapper, MultiCollector<U> target) {
+            this.mapper = mapper;
+            this.target = target;
+        }
+    }
+
+    private final MultiCollector<?> root;
+    private int keyCount;   // nur in root verwendet
+
+    private final boolean distinct;
+    private final Comparator<? super T> order;
+    // Funktionen der Downstream-Collectors, einmal beim Hinzufügen abgefragt
+    private final List<Supplier<Object>> suppliers = new ArrayList<>();
+    private final List<BiConsumer<Object, ? super T>> accumulators = new ArrayList<>();
+    private final List<BinaryOperator<Object>> combiners = new ArrayList<>();
+    private final List<Function<Object, Object>> finishers = new ArrayList<>();
+    private final List<Key<?>> keys = new ArrayList<>();
+    private final List<Stage<T, ?>> stages = new ArrayList<>();
+
+    public MultiCollector() {
+        this(null, false, null);
+    }
+
+    private MultiCollector(MultiCollector<?> root, boolean distinct, Comparator<? super T> order) {
+        this.root = root == null ? this : root;
+        this.distinct = distinct;
+        this.order = order;
+    }
+
+    /** fügt einen Downstream-Collector hinzu; sein Ergebnis liefert {@link Results#get(Key)} */
+    @SuppressWarnings("unchecked")
+    public <R> Key<R> add(Collector<? super T, ?, R> downstream) {
+        Collector<? super T, Object, R> collector = (Collector<? super T, Object, R>) downstream;
+        Key<R> key = new Key<>(root.keyCount++);
+        suppliers.add(collector.supplier());
+        accumulators.add(collector.accumulator());
+        combiners.add(collector.combiner());
+        finishers.add(collector.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)
+            ? Function.identity()
+            : (Function<Object, Object>) collector.finisher());
+        keys.add(key);
+        return key;
+    }
+
+    /** Stufe, deren Collectors die mit mapper umgewandelten Elemente erhalten */
+    public <U> MultiCollector<U> mapping(Function<? super T, ? extends U> mapper) {
+        return stage(mapper, new MultiCollector<>(root, false, null));
+    }
+
+    /** Stufe, deren Collectors jedes verschiedene Element einmal erhalten (in der Reihenfolge des ersten Auftretens) */
+    public MultiCollector<T> distinct() {
+        return stage(Function.identity(), new MultiCollector<>(root, true, null));
+    }
+
+    /** Stufe, deren Collectors jedes verschiedene Element einmal erhalten, sortiert nach order */
+    public MultiCollector<T> distinctSorted(Comparator<? super T> order) {
+        return stage(Function.identity(), new MultiCollector<>(root, true, order));
+    }
+
+    private <U> MultiCollector<U> stage(Function<? super T, ? extends U> mapper, MultiCollector<U> target) {
+        stages.add(new Stage<>(mapper, target));
+        return target;
+    }
+
+    /** Collector, der in einem Durchlauf alle Collectors dieses MultiCollectors (und seiner Stufen) versorgt */
+    public Collector<T, ?, Results> collector() {
+        if (root != this) {
+            throw new IllegalStateException("collector() is only available on the first MultiCollector");
+        }
+        return Collector.of(
+            this::newContainer,
+            this::accept,
+            this::combine,
+            container -> {
+                Object[] values = new Object[keyCount];
+                finish(container, values);
+                return new Results(values);
+            });
+    }
+
+    /*
+     * Container einer normalen Stufe: Object[] mit den Containern der Downstream-Collectors, gefolgt von den
+     * Containern der Stufen. Eine distinct-Stufe sammelt nur die Elemente in einem Set und versorgt ihre
+     * Collectors erst in finish() - sonst würden Duplikate aus verschiedenen Teilen eines parallelen
+     * Streams mehrfach gezählt.
+     */
+
+    private Object newContainer() {
+        if (distinct) {
+            return new LinkedHashSet<T>();
+        }
+        return newPlainContainer();
+    }
+
+    private Object[] newPlainContainer() {
+        Object[] container = new Object[suppliers.size() + stages.size()];
+        for (int i = 0; i < suppliers.size(); i++) {
+            container[i] = suppliers.get(i).get();
+        }
+        for (int i = 0; i < stages.size(); i++) {
+            container[suppliers.size() + i] = stages.get(i).target.newContainer();
+        }
+        return container;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void accept(Object container, T t) {
+        if (distinct) {
+            ((Set<T>) container).add(t);
+        } else {
+            acceptPlain((Object[]) container, t);
+        }
+    }
+
+    private void acceptPlain(Object[] container, T t) {
+        int n = suppliers.size();
+        for (int i = 0; i < n; i++) {
+            accumulators.get(i).accept(container[i], t);
+        }
+        for (int i = 0; i < stages.size(); i++) {
+            acceptStage(stages.get(i), container[n + i], t);
+        }
+    }
+
+    private static <T, U> void acceptStage(Stage<T, U> stage, Object container, T t) {
+        stage.target.accept(container, stage.mapper.apply(t));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object combine(Object left, Object right) {
+        if (distinct) {
+            ((Set<T>) left).addAll((Collection<T>) right);
+            return left;
+        }
+        Object[] l = (Object[]) left;
+        Object[] r = (Object[]) right;
+        int n = suppliers.size();
+        for (int i = 0; i < n; i++) {
+            l[i] = combiners.get(i).apply(l[i], r[i]);
+        }
+        for (int i = 0; i < stages.size(); i++) {
+            l[n + i] = stages.get(i).target.combine(l[n + i], r[n + i]);
+        }
+        return l;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void finish(Object container, Object[] values) {
+        Object[] plain;
+        if (distinct) {
+            Collection<T> elements = (Set<T>) container;
+            if (order != null) {
+                List<T> sorted = new ArrayList<>(elements);
+                sorted.sort(order);
+                elements = sorted;
+            }
+            plain = newPlainContainer();
+            for (T t : elements) {
+                acceptPlain(plain, t);
+            }
+        } else {
+            plain = (Object[]) container;
+        }
+
+        int n = suppliers.size();
+        for (int i = 0; i < n; i++) {
+            values[keys.get(i).index] = finishers.get(i).apply(plain[i]);
+        }
+        for (int i = 0; i < stages.size(); i++) {
+            stages.get(i).target.finish(plain[n + i], values);
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package streams.collect;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collector;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Eine Map von Objekten auf int-Werte, die die Werte in einem int-Array speichert (offene Adressierung).
+ *
+ * Statt
+ * <pre>
+ *   Map&lt;String, Integer&gt; votes = ...;
+ *   int total = votes.values().stream().mapToInt(Integer::intValue).sum();
+ *   votes.merge(party, 1, Integer::sum);
+ * </pre>
+ * (ein Integer-Objekt je Wert, ein Entry-Objekt je Schlüssel, bei jedem Ändern ein neues Integer)
+ * <pre>
+ *   Object2IntMap&lt;String&gt; votes = Object2IntMap.of(map);
+ *   long total = votes.values().sum();
+ *   votes.addTo(party, 1);
+ * </pre>
+ * Nur die Schlüssel sind Objekte; {@code null} ist als Schlüssel nicht erlaubt. Nicht threadsicher - in parallelen
+ * Streams hat jede Teilaufgabe eine eigene Map ({@link #summing}, {@link #counting}).
+ */
+public final class Object2IntMap<K> {
+
+    private static final int MIN_CAPACITY = 8;
+
+    private Object[] keys;      // null = freier Platz
+    private int[] hashes;       // gemischter hashCode je Platz, spart equals bei Kollisionen
+    private int[] values;
+    private int shift;          // 32 - log2(capacity)
+    private int size;
+
+    private Object2IntMap(int capacity) {
+        allocate(capacity);
+    }
+
+    public static <K> Object2IntMap<K> create() {
+        return new Object2IntMap<>(MIN_CAPACITY);
+    }
+
+    /** leere Map, die für expectedSize Schlüssel nicht wachsen muss */
+    public static <K> Object2IntMap<K> withExpectedSize(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize must not be negative: " + expectedSize);
+        }
+        return new Object2IntMap<>(capacityFor(expectedSize));
+    }
+
+    /** Kopie von map */
+    public static <K> Object2IntMap<K> of(Map<? extends K, Integer> map) {
+        Object2IntMap<K> result = withExpectedSize(map.size());
+        map.forEach(result::put);
+        return result;
+    }
+
+    /** summiert value je Schlüssel, wie {@code groupingBy(classifier, summingInt(value))} */
+    public static <T, K> Collector<T, ?, Object2IntMap<K>> summing(Function<? super T, ? extends K> classifier,
+                                                                  ToIntFunction<? super T> value) {
+        return Collector.of(
+            Object2IntMap::<K>create,
+            (map, t) -> map.addTo(classifier.apply(t), value.applyAsInt(t)),
+            Object2IntMap::addAll,
+            Collector.Characteristics.UNORDERED,
+            Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    /** zählt je Schlüssel, wie {@code groupingBy(classifier, counting())} */
+    public static <T, K> Collector<T, ?, Object2IntMap<K>> counting(Function<? super T, ? extends K> classifier) {
+        return summing(classifier, t -> 1);
+    }
+
+    /** der Wert zu key, 0 wenn es key nicht gibt */
+    public int get(Object key) {
+        return getOrDefault(key, 0);
+    }
+
+    public int getOrDefault(Object key, int defaultValue) {
+        int slot = slotOf(key);
+        return keys[slot] == null ? defaultValue : values[slot];
+    }
+
+    public boolean containsKey(Object key) {
+        return keys[slotOf(key)] != null;
+    }
+
+    /** setzt den Wert zu key, liefert den bisherigen (0, wenn es key nicht gab) */
+    public int put(K key, int value) {
+        int hash = hash(key);
+        int slot = slotOf(key, hash);
+        if (keys[slot] == null) {
+            insert(slot, key, hash, value);
+            return 0;
+        }
+        int previous = values[slot];
+        values[slot] = value;
+        return previous;
+    }
+
+    /** addiert delta zum Wert von key (fehlt key, zu 0) und liefert den neuen Wert */
+    public int addTo(K key, int delta) {
+        int hash = hash(key);
+        int slot = slotOf(key, hash);
+        if (keys[slot] == null) {
+            insert(slot, key, hash, delta);
+            return delta;
+        }
+        return values[slot] += delta;
+    }
+
+    /** addiert alle Werte von other */
+    public Object2IntMap<K> addAll(Object2IntMap<? extends K> other) {
+        other.forEach(this::addTo);
+        return this;
+    }
+
+    /** entfernt key, liefert den bisherigen Wert (0, wenn es key nicht gab) */
+    public int remove(Object key) {
+        int slot = slotOf(key);
+        if (keys[slot] == null) {
+            return 0;
+        }
+        int previous = values[slot];
+        // die folgenden Einträge derselben Sondierungskette rücken nach, damit sie auffindbar bleiben
+        int mask = keys.length - 1;
+        int free = slot;
+        for (int i = (slot + 1) & mask; keys[i] != null; i = (i + 1) & mask) {
+            int home = hashes[i] >>> shift;
+            if (((i - home) & mask) >= ((i - free) & mask)) {
+                keys[free] = keys[i];
+                hashes[free] = hashes[i];
+                values[free] = values[i];
+                free = i;
+            }
+        }
+        keys[free] = null;
+        values[free] = 0;
+        size--;
+        return previous;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** die Schlüssel (in keiner bestimmten Reihenfolge) */
+    public Stream<K> keys() {
+        return slots().mapToObj(this::keyAt);
+    }
+
+    /** die Schlüssel, deren Wert filter erfüllt - ohne eigenen Lookup je Schlüssel */
+    public Stream<K> keys(IntPredicate filter) {
+        return slots().filter(slot -> filter.test(values[slot])).mapToObj(this::keyAt);
+    }
+
+    /** die Werte (in der Reihenfolge von {@link #keys()}) als IntStream */
+    public IntStream values() {
+        return slots().map(slot -> values[slot]);
+    }
+
+    public void forEach(ObjIntConsumer<? super K> action) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != null) {
+                action.accept(keyAt(slot), values[slot]);
+            }
+        }
+    }
+
+    /** Kopie als Map&lt;K, Integer&gt; */
+    public Map<K, Integer> toMap() {
+        Map<K, Integer> map = new LinkedHashMap<>();
+        forEach(map::put);
+        return map;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, null);
+        Arrays.fill(hashes, 0);
+        Arrays.fill(values, 0);
+        size = 0;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+
+    private IntStream slots() {
+        return IntStream.range(0, keys.length).filter(slot -> keys[slot] != null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private K keyAt(int slot) {
+        return (K) keys[slot];
+    }
+
+    /** Platz von key oder der freie Platz, an dem key stehen müsste */
+    private int slotOf(Object key) {
+        return slotOf(key, hash(key));
+    }
+
+    private int slotOf(Object key, int hash) {
+        int mask = keys.length - 1;
+        int slot = hash >>> shift;
+        for (Object k = keys[slot]; k != null; k = keys[slot]) {
+            if (hashes[slot] == hash && (k == key || k.equals(key))) {
+                break;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /** Fibonacci-Hashing: die obersten Bits (der Platz) hängen von allen Bits von hashCode ab */
+    private static int hash(Object key) {
+        return Objects.requireNonNull(key, "key").hashCode() * 0x9E3779B9;
+    }
+
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        hashes = new int[capacity];
+        values = new int[capacity];
+        shift = Integer.numberOfLeadingZeros(capacity) + 1;
+    }
+
+    private void insert(int slot, K key, int hash, int value) {
+        keys[slot] = key;
+        hashes[slot] = hash;
+        values[slot] = value;
+        if (++size > keys.length / 2) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    private void rehash(int capacity) {
+        Object[] oldKeys = keys;
+        int[] oldHashes = hashes;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = slotOf(oldKeys[i], oldHashes[i]);
+                keys[slot] = oldKeys[i];
+                hashes[slot] = oldHashes[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /** Zweierpotenz, bei der expectedSize Schlüssel höchstens die Hälfte belegen */
+    private static int capacityFor(int expectedSize) {
+        if (expectedSize > 1 << 29) {
+            throw new IllegalArgumentException("too many keys: " + expectedSize);
+        }
+        int capacity = MIN_CAPACITY;
+        while (capacity / 2 < expectedSize) {
+            capacity *= 2;
+        }
+        return capacity;
+    }
+}
@@ -0,0 +1,274 @@
+package streams.collect;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collector;
+
+/**
+ * Die häufigsten Elemente eines Streams (heavy hitters) mit fester Speichergröße (Space-Saving).
+ *
+ * Statt alle Elemente zu zählen und danach die häufigsten zu suchen
+ * <pre>
+ *   words.stream().collect(groupingBy(w -&gt; w, counting())).entrySet().stream()
+ *       .sorted(Map.Entry.comparingByValue(Comparator.reverseOrder())).limit(10)
+ * </pre>
+ * zählt Space-Saving nur capacity Elemente. Kommt ein neues Element dazu, wenn schon capacity gezählt werden,
+ * ersetzt es das Element mit dem kleinsten Zähler und übernimmt dessen Zählerstand (als möglichen Fehler):
+ * <pre>
+ *   List&lt;SpaceSaving.Entry&lt;String&gt;&gt; top = words.stream().collect(SpaceSaving.heavyHitters(100)).top(10);
+ * </pre>
+ * Jeder Zähler ist höchstens um N / capacity zu groß (N = Anzahl aller Elemente) und nie zu klein; jedes
+ * Element, das öfter als N / capacity vorkommt, wird sicher gezählt. capacity sollte daher deutlich größer
+ * sein als die Anzahl der gesuchten Elemente.
+ *
+ * Zwei SpaceSaving lassen sich zusammenführen (die Zähler werden addiert, für fehlende Elemente der kleinste
+ * Zähler der anderen Seite); die Fehlerschranke bleibt N / capacity.
+ */
+public final class SpaceSaving<T> {
+
+    private static final Comparator<Counter<?>> BY_COUNT = Comparator.comparingLong(c -> c.count);
+
+    private final int capacity;
+    private final Map<T, Counter<T>> counters = new HashMap<>();
+    private final Counter<T>[] heap;    // Min-Heap nach count, heap[0] ist der kleinste Zähler
+    private int size;
+    private long total;
+
+    @SuppressWarnings("unchecked")
+    private SpaceSaving(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.heap = (Counter<T>[]) new Counter<?>[capacity];
+    }
+
+    /** ein leeres SpaceSaving mit capacity Zählern */
+    public static <T> SpaceSaving<T> of(int capacity) {
+        return new SpaceSaving<>(capacity);
+    }
+
+    /** zählt die Elemente mit capacity Zählern */
+    public static <T> Collector<T, ?, SpaceSaving<T>> heavyHitters(int capacity) {
+        return Collector.of(
+            () -> new SpaceSaving<T>(capacity),
+            SpaceSaving::add,
+            SpaceSaving::merge,
+            Collector.Characteristics.UNORDERED,
+            Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    /** ungefähr die k häufigsten Elemente, das häufigste zuerst; gezählt wird mit capacity Zählern */
+    public static <T> Collector<T, ?, List<Entry<T>>> top(int k, int capacity) {
+        return Collector.of(
+            () -> new SpaceSaving<T>(capacity),
+            SpaceSaving::add,
+            SpaceSaving::merge,
+            s -> s.top(k),
+            Collector.Characteristics.UNORDERED);
+    }
+
+    public void add(T element) {
+        add(element, 1);
+    }
+
+    /** zählt element count-mal */
+    public void add(T element, long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative: " + count);
+        }
+        total += count;
+        Counter<T> counter = counters.get(element);
+        if (counter == null) {
+            if (size < capacity) {
+                counter = new Counter<>(element, 0, 0);
+                counter.position = size;
+                heap[size++] = counter;
+            } else {
+                // das Element mit dem kleinsten Zähler wird ersetzt, sein Zählerstand ist der mögliche Fehler
+                counter = heap[0];
+                counters.remove(counter.element);
+                counter.element = element;
+                counter.error = counter.count;
+            }
+            counters.put(element, counter);
+        }
+        counter.count += count;
+        siftDown(counter.position);
+    }
+
+    /**
+     * Übernimmt alle Zählungen von other.
+     *
+     * @throws IllegalArgumentException wenn other eine andere capacity hat
+     */
+    public SpaceSaving<T> merge(SpaceSaving<T> other) {
+        if (other.capacity != capacity) {
+            throw new IllegalArgumentException("capacity differs: " + capacity + " and " + other.capacity);
+        }
+        // ein Element, das eine Seite nicht zählt, kam dort höchstens so oft vor wie ihr kleinster Zähler
+        long thisMin = minCount();
+        long otherMin = other.minCount();
+        Map<T, Counter<T>> merged = new HashMap<>();
+        for (Counter<T> c : counters.values()) {
+            merged.put(c.element, new Counter<>(c.element, c.count + otherMin, c.error + otherMin));
+        }
+        for (Counter<T> c : other.counters.values()) {
+            Counter<T> m = merged.get(c.element);
+            if (m == null) {
+                merged.put(c.element, new Counter<>(c.element, c.count + thisMin, c.error + thisMin));
+            } else {
+                m.count += c.count - otherMin;
+                m.error += c.error - otherMin;
+            }
+        }
+        List<Counter<T>> largest = new ArrayList<>(merged.values());
+        largest.sort(BY_COUNT.reversed());
+
+        counters.clear();
+        size = Math.min(capacity, largest.size());
+        for (int i = 0; i < size; i++) {
+            Counter<T> c = largest.get(size - 1 - i);   // aufsteigend: bereits ein gültiger Min-Heap
+            c.position = i;
+            heap[i] = c;
+            counters.put(c.element, c);
+        }
+        Arrays.fill(heap, size, capacity, null);
+        total += other.total;
+        return this;
+    }
+
+    /** die (höchstens) k Elemente mit den größten Zählern, das häufigste zuerst */
+    public List<Entry<T>> top(int k) {
+        List<Counter<T>> sorted = new ArrayList<>(counters.values());
+        sorted.sort(BY_COUNT.reversed());
+        List<Entry<T>> result = new ArrayList<>();
+        for (int i = 0; i < Math.min(k, sorted.size()); i++) {
+            Counter<T> c = sorted.get(i);
+            result.add(new Entry<>(c.element, c.count, c.error));
+        }
+        return result;
+    }
+
+    /**
+     * Die gezählten Elemente, deren Zähler mehr als fraction * N beträgt, das häufigste zuerst. Enthält sicher
+     * alle Elemente, die öfter als fraction * N vorkommen, wenn capacity &gt;= 1 / fraction.
+     */
+    public List<Entry<T>> frequent(double fraction) {
+        List<Entry<T>> result = new ArrayList<>();
+        for (Entry<T> entry : top(size)) {
+            if (entry.getCount() <= fraction * total) {
+                break;
+            }
+            result.add(entry);
+        }
+        return result;
+    }
+
+    /** obere Schranke dafür, wie oft element vorkam */
+    public long estimate(T element) {
+        Counter<T> counter = counters.get(element);
+        return counter != null ? counter.count : minCount();
+    }
+
+    /** Anzahl aller gezählten Elemente (N) */
+    public long size() {
+        return total;
+    }
+
+    /** größtmöglicher Fehler eines Zählers: der kleinste Zähler, sobald alle capacity belegt sind (&lt;= N / capacity) */
+    public long maxError() {
+        return minCount();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public String toString() {
+        return "SpaceSaving" + top(10);
+    }
+
+    private long minCount() {
+        return size < capacity ? 0 : heap[0].count;
+    }
+
+    /** stellt die Heap-Ordnung wieder her, nachdem der Zähler an position größer geworden ist */
+    private void siftDown(int position) {
+        Counter<T> counter = heap[position];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1].count < heap[child].count) {
+                child++;
+            }
+            if (counter.count <= heap[child].count) {
+                break;
+            }
+            heap[position] = heap[child];
+            heap[position].position = position;
+            position = child;
+        }
+        heap[position] = counter;
+        counter.position = position;
+    }
+
+    private static final class Counter<T> {
+        T element;
+        long count;
+        long error;
+        int position;
+
+        Counter(T element, long count, long error) {
+            this.element = element;
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Ein gezähltes Element: es kam höchstens count-mal und mindestens count - error-mal vor.
+     */
+    public static final class Entry<T> {
+        private final T element;
+        private final long count;
+        private final long error;
+
+        Entry(T element, long count, long error) {
+            this.element = element;
+            this.count = count;
+            this.error = error;
+        }
+
+        public T getElement() {
+            return element;
+        }
+
+        /** obere Schranke für die Häufigkeit */
+        public long getCount() {
+            return count;
+        }
+
+        /** um höchstens so viel ist count zu groß */
+        public long getError() {
+            return error;
+        }
+
+        /** untere Schranke für die Häufigkeit */
+        public long getGuaranteedCount() {
+            return count - error;
+        }
+
+        @Override
+        public String toString() {
+            return element + "=" + count + (error > 0 ? " (error " + error + ")" : "");
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package streams.collect;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ordnet jedem verschiedenen String eine fortlaufende Nummer (0, 1, 2, ...) zu (Dictionary-Encoding).
+ *
+ * Wiederholte Werte wie Nachnamen werden so nur einmal gespeichert und gehasht; danach kann mit den Nummern
+ * als Index in primitive Arrays gearbeitet werden.
+ */
+public final class StringDictionary {
+
+    private final Map<String, Integer> ids;
+    private final List<String> values;
+    private final boolean readOnly;
+
+    public StringDictionary() {
+        this(new HashMap<>(), new ArrayList<>(), false);
+    }
+
+    private StringDictionary(Map<String, Integer> ids, List<String> values, boolean readOnly) {
+        this.ids = ids;
+        this.values = values;
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * Sicht auf dieses Dictionary, die keine neuen Werte aufnimmt: encode eines unbekannten Werts wirft eine
+     * UnsupportedOperationException. Für Besitzer, die ihre Nummern nicht von außen verändern lassen dürfen.
+     */
+    public StringDictionary readOnlyView() {
+        return readOnly ? this : new StringDictionary(ids, values, true);
+    }
+
+    /** Nummer von value; ein neuer Wert bekommt die nächste freie Nummer */
+    public int encode(String value) {
+        Integer id = ids.get(value);
+        if (id == null) {
+            if (readOnly) {
+                throw new UnsupportedOperationException("read-only dictionary does not accept new value: " + value);
+            }
+            id = values.size();
+            ids.put(value, id);
+            values.add(value);
+        }
+        return id;
+    }
+
+    /** Nummer von value oder -1, wenn value (noch) nicht vorkommt */
+    public int find(String value) {
+        Integer id = ids.get(value);
+        return id == null ? -1 : id;
+    }
+
+    public String decode(int id) {
+        return values.get(id);
+    }
+
+    /** Anzahl der verschiedenen Werte, die Nummern reichen von 0 bis size() - 1 */
+    public int size() {
+        return values.size();
+    }
+
+    @Override
+    public String toString() {
+        return values.toString();
+    }
+}
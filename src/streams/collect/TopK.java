@@ -0,0 +1,136 @@
+package streams.collect;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collector;
+
+/**
+ * Die k größten (oder kleinsten) Elemente eines Streams, ohne den ganzen Stream zu sortieren.
+ *
+ * Statt
+ * <pre>
+ *   numbers.stream().sorted(Comparator.reverseOrder()).limit(3)
+ * </pre>
+ * (alle Elemente puffern und sortieren: O(n log n) Zeit, O(n) Speicher) hält der Collector nur einen Heap mit
+ * k Elementen: O(n log k) Zeit, O(k) Speicher. In parallelen Streams hat jede Teilaufgabe einen eigenen Heap;
+ * beim Zusammenführen werden die k Elemente des einen Heaps in den anderen eingefügt.
+ *
+ * Für IntStream und LongStream gibt es {@link IntTopK} und {@link LongTopK}, die ohne Boxing auskommen.
+ */
+public final class TopK<T> {
+
+    private final int k;
+    private final Comparator<? super T> heapOrder;  // Wurzel = das schlechteste der behaltenen Elemente
+    private final Object[] heap;
+    private int size;
+
+    private TopK(int k, Comparator<? super T> heapOrder) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        this.k = k;
+        this.heapOrder = heapOrder;
+        this.heap = new Object[k];
+    }
+
+    /** die k größten Elemente nach comparator, das größte zuerst */
+    public static <T> Collector<T, ?, List<T>> largest(int k, Comparator<? super T> comparator) {
+        return Collector.of(
+            () -> new TopK<T>(k, comparator),
+            TopK::accept,
+            TopK::combine,
+            top -> top.toList(comparator.reversed()));
+    }
+
+    /** die k kleinsten Elemente nach comparator, das kleinste zuerst */
+    public static <T> Collector<T, ?, List<T>> smallest(int k, Comparator<? super T> comparator) {
+        return Collector.of(
+            () -> new TopK<T>(k, comparator.reversed()),
+            TopK::accept,
+            TopK::combine,
+            top -> top.toList(comparator));
+    }
+
+    /** die k größten Elemente in natürlicher Ordnung, das größte zuerst */
+    public static <T extends Comparable<? super T>> Collector<T, ?, List<T>> largest(int k) {
+        return largest(k, Comparator.naturalOrder());
+    }
+
+    /** die k kleinsten Elemente in natürlicher Ordnung, das kleinste zuerst */
+    public static <T extends Comparable<? super T>> Collector<T, ?, List<T>> smallest(int k) {
+        return smallest(k, Comparator.naturalOrder());
+    }
+
+    private void accept(T t) {
+        if (size < k) {
+            heap[size] = t;
+            siftUp(size++);
+        } else if (k > 0 && heapOrder.compare(t, element(0)) > 0) {
+            heap[0] = t;
+            siftDown(0);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private TopK<T> combine(TopK<T> other) {
+        for (int i = 0; i < other.size; i++) {
+            accept((T) other.heap[i]);
+        }
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<T> toList(Comparator<? super T> resultOrder) {
+        List<T> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add((T) heap[i]);
+        }
+        list.sort(resultOrder);
+        return Collections.unmodifiableList(list);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T element(int i) {
+        return (T) heap[i];
+    }
+
+    private void siftUp(int i) {
+        Object t = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heapOrder.compare(element(parent), element(i)) <= 0) {
+                break;
+            }
+            heap[i] = heap[parent];
+            heap[parent] = t;
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && heapOrder.compare(element(child + 1), element(child)) < 0) {
+                child++;
+            }
+            if (heapOrder.compare(element(i), element(child)) <= 0) {
+                return;
+            }
+            Object t = heap[i];
+            heap[i] = heap[child];
+            heap[child] = t;
+            i = child;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(Arrays.copyOf(heap, size));
+    }
+}
@@ -0,0 +1,213 @@
+package streams.concurrent;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * map() für blockierende Aufrufe (Datenbank, HTTP, Dateien): jedes Element wird in einem eigenen Thread
+ * abgebildet, höchstens maxInFlight gleichzeitig.
+ *
+ * parallel() hilft hier wenig: der Common Pool hat nur so viele Threads wie Prozessoren, ein blockierter Aufruf
+ * belegt einen davon. Mit
+ * <pre>
+ *   try (Stream&lt;Address&gt; addresses = ConcurrentMapper.mapConcurrent(ids.stream(), 1000, service::lookup)) {
+ *       ...
+ *   }
+ * </pre>
+ * warten bis zu 1000 Aufrufe gleichzeitig. Ab Java 21 laufen sie in virtuellen Threads (ein blockierter
+ * virtueller Thread belegt keinen Betriebssystem-Thread); auf älteren JVMs in einem Pool aus höchstens
+ * {@link #PLATFORM_THREADS} gewöhnlichen Threads, was die Anzahl gleichzeitiger Aufrufe entsprechend begrenzt.
+ *
+ * Die Quelle wird nur so weit gelesen, wie Aufrufe gestartet werden. Wirft mapper eine Exception, werden die
+ * übrigen Aufrufe abgebrochen und die Exception im Thread des Streams geworfen (geprüfte Exceptions verpackt in
+ * eine CompletionException). Wird der Stream nicht vollständig verarbeitet (z.B. findFirst), sollte er mit
+ * close() geschlossen werden, damit noch laufende Aufrufe abgebrochen werden.
+ */
+public final class ConcurrentMapper {
+
+    /** Anzahl der Threads je Stream, wenn es keine virtuellen Threads gibt */
+    public static final int PLATFORM_THREADS = 256;
+
+    private static final Method NEW_VIRTUAL_THREAD_EXECUTOR = findVirtualThreadExecutor();
+
+    private ConcurrentMapper() {
+    }
+
+    /** mapper(t) für jedes Element von source, höchstens maxInFlight gleichzeitig; Reihenfolge wie in source */
+    public static <T, R> Stream<R> mapConcurrent(Stream<T> source, int maxInFlight,
+                                                 Function<? super T, ? extends R> mapper) {
+        return mapConcurrent(source, maxInFlight, true, mapper);
+    }
+
+    /**
+     * Wie {@link #mapConcurrent(Stream, int, Function)}, aber die Ergebnisse kommen in der Reihenfolge, in der die
+     * Aufrufe fertig werden. Ein langsamer Aufruf hält so die folgenden Ergebnisse nicht auf.
+     */
+    public static <T, R> Stream<R> mapConcurrentUnordered(Stream<T> source, int maxInFlight,
+                                                          Function<? super T, ? extends R> mapper) {
+        return mapConcurrent(source, maxInFlight, false, mapper);
+    }
+
+    private static <T, R> Stream<R> mapConcurrent(Stream<T> source, int maxInFlight, boolean ordered,
+                                                  Function<? super T, ? extends R> mapper) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        }
+        MappingSpliterator<T, R> spliterator = new MappingSpliterator<>(source.spliterator(), maxInFlight, ordered, mapper);
+        return StreamSupport.stream(spliterator, false)
+            .onClose(spliterator::cancel)
+            .onClose(source::close);
+    }
+
+    /** true, wenn diese JVM virtuelle Threads hat (ab Java 21) */
+    public static boolean virtualThreadsAvailable() {
+        return NEW_VIRTUAL_THREAD_EXECUTOR != null;
+    }
+
+    private static Method findVirtualThreadExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            // in Java 19 und 20 nur mit --enable-preview, sonst UnsupportedOperationException
+            ((ExecutorService) method.invoke(null)).shutdown();
+            return method;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static ExecutorService newExecutor(int maxInFlight) {
+        if (NEW_VIRTUAL_THREAD_EXECUTOR != null) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_THREAD_EXECUTOR.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        int threads = Math.min(maxInFlight, PLATFORM_THREADS);
+        ThreadFactory factory = task -> {
+            Thread thread = new Thread(task, "mapConcurrent");
+            thread.setDaemon(true);
+            return thread;
+        };
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), factory);
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * Startet vor jedem Element so viele Aufrufe, dass maxInFlight laufen, und wartet dann auf das älteste
+     * (ordered) bzw. irgendein fertiges Ergebnis.
+     */
+    private static final class MappingSpliterator<T, R> extends Spliterators.AbstractSpliterator<R> {
+        private final Spliterator<T> source;
+        private final int maxInFlight;
+        private final boolean ordered;
+        private final Function<? super T, ? extends R> mapper;
+        private final Set<Future<R>> inFlight = new LinkedHashSet<>();    // in der Reihenfolge der Quelle
+        private final LinkedBlockingQueue<Future<R>> completed = new LinkedBlockingQueue<>();
+        private ExecutorService executor;
+        private boolean sourceExhausted;
+
+        MappingSpliterator(Spliterator<T> source, int maxInFlight, boolean ordered,
+                           Function<? super T, ? extends R> mapper) {
+            super(source.estimateSize(), ordered ? ORDERED : 0);
+            this.source = source;
+            this.maxInFlight = maxInFlight;
+            this.ordered = ordered;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super R> action) {
+            fill();
+            if (inFlight.isEmpty()) {
+                cancel();
+                return false;
+            }
+            try {
+                Future<R> next = ordered ? inFlight.iterator().next() : completed.take();
+                R result = next.get();
+                inFlight.remove(next);
+                action.accept(result);
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel();
+                throw new CompletionException(e);
+            } catch (ExecutionException e) {
+                cancel();
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new CompletionException(cause);
+            } catch (CancellationException e) {
+                cancel();
+                throw e;
+            }
+        }
+
+        private void fill() {
+            while (!sourceExhausted && inFlight.size() < maxInFlight) {
+                sourceExhausted = !source.tryAdvance(this::submit);
+            }
+        }
+
+        private void submit(T element) {
+            if (executor == null) {
+                executor = newExecutor(maxInFlight);
+            }
+            Task task = new Task(element);
+            inFlight.add(task);
+            executor.execute(task);
+        }
+
+        /** meldet sich nach dem Aufruf (auch bei einer Exception) in completed als abholbereit */
+        private final class Task extends FutureTask<R> {
+            Task(T element) {
+                super(() -> mapper.apply(element));
+            }
+
+            @Override
+            protected void done() {
+                if (!ordered) {
+                    completed.add(this);
+                }
+            }
+        }
+
+        /** bricht alle laufenden Aufrufe ab und gibt die Threads frei */
+        void cancel() {
+            for (Future<R> future : inFlight) {
+                future.cancel(true);
+            }
+            inFlight.clear();
+            sourceExhausted = true;
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+    }
+}
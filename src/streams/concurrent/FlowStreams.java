@@ -0,0 +1,349 @@
+package streams.concurrent;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Verbindet Streams mit {@link Flow} (Reactive Streams): Elemente, die laufend von einem Produzenten kommen,
+ * lassen sich als Stream verarbeiten, und ein Stream lässt sich an einen Flow.Subscriber liefern - in beiden
+ * Richtungen mit Backpressure, also ohne unbeschränkten Puffer.
+ *
+ * <pre>
+ *   try (Stream&lt;String&gt; events = FlowStreams.toStream(publisher, 256)) {
+ *       Windows.batch(events, 10_000).forEach(window -&gt; ...window.stream().collect(...));
+ *   }
+ * </pre>
+ * Der Stream fordert vom Publisher höchstens bufferSize Elemente im Voraus an und erst wieder neue, wenn die
+ * Hälfte davon verarbeitet ist. Ist der Stream langsamer als der Produzent, wartet der Produzent (z.B. blockiert
+ * {@link java.util.concurrent.SubmissionPublisher#submit}). Wird der Stream nicht bis zum Ende gelesen (limit,
+ * findFirst, ein unendlicher Feed), sollte er mit close() geschlossen werden: das kündigt das Abonnement.
+ */
+public final class FlowStreams {
+
+    /** Puffergröße, wenn keine angegeben ist (wie bei SubmissionPublisher) */
+    public static final int DEFAULT_BUFFER_SIZE = Flow.defaultBufferSize();
+
+    private FlowStreams() {
+    }
+
+    public static <T> Stream<T> toStream(Flow.Publisher<? extends T> publisher) {
+        return toStream(publisher, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Die Elemente von publisher als (sequenzieller) Stream. Abonniert wird erst, wenn der Stream zu lesen beginnt;
+     * ein Fehler des Publishers (onError) wird im Thread des Streams geworfen (geprüfte Exceptions verpackt in
+     * eine CompletionException).
+     */
+    public static <T> Stream<T> toStream(Flow.Publisher<? extends T> publisher, int bufferSize) {
+        Objects.requireNonNull(publisher, "publisher");
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("bufferSize must be positive: " + bufferSize);
+        }
+        SubscribingSpliterator<T> spliterator = new SubscribingSpliterator<>(publisher, bufferSize);
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::cancel);
+    }
+
+    /**
+     * Ein Publisher für genau einen Subscriber, der die Elemente von stream liefert, so viele wie angefordert.
+     * Geliefert wird im Thread, der request aufruft; am Ende (auch bei cancel) wird stream geschlossen.
+     */
+    public static <T> Flow.Publisher<T> toPublisher(Stream<? extends T> stream) {
+        return new StreamPublisher<>(stream, null);
+    }
+
+    /** wie {@link #toPublisher(Stream)}, geliefert wird aber in executor */
+    public static <T> Flow.Publisher<T> toPublisher(Stream<? extends T> stream, Executor executor) {
+        return new StreamPublisher<>(stream, Objects.requireNonNull(executor, "executor"));
+    }
+
+    /** liefert die Elemente von stream an subscriber, so schnell, wie subscriber sie anfordert */
+    public static <T> void subscribe(Stream<? extends T> stream, Flow.Subscriber<? super T> subscriber) {
+        toPublisher(stream).subscribe(subscriber);
+    }
+
+    /** Ende (onComplete) bzw. Fehler (onError) in der Warteschlange */
+    private static final class Terminal {
+        static final Terminal COMPLETE = new Terminal(null);
+
+        final Throwable error;
+
+        Terminal(Throwable error) {
+            this.error = error;
+        }
+    }
+
+    /** abonniert beim ersten tryAdvance und fordert nach je bufferSize / 2 verarbeiteten Elementen neue an */
+    private static final class SubscribingSpliterator<T> extends Spliterators.AbstractSpliterator<T>
+            implements Flow.Subscriber<T> {
+        private final Flow.Publisher<? extends T> publisher;
+        private final int bufferSize;
+        private final int batch;
+        // höchstens bufferSize Elemente (mehr werden nie angefordert) und ein Terminal
+        private final BlockingQueue<Object> queue;
+        private final AtomicReference<Flow.Subscription> subscription = new AtomicReference<>();
+        private volatile boolean cancelled;
+        private volatile boolean terminated;
+        private boolean subscribed;
+        private boolean done;
+        private int consumed;
+
+        SubscribingSpliterator(Flow.Publisher<? extends T> publisher, int bufferSize) {
+            super(Long.MAX_VALUE, ORDERED | NONNULL);
+            this.publisher = publisher;
+            this.bufferSize = bufferSize;
+            this.batch = Math.max(1, bufferSize / 2);
+            this.queue = new ArrayBlockingQueue<>(bufferSize + 1);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (done) {
+                return false;
+            }
+            if (!subscribed) {
+                subscribed = true;
+                publisher.subscribe(this);
+            }
+            Object next;
+            try {
+                next = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel();
+                throw new CompletionException(e);
+            }
+            if (next instanceof Terminal) {
+                done = true;
+                Throwable error = ((Terminal) next).error;
+                if (error == null) {
+                    return false;
+                }
+                if (error instanceof RuntimeException) {
+                    throw (RuntimeException) error;
+                }
+                if (error instanceof Error) {
+                    throw (Error) error;
+                }
+                throw new CompletionException(error);
+            }
+            if (++consumed == batch) {
+                consumed = 0;
+                subscription.get().request(batch);
+            }
+            @SuppressWarnings("unchecked")
+            T element = (T) next;
+            action.accept(element);
+            return true;
+        }
+
+        /** kündigt das Abonnement; weitere Elemente des Publishers werden verworfen */
+        void cancel() {
+            cancelled = true;
+            done = true;
+            Flow.Subscription s = subscription.get();
+            if (s != null) {
+                s.cancel();
+            }
+            queue.clear();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription s) {
+            Objects.requireNonNull(s, "subscription");
+            if (!subscription.compareAndSet(null, s)) {
+                s.cancel();     // nur ein Abonnement je Stream
+                return;
+            }
+            if (cancelled) {
+                s.cancel();
+            } else {
+                s.request(bufferSize);
+            }
+        }
+
+        @Override
+        public void onNext(T item) {
+            Objects.requireNonNull(item, "item");
+            if (terminated || cancelled) {
+                return;
+            }
+            if (!queue.offer(item)) {
+                // der Publisher hat mehr geliefert als angefordert
+                terminated = true;
+                subscription.get().cancel();
+                queue.clear();
+                queue.offer(new Terminal(new IllegalStateException(
+                    "publisher delivered more than the " + bufferSize + " requested items")));
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            Objects.requireNonNull(error, "error");
+            terminate(new Terminal(error));
+        }
+
+        @Override
+        public void onComplete() {
+            terminate(Terminal.COMPLETE);
+        }
+
+        private void terminate(Terminal terminal) {
+            if (!terminated && !cancelled) {
+                terminated = true;
+                queue.offer(terminal);
+            }
+        }
+    }
+
+    /** liefert einen Stream an einen Subscriber */
+    private static final class StreamPublisher<T> implements Flow.Publisher<T> {
+        private final Stream<? extends T> stream;
+        private final Executor executor;
+        private final AtomicBoolean subscribed = new AtomicBoolean();
+
+        StreamPublisher(Stream<? extends T> stream, Executor executor) {
+            this.stream = Objects.requireNonNull(stream, "stream");
+            this.executor = executor;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super T> subscriber) {
+            Objects.requireNonNull(subscriber, "subscriber");
+            if (!subscribed.compareAndSet(false, true)) {
+                subscriber.onSubscribe(new Flow.Subscription() {
+                    @Override
+                    public void request(long n) {
+                    }
+
+                    @Override
+                    public void cancel() {
+                    }
+                });
+                subscriber.onError(new IllegalStateException("stream publisher allows only one subscriber"));
+                return;
+            }
+            StreamSubscription<T> subscription = new StreamSubscription<>(stream, subscriber, executor);
+            subscriber.onSubscribe(subscription);
+        }
+    }
+
+    /**
+     * Liefert bei jedem request so viele Elemente, wie angefordert sind. Nur ein Thread liefert zur selben Zeit
+     * (wip zählt die Aufträge); ruft der Subscriber in onNext request auf, liefert dieselbe Schleife weiter.
+     */
+    private static final class StreamSubscription<T> implements Flow.Subscription {
+        private final Stream<? extends T> stream;
+        private final Flow.Subscriber<? super T> subscriber;
+        private final Executor executor;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+        private Spliterator<? extends T> source;
+        private boolean finished;
+
+        StreamSubscription(Stream<? extends T> stream, Flow.Subscriber<? super T> subscriber, Executor executor) {
+            this.stream = stream;
+            this.subscriber = subscriber;
+            this.executor = executor;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("request must be positive: " + n);
+            } else {
+                demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            if (executor == null) {
+                run();
+                return;
+            }
+            try {
+                executor.execute(this::run);
+            } catch (RejectedExecutionException e) {
+                finish();
+                subscriber.onError(e);
+            }
+        }
+
+        private void run() {
+            int missed = 1;
+            do {
+                if (!finished) {
+                    emit();
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void emit() {
+            if (invalidRequest != null) {
+                finish();
+                subscriber.onError(invalidRequest);
+                return;
+            }
+            long requested = demand.get();
+            long emitted = 0;
+            while (emitted < requested && !cancelled) {
+                boolean more;
+                try {
+                    if (source == null) {
+                        source = stream.spliterator();
+                    }
+                    more = source.tryAdvance(subscriber::onNext);
+                } catch (RuntimeException | Error e) {
+                    finish();
+                    subscriber.onError(e);
+                    return;
+                }
+                if (!more) {
+                    finish();
+                    subscriber.onComplete();
+                    return;
+                }
+                emitted++;
+            }
+            if (cancelled) {
+                finish();
+            } else if (emitted > 0 && requested != Long.MAX_VALUE) {
+                demand.addAndGet(-emitted);
+            }
+        }
+
+        private void finish() {
+            finished = true;
+            cancelled = true;
+            stream.close();
+        }
+    }
+}
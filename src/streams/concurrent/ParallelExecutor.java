@@ -0,0 +1,533 @@
+package streams.concurrent;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Führt parallele Streams in einem eigenen ForkJoinPool aus, mit einstellbarer Parallelität und Mindestgröße der
+ * Teile, und entscheidet anhand gemessener Laufzeiten, ob sich parallel überhaupt lohnt.
+ *
+ * parallel() rechnet immer im Common Pool (und konkurriert dort mit allem anderen, das ihn verwendet) und teilt
+ * die Quelle bis in sehr kleine Stücke. Mit
+ * <pre>
+ *   ParallelExecutor executor = ParallelExecutor.builder().parallelism(4).minChunkSize(10_000).build();
+ *   long small = executor.run("small", Arrays.stream(a), s -&gt; s.filter(n -&gt; n &lt; 10).count());
+ * </pre>
+ * läuft die Pipeline in den Threads des Executors, und kein Teil wird kleiner als minChunkSize Elemente. Teile
+ * sind immer zusammenhängende Abschnitte der Quelle (bei Arrays also zusammenhängender Speicher).
+ *
+ * Quellen mit weniger als sequentialThreshold Elementen laufen sequentiell im aufrufenden Thread. Darüber misst
+ * der Executor je Pipeline (label) und Größenordnung der Quelle (Zweierpotenz) die Zeit je Element sequentiell
+ * und parallel, wählt danach die schnellere Variante und prüft jeden {@link #PROBE_INTERVAL}-ten Lauf die andere
+ * erneut. {@link #report()} zeigt die gemessenen Beschleunigungen.
+ *
+ * Der Executor hält Threads; er sollte mit close() beendet werden.
+ */
+public final class ParallelExecutor implements AutoCloseable {
+
+    /** jeder wievielte Lauf je Größenordnung die nicht gewählte Variante misst */
+    public static final int PROBE_INTERVAL = 16;
+
+    /** Gewicht eines neuen Messwerts im gleitenden Mittel */
+    private static final double SMOOTHING = 0.25;
+
+    /** {@link Measurement#getMinSize()} für Quellen unbekannter Größe; gemessen wird dort die Zeit je Lauf */
+    public static final long UNKNOWN_SIZE = 1L << 62;
+
+    private static final AtomicInteger POOLS = new AtomicInteger();
+
+    private final ForkJoinPool pool;
+    private final int minChunkSize;
+    private final long sequentialThreshold;
+    private final Map<String, Profile> profiles = new ConcurrentHashMap<>();
+
+    private ParallelExecutor(Builder builder) {
+        int id = POOLS.incrementAndGet();
+        AtomicInteger threads = new AtomicInteger();
+        this.pool = new ForkJoinPool(builder.parallelism, p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("parallel-executor-" + id + "-" + threads.incrementAndGet());
+            return thread;
+        }, null, false);
+        this.minChunkSize = builder.minChunkSize;
+        this.sequentialThreshold = builder.sequentialThreshold >= 0 ? builder.sequentialThreshold : 2L * minChunkSize;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * pipeline(source) - parallel im Pool oder sequentiell, je nach Größe und Messungen. pipeline sollte die
+     * Operationen an den übergebenen Stream anhängen und ihn nicht selbst sequential() oder parallel() schalten.
+     * Die Messungen werden unter label zusammengefasst, also je Pipeline ein eigenes label verwenden.
+     */
+    public <T, R> R run(String label, Stream<T> source, Function<? super Stream<T>, ? extends R> pipeline) {
+        Spliterator<T> spliterator = source.spliterator();
+        long size = spliterator.estimateSize();
+        SizeClass sizeClass = sizeClass(label, size);
+        boolean parallel = sizeClass != null && sizeClass.nextRunParallel();
+        Stream<T> stream = parallel
+            ? StreamSupport.stream(new ChunkedSpliterator<>(spliterator, minChunkSize), true)
+            : StreamSupport.stream(spliterator, false);
+        stream = stream.onClose(source::close);
+        if (sizeClass == null) {
+            // kleine Quellen rufen pipeline direkt auf: jede Aufrufebene weniger lässt dem JIT mehr Spielraum zum
+            // Inlining
+            return pipeline.apply(stream);
+        }
+        return measure(sizeClass, parallel, size, stream, pipeline);
+    }
+
+    public <R> R run(String label, IntStream source, Function<? super IntStream, ? extends R> pipeline) {
+        Spliterator.OfInt spliterator = source.spliterator();
+        long size = spliterator.estimateSize();
+        SizeClass sizeClass = sizeClass(label, size);
+        boolean parallel = sizeClass != null && sizeClass.nextRunParallel();
+        IntStream stream = parallel
+            ? StreamSupport.intStream(new ChunkedIntSpliterator(spliterator, minChunkSize), true)
+            : StreamSupport.intStream(spliterator, false);
+        stream = stream.onClose(source::close);
+        if (sizeClass == null) {
+            return pipeline.apply(stream);
+        }
+        return measure(sizeClass, parallel, size, stream, pipeline);
+    }
+
+    public <R> R run(String label, LongStream source, Function<? super LongStream, ? extends R> pipeline) {
+        Spliterator.OfLong spliterator = source.spliterator();
+        long size = spliterator.estimateSize();
+        SizeClass sizeClass = sizeClass(label, size);
+        boolean parallel = sizeClass != null && sizeClass.nextRunParallel();
+        LongStream stream = parallel
+            ? StreamSupport.longStream(new ChunkedLongSpliterator(spliterator, minChunkSize), true)
+            : StreamSupport.longStream(spliterator, false);
+        stream = stream.onClose(source::close);
+        if (sizeClass == null) {
+            return pipeline.apply(stream);
+        }
+        return measure(sizeClass, parallel, size, stream, pipeline);
+    }
+
+    /** die Messungen für label und size; null, wenn die Quelle immer sequentiell läuft */
+    private SizeClass sizeClass(String label, long size) {
+        Objects.requireNonNull(label, "label");
+        return size < sequentialThreshold ? null : profiles.computeIfAbsent(label, l -> new Profile()).sizeClass(size);
+    }
+
+    private <S, R> R measure(SizeClass sizeClass, boolean parallel, long size, S stream,
+                             Function<? super S, ? extends R> pipeline) {
+        long start = System.nanoTime();
+        R result = parallel ? inPool(() -> pipeline.apply(stream)) : pipeline.apply(stream);
+        sizeClass.record(parallel, System.nanoTime() - start, size);
+        return result;
+    }
+
+    /** führt task in einem Thread des Pools aus und wirft dessen Exception unverändert weiter */
+    private <R> R inPool(Callable<R> task) {
+        Thread current = Thread.currentThread();
+        if (current instanceof ForkJoinWorkerThread && ((ForkJoinWorkerThread) current).getPool() == pool) {
+            try {
+                return task.call();     // verschachtelter Aufruf: läuft schon im Pool
+            } catch (Exception e) {
+                throw e instanceof RuntimeException ? (RuntimeException) e : new CompletionException(e);
+            }
+        }
+        try {
+            return pool.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+
+    /** Anzahl der Threads im Pool */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    public int getMinChunkSize() {
+        return minChunkSize;
+    }
+
+    public long getSequentialThreshold() {
+        return sequentialThreshold;
+    }
+
+    /** die Messungen je Pipeline und Größenordnung */
+    public List<Measurement> measurements() {
+        List<Measurement> result = new ArrayList<>();
+        profiles.forEach((label, profile) -> profile.addMeasurements(label, result));
+        result.sort(Comparator.comparing(Measurement::getLabel).thenComparingLong(Measurement::getMinSize));
+        return result;
+    }
+
+    /** die Messungen als Tabelle */
+    public String report() {
+        StringBuilder builder = new StringBuilder("ParallelExecutor (parallelism ").append(getParallelism())
+            .append(", minChunkSize ").append(minChunkSize).append(")\n");
+        builder.append(String.format("  %-16s %12s %8s %8s %14s %14s %4s %8s %9s%n",
+            "pipeline", "size >=", "seq", "par", "ns seq", "ns par", "per", "speedup", "choice"));
+        for (Measurement m : measurements()) {
+            boolean unknownSize = m.getMinSize() == UNKNOWN_SIZE;
+            builder.append(String.format("  %-16s %12s %8d %8d %14.2f %14.2f %4s %8.2f %9s%n",
+                m.getLabel(), unknownSize ? "unknown" : m.getMinSize(),
+                m.getSequentialRuns(), m.getParallelRuns(),
+                m.getSequentialNanosPerElement(), m.getParallelNanosPerElement(), unknownSize ? "run" : "el",
+                m.getSpeedup(), m.isParallel() ? "parallel" : "seq"));
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return report();
+    }
+
+    public static final class Builder {
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private int minChunkSize = 1 << 12;
+        private long sequentialThreshold = -1;
+
+        private Builder() {
+        }
+
+        /** Anzahl der Threads (Standard: Anzahl der Prozessoren) */
+        public Builder parallelism(int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /** kleinste Anzahl von Elementen je Teil (Standard: 4096) */
+        public Builder minChunkSize(int minChunkSize) {
+            if (minChunkSize < 1) {
+                throw new IllegalArgumentException("minChunkSize must be positive: " + minChunkSize);
+            }
+            this.minChunkSize = minChunkSize;
+            return this;
+        }
+
+        /** Quellen mit weniger Elementen laufen immer sequentiell (Standard: 2 * minChunkSize) */
+        public Builder sequentialThreshold(long sequentialThreshold) {
+            if (sequentialThreshold < 0) {
+                throw new IllegalArgumentException("sequentialThreshold must not be negative: " + sequentialThreshold);
+            }
+            this.sequentialThreshold = sequentialThreshold;
+            return this;
+        }
+
+        public ParallelExecutor build() {
+            return new ParallelExecutor(this);
+        }
+    }
+
+    /** Messungen einer Pipeline, je Größenordnung der Quelle (Quellen unbekannter Größe unter UNKNOWN_SIZE) */
+    private static final class Profile {
+        private final SizeClass[] sizeClasses = new SizeClass[64];
+
+        synchronized SizeClass sizeClass(long size) {
+            int log = 63 - Long.numberOfLeadingZeros(Math.max(1, Math.min(size, UNKNOWN_SIZE)));
+            if (sizeClasses[log] == null) {
+                sizeClasses[log] = new SizeClass(1L << log);
+            }
+            return sizeClasses[log];
+        }
+
+        synchronized void addMeasurements(String label, List<Measurement> result) {
+            for (SizeClass sizeClass : sizeClasses) {
+                if (sizeClass != null) {
+                    result.add(sizeClass.measurement(label));
+                }
+            }
+        }
+    }
+
+    /**
+     * gleitende Mittel der Zeit je Element, sequentiell und parallel, für Quellen ab minSize Elementen; für
+     * Quellen unbekannter Größe (minSize == UNKNOWN_SIZE) der Zeit je Lauf
+     */
+    private static final class SizeClass {
+        private final long minSize;
+        private long sequentialRuns;
+        private long parallelRuns;
+        private double sequentialNanos = Double.NaN;
+        private double parallelNanos = Double.NaN;
+
+        SizeClass(long minSize) {
+            this.minSize = minSize;
+        }
+
+        /** zuerst je einmal beide Varianten, danach die schnellere und gelegentlich die andere */
+        synchronized boolean nextRunParallel() {
+            if (parallelRuns == 0) {
+                return true;
+            }
+            if (sequentialRuns == 0) {
+                return false;
+            }
+            boolean parallel = parallelFaster();
+            return (sequentialRuns + parallelRuns) % PROBE_INTERVAL == 0 ? !parallel : parallel;
+        }
+
+        synchronized void record(boolean parallel, long nanos, long size) {
+            // unbekannte Größe: die Zeit je Lauf, denn estimateSize() ist dort Long.MAX_VALUE und je Element fast 0
+            double value = minSize == UNKNOWN_SIZE ? nanos : (double) nanos / Math.max(1, size);
+            // der erste Lauf enthält oft noch Klassenladen und JIT, er zählt nicht
+            if (parallel) {
+                parallelNanos = parallelRuns++ <= 1 ? value : smooth(parallelNanos, value);
+            } else {
+                sequentialNanos = sequentialRuns++ <= 1 ? value : smooth(sequentialNanos, value);
+            }
+        }
+
+        private boolean parallelFaster() {
+            return parallelNanos < sequentialNanos;
+        }
+
+        synchronized Measurement measurement(String label) {
+            return new Measurement(label, minSize, sequentialRuns, parallelRuns, sequentialNanos, parallelNanos,
+                sequentialRuns > 0 && parallelRuns > 0 && parallelFaster());
+        }
+
+        private static double smooth(double average, double value) {
+            return average + SMOOTHING * (value - average);
+        }
+    }
+
+    /** gemessene Zeiten einer Pipeline für Quellen ab {@link #getMinSize()} Elementen */
+    public static final class Measurement {
+        private final String label;
+        private final long minSize;
+        private final long sequentialRuns;
+        private final long parallelRuns;
+        private final double sequentialNanosPerElement;
+        private final double parallelNanosPerElement;
+        private final boolean parallel;
+
+        Measurement(String label, long minSize, long sequentialRuns, long parallelRuns,
+                    double sequentialNanosPerElement, double parallelNanosPerElement, boolean parallel) {
+            this.label = label;
+            this.minSize = minSize;
+            this.sequentialRuns = sequentialRuns;
+            this.parallelRuns = parallelRuns;
+            this.sequentialNanosPerElement = sequentialNanosPerElement;
+            this.parallelNanosPerElement = parallelNanosPerElement;
+            this.parallel = parallel;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        /** Quellen mit minSize bis 2 * minSize - 1 Elementen */
+        public long getMinSize() {
+            return minSize;
+        }
+
+        public long getSequentialRuns() {
+            return sequentialRuns;
+        }
+
+        public long getParallelRuns() {
+            return parallelRuns;
+        }
+
+        /**
+         * NaN, solange es keinen sequentiellen Lauf gab; bei {@link #UNKNOWN_SIZE} die Zeit je Lauf statt je
+         * Element
+         */
+        public double getSequentialNanosPerElement() {
+            return sequentialNanosPerElement;
+        }
+
+        /** wie {@link #getSequentialNanosPerElement()}, für parallele Läufe */
+        public double getParallelNanosPerElement() {
+            return parallelNanosPerElement;
+        }
+
+        /** sequentielle durch parallele Zeit: über 1, wenn parallel schneller ist */
+        public double getSpeedup() {
+            return sequentialNanosPerElement / parallelNanosPerElement;
+        }
+
+        /** true, wenn für diese Größe parallel gewählt wird */
+        public boolean isParallel() {
+            return parallel;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s[size >= %d, speedup %.2f, %s]", label, minSize, getSpeedup(),
+                parallel ? "parallel" : "sequential");
+        }
+    }
+
+    /** teilt nur, solange beide Teile mindestens minChunkSize Elemente haben können */
+    private static final class ChunkedSpliterator<T> implements Spliterator<T> {
+        private final Spliterator<T> source;
+        private final int minChunkSize;
+
+        ChunkedSpliterator(Spliterator<T> source, int minChunkSize) {
+            this.source = source;
+            this.minChunkSize = minChunkSize;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            return source.tryAdvance(action);
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            source.forEachRemaining(action);
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            if (source.estimateSize() < 2L * minChunkSize) {
+                return null;
+            }
+            Spliterator<T> prefix = source.trySplit();
+            return prefix == null ? null : new ChunkedSpliterator<>(prefix, minChunkSize);
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics();
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            return source.getComparator();
+        }
+    }
+
+    private static final class ChunkedIntSpliterator implements Spliterator.OfInt {
+        private final Spliterator.OfInt source;
+        private final int minChunkSize;
+
+        ChunkedIntSpliterator(Spliterator.OfInt source, int minChunkSize) {
+            this.source = source;
+            this.minChunkSize = minChunkSize;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            return source.tryAdvance(action);
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            source.forEachRemaining(action);
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            if (source.estimateSize() < 2L * minChunkSize) {
+                return null;
+            }
+            Spliterator.OfInt prefix = source.trySplit();
+            return prefix == null ? null : new ChunkedIntSpliterator(prefix, minChunkSize);
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics();
+        }
+
+        @Override
+        public Comparator<? super Integer> getComparator() {
+            return source.getComparator();
+        }
+    }
+
+    private static final class ChunkedLongSpliterator implements Spliterator.OfLong {
+        private final Spliterator.OfLong source;
+        private final int minChunkSize;
+
+        ChunkedLongSpliterator(Spliterator.OfLong source, int minChunkSize) {
+            this.source = source;
+            this.minChunkSize = minChunkSize;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            return source.tryAdvance(action);
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            source.forEachRemaining(action);
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            if (source.estimateSize() < 2L * minChunkSize) {
+                return null;
+            }
+            Spliterator.OfLong prefix = source.trySplit();
+            return prefix == null ? null : new ChunkedLongSpliterator(prefix, minChunkSize);
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics();
+        }
+
+        @Override
+        public Comparator<? super Long> getComparator() {
+            return source.getComparator();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package streams.io;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Liest, was ein {@link BinaryWriter} geschrieben hat, entweder aus einem Channel (über einen Puffer, der bei
+ * Bedarf nachgeladen wird) oder direkt aus einer memory-mapped Datei ({@link #map(Path)}): dann wird nichts
+ * kopiert, das Betriebssystem lädt die Seiten der Datei erst, wenn sie gelesen werden.
+ */
+public final class BinaryReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final ReadableByteChannel channel;  // null, wenn buffer schon alle Daten enthält
+    private final ByteBuffer buffer;
+    private boolean endOfChannel;
+
+    private BinaryReader(ReadableByteChannel channel, ByteBuffer buffer) {
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    /** liest aus channel; close() schließt auch channel */
+    public static BinaryReader of(ReadableByteChannel channel) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        buffer.flip();
+        return new BinaryReader(channel, buffer);
+    }
+
+    /** liest die Bytes von buffer (ab position bis limit) */
+    public static BinaryReader of(ByteBuffer buffer) {
+        return new BinaryReader(null, buffer);
+    }
+
+    /**
+     * Liest die Datei file über ein MappedByteBuffer (höchstens 2 GB). Die Abbildung bleibt bestehen, bis das
+     * MappedByteBuffer vom Garbage Collector freigegeben wird.
+     */
+    public static BinaryReader map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("file too large to be mapped: " + file);
+            }
+            return new BinaryReader(null, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /** true, wenn noch mindestens ein Byte gelesen werden kann */
+    public boolean hasRemaining() throws IOException {
+        return buffer.hasRemaining() || fill();
+    }
+
+    public int readInt() throws IOException {
+        require(Integer.BYTES);
+        return buffer.getInt();
+    }
+
+    public byte readByte() throws IOException {
+        if (!buffer.hasRemaining()) {
+            require(1);
+        }
+        return buffer.get();
+    }
+
+    public long readVarLong() throws IOException {
+        return Encodings.readVarLong(this::readByte);
+    }
+
+    /** ein Varint, der in ein int passen muss */
+    public int readVarInt() throws IOException {
+        long value = readVarLong();
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IOException("varint out of int range: " + value);
+        }
+        return (int) value;
+    }
+
+    /** Gegenstück zu {@link BinaryWriter#writeSignedVarLong(long)} */
+    public long readSignedVarLong() throws IOException {
+        return Encodings.unZigZag(readVarLong());
+    }
+
+    public String readString() throws IOException {
+        return new String(readBytes(readVarInt()), StandardCharsets.UTF_8);
+    }
+
+    public byte[] readBytes(int length) throws IOException {
+        byte[] bytes = new byte[length];
+        int offset = 0;
+        while (offset < length) {
+            if (!buffer.hasRemaining()) {
+                require(1);
+            }
+            int n = Math.min(buffer.remaining(), length - offset);
+            buffer.get(bytes, offset, n);
+            offset += n;
+        }
+        return bytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    /** stellt sicher, dass bytes Bytes im Puffer stehen */
+    private void require(int bytes) throws IOException {
+        while (buffer.remaining() < bytes) {
+            if (!fill()) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    /** lädt aus dem Channel nach; false am Ende der Daten */
+    private boolean fill() throws IOException {
+        if (channel == null || endOfChannel) {
+            return false;
+        }
+        buffer.compact();
+        int read;
+        do {
+            read = channel.read(buffer);
+        } while (read == 0);
+        buffer.flip();
+        if (read < 0) {
+            endOfChannel = true;
+            return false;
+        }
+        return true;
+    }
+}
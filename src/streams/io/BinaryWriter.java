@@ -0,0 +1,108 @@
+package streams.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Schreibt Zahlen und Strings kompakt in einen Channel: ganze Zahlen als Varint (7 Bit je Byte, kleine Zahlen
+ * brauchen also nur ein Byte), Strings als Länge und UTF-8-Bytes. Gegenstück: {@link BinaryReader}.
+ *
+ * Geschrieben wird über einen Puffer, der voll (und bei flush/close) in den Channel geschrieben wird. Varints
+ * werden direkt in das Array des Puffers kodiert, nicht Byte für Byte über put().
+ */
+public final class BinaryWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    private BinaryWriter(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    /** schreibt in channel; close() schließt auch channel */
+    public static BinaryWriter of(WritableByteChannel channel) {
+        return new BinaryWriter(channel);
+    }
+
+    /** schreibt in die Datei file (wird angelegt oder überschrieben) */
+    public static BinaryWriter create(Path file) throws IOException {
+        return new BinaryWriter(FileChannel.open(file,
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+    }
+
+    public void writeInt(int value) throws IOException {
+        require(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    public void writeByte(int value) throws IOException {
+        require(1);
+        buffer.put((byte) value);
+    }
+
+    /** value als Varint; für negative Zahlen besser {@link #writeSignedVarLong(long)} */
+    public void writeVarLong(long value) throws IOException {
+        require(Encodings.MAX_VAR_LONG_BYTES);
+        buffer.position(Encodings.putVarLong(buffer.array(), buffer.position(), value));
+    }
+
+    /** value als Varint; kleine negative Zahlen brauchen ebenso wenige Bytes wie kleine positive (ZigZag) */
+    public void writeSignedVarLong(long value) throws IOException {
+        writeVarLong(Encodings.zigZag(value));
+    }
+
+    /** Länge (Varint) und UTF-8-Bytes von value */
+    public void writeString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length);
+        writeBytes(bytes);
+    }
+
+    public void writeBytes(byte[] bytes) throws IOException {
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (!buffer.hasRemaining()) {
+                flushBuffer();
+            }
+            int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    /** schreibt den Puffer in den Channel */
+    public void flush() throws IOException {
+        flushBuffer();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBuffer();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void require(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,98 @@
+package streams.io;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Die Bausteine der Binärformate: Varint (7 Bit je Byte, das höchste Bit zeigt an, dass noch ein Byte folgt),
+ * ZigZag für kleine negative Zahlen und der gemeinsame Anfang zweier Strings für die Präfix-Kompression sortierter
+ * Schlüssel. Verwendet von {@link BinaryWriter}/{@link BinaryReader} und den Läufen von streams.sort.ExternalSort.
+ */
+public final class Encodings {
+
+    /** so viele Bytes braucht ein Varint höchstens (64 Bit zu je 7) */
+    public static final int MAX_VAR_LONG_BYTES = 10;
+
+    /** liefert ein Byte nach dem anderen, z.B. {@code in::readByte} für ein DataInput oder einen BinaryReader */
+    @FunctionalInterface
+    public interface ByteInput {
+        byte readByte() throws IOException;
+    }
+
+    private Encodings() {
+    }
+
+    /** kleine Zahlen (auch negative) auf kleine nicht-negative abbilden: 0, -1, 1, -2, ... -&gt; 0, 1, 2, 3, ... */
+    public static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    public static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Schreibt value als Varint nach bytes[position]; liefert die Position nach dem letzten Byte. Ab position
+     * müssen {@link #MAX_VAR_LONG_BYTES} Bytes frei sein.
+     */
+    public static int putVarLong(byte[] bytes, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            bytes[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[position++] = (byte) value;
+        return position;
+    }
+
+    /** wie {@link #putVarLong}, Byte für Byte in out (ohne Hilfsarray, das je Aufruf angelegt werden müsste) */
+    public static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    /** liest einen Varint; eine IOException, wenn er länger als {@link #MAX_VAR_LONG_BYTES} Bytes ist */
+    public static long readVarLong(ByteInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("malformed varint");
+    }
+
+    /** wie {@link #readVarLong(ByteInput)}; ohne den Umweg über in::readByte, der je Aufruf ein Objekt anlegen kann */
+    public static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("malformed varint");
+    }
+
+    /**
+     * Länge des gemeinsamen Anfangs von previous und value, ohne ein Surrogat-Paar zu trennen (sonst wäre der
+     * Rest von value kein gültiges UTF-16 mehr)
+     */
+    public static int commonPrefix(String previous, String value) {
+        int max = Math.min(previous.length(), value.length());
+        int prefix = 0;
+        while (prefix < max && previous.charAt(prefix) == value.charAt(prefix)) {
+            prefix++;
+        }
+        if (prefix > 0 && Character.isHighSurrogate(value.charAt(prefix - 1))) {
+            prefix--;
+        }
+        return prefix;
+    }
+}
@@ -0,0 +1,127 @@
+package streams.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Speichert Häufigkeiten ({@code Map<String, Long>}, z.B. das Ergebnis von
+ * {@code groupingBy(word -> word, TreeMap::new, counting())}) in einem kompakten Binärformat und liest sie wieder.
+ *
+ * Jeder Schlüssel wird nur ab dem ersten Zeichen gespeichert, in dem er sich vom vorigen unterscheidet (bei
+ * einer sortierten Map teilen benachbarte Worte oft einen Anfang), die Anzahl als Varint. Die Einträge werden in
+ * der Reihenfolge der Map geschrieben und gelesen.
+ */
+public final class FrequencyCodec {
+
+    private static final int MAGIC = 0x46524551;     // "FREQ"
+    private static final int VERSION = 1;
+
+    private FrequencyCodec() {
+    }
+
+    public static void write(Map<String, Long> frequencies, Path file) throws IOException {
+        try (BinaryWriter out = BinaryWriter.create(file)) {
+            write(frequencies, out);
+        }
+    }
+
+    public static void write(Map<String, Long> frequencies, BinaryWriter out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeVarLong(frequencies.size());
+        String previous = "";
+        for (Map.Entry<String, Long> entry : frequencies.entrySet()) {
+            String key = entry.getKey();
+            int prefix = Encodings.commonPrefix(previous, key);
+            out.writeVarLong(prefix);
+            out.writeString(key.substring(prefix));
+            out.writeSignedVarLong(entry.getValue());
+            previous = key;
+        }
+    }
+
+    /** liest die Datei (memory-mapped); die Map hat die Reihenfolge, in der geschrieben wurde */
+    public static Map<String, Long> read(Path file) throws IOException {
+        return read(BinaryReader.map(file));
+    }
+
+    public static Map<String, Long> read(BinaryReader in) throws IOException {
+        Entries entries = new Entries(in);
+        Map<String, Long> frequencies = new LinkedHashMap<>((int) Math.min(Integer.MAX_VALUE, entries.remaining * 4 / 3 + 1));
+        while (entries.remaining > 0) {
+            Map.Entry<String, Long> entry = entries.next();
+            frequencies.put(entry.getKey(), entry.getValue());
+        }
+        return frequencies;
+    }
+
+    /** die Einträge der Datei, erst beim Verarbeiten des Streams gelesen */
+    public static Stream<Map.Entry<String, Long>> entries(Path file) throws IOException {
+        return entries(BinaryReader.map(file));
+    }
+
+    /** die Einträge aus in, erst beim Verarbeiten des Streams gelesen; close() des Streams schließt in */
+    public static Stream<Map.Entry<String, Long>> entries(BinaryReader in) throws IOException {
+        Entries entries = new Entries(in);
+        Spliterator<Map.Entry<String, Long>> spliterator =
+            new Spliterators.AbstractSpliterator<>(entries.remaining, Spliterator.ORDERED | Spliterator.SIZED
+                | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(Consumer<? super Map.Entry<String, Long>> action) {
+                    if (entries.remaining == 0) {
+                        return false;
+                    }
+                    try {
+                        action.accept(entries.next());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return true;
+                }
+            };
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                in.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /** liest Kopf und Einträge der Reihe nach */
+    private static final class Entries {
+        private final BinaryReader in;
+        private long remaining;
+        private String previous = "";
+
+        Entries(BinaryReader in) throws IOException {
+            this.in = in;
+            if (in.readInt() != MAGIC) {
+                throw new IOException("not a frequency file");
+            }
+            int version = in.readByte();
+            if (version != VERSION) {
+                throw new IOException("unsupported version: " + version);
+            }
+            remaining = in.readVarLong();
+        }
+
+        Map.Entry<String, Long> next() throws IOException {
+            int prefix = in.readVarInt();
+            String key = previous.substring(0, prefix).concat(in.readString());
+            long count = in.readSignedVarLong();
+            previous = key;
+            remaining--;
+            return new AbstractMap.SimpleImmutableEntry<>(key, count);
+        }
+    }
+}
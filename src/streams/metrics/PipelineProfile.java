@@ -0,0 +1,698 @@
+package streams.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Misst, wie viele Elemente die einzelnen Schritte einer Stream-Pipeline verarbeiten, wie viel Zeit und
+ * Speicher sie dabei brauchen und wie ein paralleler Stream aufgeteilt wurde.
+ *
+ * Gemessen wird dort, wo die Lambdas der Pipeline aufgerufen werden: jeder Schritt wird mit einem Namen
+ * eingewickelt.
+ * <pre>
+ *   PipelineProfile profile = PipelineProfile.create("secondExample");
+ *   int sum = profile.source("numbers", numbers.stream())
+ *       .filter(profile.filter("filter", n -&gt; n % 3 == 0 &amp;&amp; n % 7 == 0))
+ *       .sorted(profile.sorted("sorted", Comparator.reverseOrder()))
+ *       .limit(3)
+ *       .mapToInt(profile.mapToInt("mapToInt", i -&gt; i.intValue()))
+ *       .sum();
+ *   System.out.println(profile.report());
+ * </pre>
+ * {@link #create(String)} misst nur, wenn die JVM mit {@code -Dstreams.profile=true} gestartet wurde. Sonst
+ * liefern alle Methoden ihr Argument unverändert zurück, die Pipeline läuft also genau wie ohne Messung.
+ *
+ * Aufrufe und durchgelassene Elemente werden exakt gezählt. Zeit und Speicher werden nur bei etwa jedem
+ * 64. Aufruf gemessen ({@code System.nanoTime()} und {@code ThreadMXBean.getCurrentThreadAllocatedBytes()}
+ * kosten selbst mehr als ein einfaches Lambda) und auf alle Aufrufe hochgerechnet. Die Zeit eines Schritts
+ * ist die Zeit in seinem Lambda, ohne die folgenden Schritte; bei sorted() die Zeit aller Vergleiche.
+ * Eingeschaltet kostet auch ein nicht gemessener Aufruf einige Nanosekunden (ein LongAdder-Inkrement, bei
+ * filter zwei, und eine Zufallszahl). Das ist die Grenze dieser Messung: bei Lambdas, die selbst nur wenige
+ * Nanosekunden brauchen, sinkt der Durchsatz um etwa 28 % (PipelineProfileBenchmark mit Integer.toString: 33
+ * statt 46 ops/s), mit String.format nur um etwa 3 % (6,4 statt 6,6 ops/s). Abgeschaltet kostet PipelineProfile
+ * nichts.
+ *
+ * {@link #report()} liefert die Messwerte, ohne etwas zu verändern; {@link Report#commitEvents()} schreibt sie
+ * als JFR-Events ({@code streams.PipelineStage}, {@code streams.PipelineSplit}), wenn eine Flight Recording läuft.
+ */
+public final class PipelineProfile {
+
+    private static final PipelineProfile DISABLED = new PipelineProfile("disabled", false);
+
+    /** gemessen wird, wenn (Zufallszahl &amp; SAMPLE_MASK) == 0, also bei etwa jedem 64. Aufruf */
+    private static final int SAMPLE_MASK = 63;
+
+    private final String name;
+    private final boolean enabled;
+    private final Map<String, Stage> stages = new LinkedHashMap<>();    // geschützt durch this
+    private final List<SplitNode> splits = new CopyOnWriteArrayList<>();
+    private final AtomicInteger nextSplitId = new AtomicInteger();
+
+    private PipelineProfile(String name, boolean enabled) {
+        this.name = name;
+        this.enabled = enabled;
+    }
+
+    /** misst, wenn die System-Property streams.profile gesetzt ist, sonst {@link #disabled()} */
+    public static PipelineProfile create(String name) {
+        return Boolean.getBoolean("streams.profile") ? enabled(name) : DISABLED;
+    }
+
+    /** misst immer */
+    public static PipelineProfile enabled(String name) {
+        return new PipelineProfile(name, true);
+    }
+
+    /** misst nie, alle Methoden liefern ihr Argument unverändert zurück */
+    public static PipelineProfile disabled() {
+        return DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // ---- Quellen: zählen die Elemente und zeichnen auf, wie der Stream aufgeteilt wird ----
+
+    public <T> Stream<T> source(String stage, Stream<T> source) {
+        if (!enabled) {
+            return source;
+        }
+        Spliterator<T> spliterator = new TracingSpliterator<>(source.spliterator(), stage(stage, Output.ALL), newSplit(-1));
+        return StreamSupport.stream(spliterator, source.isParallel()).onClose(source::close);
+    }
+
+    public IntStream source(String stage, IntStream source) {
+        if (!enabled) {
+            return source;
+        }
+        Spliterator.OfInt spliterator = new TracingIntSpliterator(source.spliterator(), stage(stage, Output.ALL), newSplit(-1));
+        return StreamSupport.intStream(spliterator, source.isParallel()).onClose(source::close);
+    }
+
+    // ---- Schritte ----
+
+    public <T> Predicate<T> filter(String stage, Predicate<T> predicate) {
+        if (!enabled) {
+            return predicate;
+        }
+        Stage s = stage(stage, Output.COUNTED);
+        return t -> {
+            s.calls.increment();
+            boolean result;
+            if (sample()) {
+                long bytes = allocatedBytes();
+                long start = System.nanoTime();
+                result = predicate.test(t);
+                s.sample(System.nanoTime() - start, allocatedBytes() - bytes);
+            } else {
+                result = predicate.test(t);
+            }
+            if (result) {
+                s.out.increment();
+            }
+            return result;
+        };
+    }
+
+    public IntPredicate filterInt(String stage, IntPredicate predicate) {
+        if (!enabled) {
+            return predicate;
+        }
+        Stage s = stage(stage, Output.COUNTED);
+        return v -> {
+            s.calls.increment();
+            boolean result;
+            if (sample()) {
+                long bytes = allocatedBytes();
+                long start = System.nanoTime();
+                result = predicate.test(v);
+                s.sample(System.nanoTime() - start, allocatedBytes() - bytes);
+            } else {
+                result = predicate.test(v);
+            }
+            if (result) {
+                s.out.increment();
+            }
+            return result;
+        };
+    }
+
+    public <T, R> Function<T, R> map(String stage, Function<T, R> mapper) {
+        if (!enabled) {
+            return mapper;
+        }
+        Stage s = stage(stage, Output.ALL);
+        return t -> {
+            s.calls.increment();
+            if (sample()) {
+                long bytes = allocatedBytes();
+                long start = System.nanoTime();
+                R result = mapper.apply(t);
+                s.sample(System.nanoTime() - start, allocatedBytes() - bytes);
+                return result;
+            }
+            return mapper.apply(t);
+        };
+    }
+
+    public <T> ToIntFunction<T> mapToInt(String stage, ToIntFunction<T> mapper) {
+        if (!enabled) {
+            return mapper;
+        }
+        Stage s = stage(stage, Output.ALL);
+        return t -> {
+            s.calls.increment();
+            if (sample()) {
+                long bytes = allocatedBytes();
+                long start = System.nanoTime();
+                int result = mapper.applyAsInt(t);
+                s.sample(System.nanoTime() - start, allocatedBytes() - bytes);
+                return result;
+            }
+            return mapper.applyAsInt(t);
+        };
+    }
+
+    public IntUnaryOperator mapInt(String stage, IntUnaryOperator mapper) {
+        if (!enabled) {
+            return mapper;
+        }
+        Stage s = stage(stage, Output.ALL);
+        return v -> {
+            s.calls.increment();
+            if (sample()) {
+                long bytes = allocatedBytes();
+                long start = System.nanoTime();
+                int result = mapper.applyAsInt(v);
+                s.sample(System.nanoTime() - start, allocatedBytes() - bytes);
+                return result;
+            }
+            return mapper.applyAsInt(v);
+        };
+    }
+
+    /** Vergleiche für sorted(); calls ist die Anzahl der Vergleiche */
+    public <T> Comparator<T> sorted(String stage, Comparator<T> comparator) {
+        if (!enabled) {
+            return comparator;
+        }
+        Stage s = stage(stage, Output.NONE);
+        return (a, b) -> {
+            s.calls.increment();
+            if (sample()) {
+                long bytes = allocatedBytes();
+                long start = System.nanoTime();
+                int result = comparator.compare(a, b);
+                s.sample(System.nanoTime() - start, allocatedBytes() - bytes);
+                return result;
+            }
+            return comparator.compare(a, b);
+        };
+    }
+
+    /** für forEach() oder peek() */
+    public <T> Consumer<T> consumer(String stage, Consumer<T> action) {
+        if (!enabled) {
+            return action;
+        }
+        Stage s = stage(stage, Output.ALL);
+        return t -> {
+            s.calls.increment();
+            if (sample()) {
+                long bytes = allocatedBytes();
+                long start = System.nanoTime();
+                action.accept(t);
+                s.sample(System.nanoTime() - start, allocatedBytes() - bytes);
+            } else {
+                action.accept(t);
+            }
+        };
+    }
+
+    /** zählt nur, z.B. {@code .limit(3).peek(profile.counter("limit"))} */
+    public <T> Consumer<T> counter(String stage) {
+        return consumer(stage, t -> { });
+    }
+
+    // ---- Ergebnis ----
+
+    /** die bisherigen Messwerte */
+    public Report report() {
+        List<StageMetrics> stageMetrics = new ArrayList<>();
+        synchronized (this) {
+            for (Stage stage : stages.values()) {
+                stageMetrics.add(stage.metrics());
+            }
+        }
+        List<SplitMetrics> splitMetrics = new ArrayList<>();
+        for (SplitNode node : splits) {
+            splitMetrics.add(node.metrics());
+        }
+        return new Report(name, stageMetrics, splitMetrics);
+    }
+
+    private synchronized Stage stage(String stage, Output output) {
+        return stages.computeIfAbsent(stage, name -> new Stage(name, output));
+    }
+
+    private SplitNode newSplit(int parent) {
+        SplitNode node = new SplitNode(nextSplitId.getAndIncrement(), parent);
+        splits.add(node);
+        return node;
+    }
+
+    private static boolean sample() {
+        return (ThreadLocalRandom.current().nextInt() & SAMPLE_MASK) == 0;
+    }
+
+    private static long allocatedBytes() {
+        return Timers.THREADS == null ? 0 : Timers.THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Zähler für Speicher und Zeit; erst beim ersten gemessenen Aufruf geladen, damit ein abgeschaltetes
+     * PipelineProfile weder die ThreadMXBean sucht noch die Uhr kalibriert
+     */
+    private static final class Timers {
+        static final com.sun.management.ThreadMXBean THREADS = allocationCounter();
+
+        /** Dauer einer Messung ohne Lambda dazwischen (die kürzeste von vielen); wird von jeder Messung abgezogen */
+        static final long TIMER_NANOS = timerNanos();
+
+        private static long timerNanos() {
+            long min = Long.MAX_VALUE;
+            for (int i = 0; i < 10_000; i++) {
+                long start = System.nanoTime();
+                min = Math.min(min, System.nanoTime() - start);
+            }
+            return min;
+        }
+
+        private static com.sun.management.ThreadMXBean allocationCounter() {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean threads =
+                    (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+                if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+                    return threads;
+                }
+            }
+            return null;
+        }
+    }
+
+    /** welche Elemente ein Schritt weitergibt; gezählt werden muss nur bei COUNTED */
+    private enum Output {
+        ALL, COUNTED, NONE
+    }
+
+    /** Zähler eines Schritts; LongAdder, damit parallele Streams nicht um einen Zähler konkurrieren */
+    private static final class Stage {
+        final String name;
+        final Output output;
+        final LongAdder calls = new LongAdder();
+        final LongAdder out = new LongAdder();
+        final LongAdder samples = new LongAdder();
+        final LongAdder sampledNanos = new LongAdder();
+        final LongAdder sampledBytes = new LongAdder();
+
+        Stage(String name, Output output) {
+            this.name = name;
+            this.output = output;
+        }
+
+        void sample(long nanos, long bytes) {
+            samples.increment();
+            sampledNanos.add(nanos);
+            sampledBytes.add(bytes);
+        }
+
+        StageMetrics metrics() {
+            long c = calls.sum();
+            long s = samples.sum();
+            long nanos = Math.max(0, sampledNanos.sum() - s * Timers.TIMER_NANOS);
+            long o = output == Output.ALL ? c : output == Output.COUNTED ? out.sum() : 0;
+            return new StageMetrics(name, c, o,
+                s == 0 ? 0 : nanos * c / s,
+                s == 0 ? 0 : sampledBytes.sum() * c / s);
+        }
+    }
+
+    /** ein Teil des Quell-Spliterators; parent ist -1 für den ursprünglichen */
+    private static final class SplitNode {
+        final int id;
+        final int parent;
+        long estimatedSize = -1;
+        long elements;
+        long nanos;
+        String thread;
+
+        SplitNode(int id, int parent) {
+            this.id = id;
+            this.parent = parent;
+        }
+
+        SplitMetrics metrics() {
+            return new SplitMetrics(id, parent, estimatedSize, elements, nanos, thread);
+        }
+    }
+
+    private final class TracingSpliterator<T> implements Spliterator<T> {
+        private final Spliterator<T> source;
+        private final Stage stage;
+        private final SplitNode node;
+
+        TracingSpliterator(Spliterator<T> source, Stage stage, SplitNode node) {
+            this.source = source;
+            this.stage = stage;
+            this.node = node;
+            node.estimatedSize = source.estimateSize();
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            node.thread = Thread.currentThread().getName();
+            if (source.tryAdvance(action)) {
+                node.elements++;
+                stage.calls.increment();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            node.thread = Thread.currentThread().getName();
+            long before = node.elements;
+            long start = System.nanoTime();
+            source.forEachRemaining(t -> {
+                node.elements++;
+                action.accept(t);
+            });
+            node.nanos += System.nanoTime() - start;
+            stage.calls.add(node.elements - before);
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            Spliterator<T> prefix = source.trySplit();
+            if (prefix == null) {
+                return null;
+            }
+            node.estimatedSize = source.estimateSize();
+            return new TracingSpliterator<>(prefix, stage, newSplit(node.id));
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public long getExactSizeIfKnown() {
+            return source.getExactSizeIfKnown();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics();
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            return source.getComparator();
+        }
+    }
+
+    private final class TracingIntSpliterator implements Spliterator.OfInt {
+        private final Spliterator.OfInt source;
+        private final Stage stage;
+        private final SplitNode node;
+
+        TracingIntSpliterator(Spliterator.OfInt source, Stage stage, SplitNode node) {
+            this.source = source;
+            this.stage = stage;
+            this.node = node;
+            node.estimatedSize = source.estimateSize();
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            node.thread = Thread.currentThread().getName();
+            if (source.tryAdvance(action)) {
+                node.elements++;
+                stage.calls.increment();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            node.thread = Thread.currentThread().getName();
+            long before = node.elements;
+            long start = System.nanoTime();
+            source.forEachRemaining((int v) -> {
+                node.elements++;
+                action.accept(v);
+            });
+            node.nanos += System.nanoTime() - start;
+            stage.calls.add(node.elements - before);
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            Spliterator.OfInt prefix = source.trySplit();
+            if (prefix == null) {
+                return null;
+            }
+            node.estimatedSize = source.estimateSize();
+            return new TracingIntSpliterator(prefix, stage, newSplit(node.id));
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public long getExactSizeIfKnown() {
+            return source.getExactSizeIfKnown();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics();
+        }
+
+        @Override
+        public Comparator<? super Integer> getComparator() {
+            return source.getComparator();
+        }
+    }
+
+    /** Messwerte eines Schritts; nanos und allocatedBytes sind hochgerechnet */
+    public static final class StageMetrics {
+        private final String stage;
+        private final long calls;
+        private final long out;
+        private final long nanos;
+        private final long allocatedBytes;
+
+        StageMetrics(String stage, long calls, long out, long nanos, long allocatedBytes) {
+            this.stage = stage;
+            this.calls = calls;
+            this.out = out;
+            this.nanos = nanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        public String getStage() {
+            return stage;
+        }
+
+        /** Aufrufe des Lambdas (bei einer Quelle: gelieferte Elemente, bei sorted: Vergleiche) */
+        public long getCalls() {
+            return calls;
+        }
+
+        /** an den nächsten Schritt weitergegebene Elemente (bei sorted: 0) */
+        public long getOut() {
+            return out;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+    }
+
+    /**
+     * Ein Teil der Quelle nach trySplit: parent ist der Teil, von dem er abgespalten wurde (-1 für die ganze
+     * Quelle); estimatedSize die Größe beim Erzeugen (beim parent: nach der letzten Teilung), elements die
+     * tatsächlich gelieferten Elemente, thread der Thread, der ihn durchlaufen hat.
+     */
+    public static final class SplitMetrics {
+        private final int id;
+        private final int parent;
+        private final long estimatedSize;
+        private final long elements;
+        private final long nanos;
+        private final String thread;
+
+        SplitMetrics(int id, int parent, long estimatedSize, long elements, long nanos, String thread) {
+            this.id = id;
+            this.parent = parent;
+            this.estimatedSize = estimatedSize;
+            this.elements = elements;
+            this.nanos = nanos;
+            this.thread = thread;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public int getParent() {
+            return parent;
+        }
+
+        public long getEstimatedSize() {
+            return estimatedSize;
+        }
+
+        public long getElements() {
+            return elements;
+        }
+
+        /** Zeit in forEachRemaining, einschließlich aller folgenden Schritte für diese Elemente */
+        public long getNanos() {
+            return nanos;
+        }
+
+        public String getThread() {
+            return thread;
+        }
+    }
+
+    /** alle Messwerte einer Pipeline */
+    public static final class Report {
+        private final String pipeline;
+        private final List<StageMetrics> stages;
+        private final List<SplitMetrics> splits;
+
+        Report(String pipeline, List<StageMetrics> stages, List<SplitMetrics> splits) {
+            this.pipeline = pipeline;
+            this.stages = Collections.unmodifiableList(stages);
+            this.splits = Collections.unmodifiableList(splits);
+        }
+
+        public String getPipeline() {
+            return pipeline;
+        }
+
+        public List<StageMetrics> getStages() {
+            return stages;
+        }
+
+        public List<SplitMetrics> getSplits() {
+            return splits;
+        }
+
+        /** die Messwerte als flache Map, z.B. "secondExample.filter.calls" -&gt; 400 */
+        public Map<String, Long> toMetrics() {
+            Map<String, Long> metrics = new LinkedHashMap<>();
+            for (StageMetrics s : stages) {
+                String prefix = pipeline + "." + s.getStage() + ".";
+                metrics.put(prefix + "calls", s.getCalls());
+                metrics.put(prefix + "out", s.getOut());
+                metrics.put(prefix + "nanos", s.getNanos());
+                metrics.put(prefix + "allocatedBytes", s.getAllocatedBytes());
+            }
+            metrics.put(pipeline + ".splits", (long) splits.size());
+            return metrics;
+        }
+
+        /**
+         * schreibt die Messwerte als JFR-Events, wenn eine Flight Recording sie aufzeichnet; jeder Aufruf schreibt
+         * sie erneut
+         */
+        public void commitEvents() {
+            for (StageMetrics s : stages) {
+                StageEvent event = new StageEvent();
+                if (event.isEnabled()) {
+                    event.pipeline = pipeline;
+                    event.stage = s.getStage();
+                    event.calls = s.getCalls();
+                    event.out = s.getOut();
+                    event.nanos = s.getNanos();
+                    event.allocatedBytes = s.getAllocatedBytes();
+                    event.commit();
+                }
+            }
+            for (SplitMetrics s : splits) {
+                SplitEvent event = new SplitEvent();
+                if (event.isEnabled()) {
+                    event.pipeline = pipeline;
+                    event.id = s.getId();
+                    event.parent = s.getParent();
+                    event.estimatedSize = s.getEstimatedSize();
+                    event.elements = s.getElements();
+                    event.splitThread = s.getThread();
+                    event.commit();
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder("Pipeline ").append(pipeline).append('\n');
+            builder.append(String.format("  %-16s %12s %12s %12s %14s%n", "stage", "calls", "out", "micros", "bytes"));
+            for (StageMetrics s : stages) {
+                builder.append(String.format("  %-16s %12d %12d %12d %14d%n",
+                    s.getStage(), s.getCalls(), s.getOut(), s.getNanos() / 1000, s.getAllocatedBytes()));
+            }
+            if (splits.size() > 1) {
+                builder.append("  splits:\n");
+                appendSplits(builder, -1, 2);
+            }
+            return builder.toString();
+        }
+
+        private void appendSplits(StringBuilder builder, int parent, int indent) {
+            for (SplitMetrics s : splits) {
+                if (s.getParent() == parent) {
+                    builder.append(" ".repeat(indent))
+                        .append('#').append(s.getId())
+                        .append(" elements=").append(s.getElements())
+                        .append(" thread=").append(s.getThread())
+                        .append('\n');
+                    appendSplits(builder, s.getId(), indent + 2);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package streams.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR-Event für einen Teil der Quelle eines parallelen Streams, geschrieben von
+ * {@link PipelineProfile.Report#commitEvents()}
+ */
+@Name("streams.PipelineSplit")
+@Label("Stream Pipeline Split")
+@Category("Streams")
+@Description("One part of the source spliterator of a profiled stream pipeline")
+@StackTrace(false)
+final class SplitEvent extends jdk.jfr.Event {
+
+    @Label("Pipeline")
+    String pipeline;
+
+    @Label("Id")
+    int id;
+
+    @Label("Parent Id")
+    int parent;
+
+    @Label("Estimated Size")
+    long estimatedSize;
+
+    @Label("Elements")
+    long elements;
+
+    @Label("Thread")
+    String splitThread;
+}
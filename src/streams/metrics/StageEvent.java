@@ -0,0 +1,38 @@
+package streams.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/** JFR-Event mit den Messwerten eines Schritts, geschrieben von {@link PipelineProfile.Report#commitEvents()} */
+@Name("streams.PipelineStage")
+@Label("Stream Pipeline Stage")
+@Category("Streams")
+@Description("Calls, elements, time and allocation of one stage of a profiled stream pipeline")
+@StackTrace(false)
+final class StageEvent extends jdk.jfr.Event {
+
+    @Label("Pipeline")
+    String pipeline;
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Calls")
+    long calls;
+
+    @Label("Elements Out")
+    long out;
+
+    @Label("Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long nanos;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+}
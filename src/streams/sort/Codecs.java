@@ -0,0 +1,81 @@
+package streams.sort;
+
+import streams.io.Encodings;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/** die {@link RunCodec}s für String, Integer und Long und die Varint-Kodierung, die sie verwenden */
+final class Codecs {
+
+    static final RunCodec<String> STRING = new RunCodec<>() {
+        @Override
+        public void write(DataOutput out, String previous, String value) throws IOException {
+            int prefix = previous == null ? 0 : Encodings.commonPrefix(previous, value);
+            byte[] suffix = value.substring(prefix).getBytes(StandardCharsets.UTF_8);
+            writeVarLong(out, prefix);
+            writeVarLong(out, suffix.length);
+            out.write(suffix);
+        }
+
+        @Override
+        public String read(DataInput in, String previous) throws IOException {
+            int prefix = (int) readVarLong(in);
+            byte[] suffix = new byte[(int) readVarLong(in)];
+            in.readFully(suffix);
+            String rest = new String(suffix, StandardCharsets.UTF_8);
+            return prefix == 0 ? rest : previous.substring(0, prefix).concat(rest);
+        }
+    };
+
+    static final RunCodec<Integer> INTEGER = new RunCodec<>() {
+        @Override
+        public void write(DataOutput out, Integer previous, Integer value) throws IOException {
+            int base = previous == null ? 0 : previous;
+            writeVarLong(out, zigZag(value - base));
+        }
+
+        @Override
+        public Integer read(DataInput in, Integer previous) throws IOException {
+            int base = previous == null ? 0 : previous;
+            return base + (int) unZigZag(readVarLong(in));
+        }
+    };
+
+    static final RunCodec<Long> LONG = new RunCodec<>() {
+        @Override
+        public void write(DataOutput out, Long previous, Long value) throws IOException {
+            long base = previous == null ? 0 : previous;
+            writeVarLong(out, zigZag(value - base));
+        }
+
+        @Override
+        public Long read(DataInput in, Long previous) throws IOException {
+            long base = previous == null ? 0 : previous;
+            return base + unZigZag(readVarLong(in));
+        }
+    };
+
+    private Codecs() {
+    }
+
+    // die Kodierung selbst steht in streams.io.Encodings, auch BinaryWriter/BinaryReader verwenden sie
+
+    static long zigZag(long value) {
+        return Encodings.zigZag(value);
+    }
+
+    static long unZigZag(long value) {
+        return Encodings.unZigZag(value);
+    }
+
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        Encodings.writeVarLong(out, value);
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        return Encodings.readVarLong(in);
+    }
+}
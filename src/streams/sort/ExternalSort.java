@@ -0,0 +1,569 @@
+package streams.sort;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * sorted() für Streams, die nicht in den Heap passen.
+ *
+ * {@code stream.sorted()} puffert alle Elemente im Speicher. ExternalSort puffert höchstens runSize Elemente,
+ * sortiert sie und schreibt sie als Lauf in eine temporäre Datei (mit einem {@link RunCodec} kompakt kodiert).
+ * Am Ende werden die Läufe beim Lesen des Ergebnis-Streams zusammengeführt (k-Wege-Merge), es ist also immer
+ * nur ein Element je Lauf im Speicher:
+ * <pre>
+ *   try (Stream&lt;String&gt; sorted = ExternalSort.sorted(words, 1_000_000)) {
+ *       sorted.collect(groupingBy(word -&gt; word, TreeMap::new, counting()));
+ *   }
+ * </pre>
+ * Passen alle Elemente in einen Lauf, wird nichts geschrieben. Wie sorted() liest ExternalSort die Quelle erst,
+ * wenn das erste Element gebraucht wird, und sortiert stabil: gleiche Elemente bleiben in ihrer Reihenfolge.
+ *
+ * Die temporären Dateien werden gelöscht, sobald ihr Lauf vollständig gelesen ist, spätestens mit close() des
+ * Streams. Elemente dürfen nicht null sein.
+ */
+public final class ExternalSort {
+
+    /** Elemente je Lauf, wenn nichts anderes angegeben ist */
+    public static final int DEFAULT_RUN_SIZE = 1 << 20;
+
+    /** höchstens so viele Läufe werden gleichzeitig geöffnet; mehr werden in mehreren Durchgängen zusammengeführt */
+    static final int MAX_FAN_IN = 64;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private ExternalSort() {
+    }
+
+    /** wie {@code source.sorted()}, höchstens runSize Strings im Speicher */
+    public static Stream<String> sorted(Stream<String> source, int runSize) {
+        return sorted(source, null, RunCodec.strings(), runSize);
+    }
+
+    /** wie {@code source.sorted()}, höchstens runSize Elemente im Speicher */
+    public static <T extends Comparable<? super T>> Stream<T> sorted(Stream<T> source, RunCodec<T> codec, int runSize) {
+        return sorted(source, null, codec, runSize);
+    }
+
+    /** wie {@code source.sorted(comparator)}, höchstens runSize Elemente im Speicher */
+    public static <T> Stream<T> sorted(Stream<T> source, Comparator<? super T> comparator, RunCodec<T> codec,
+                                       int runSize) {
+        checkRunSize(runSize);
+        Sorting<T> sorting = new Sorting<>(source.spliterator(), comparator, codec, runSize);
+        return StreamSupport.stream(sorting, false)
+            .onClose(sorting::deleteFiles)
+            .onClose(source::close);
+    }
+
+    /** wie {@code source.sorted()}, höchstens runSize Werte im Speicher */
+    public static IntStream sorted(IntStream source, int runSize) {
+        return sorted(source.asLongStream(), runSize).mapToInt(v -> (int) v);
+    }
+
+    /** wie {@code source.sorted()}, höchstens runSize Werte im Speicher */
+    public static LongStream sorted(LongStream source, int runSize) {
+        checkRunSize(runSize);
+        LongSorting sorting = new LongSorting(source.spliterator(), runSize);
+        return StreamSupport.longStream(sorting, false)
+            .onClose(sorting::deleteFiles)
+            .onClose(source::close);
+    }
+
+    private static void checkRunSize(int runSize) {
+        if (runSize < 1) {
+            throw new IllegalArgumentException("runSize must be positive: " + runSize);
+        }
+    }
+
+    /** ein sortierter Lauf in einer temporären Datei */
+    private static final class Run {
+        final Path file;
+        final long size;
+
+        Run(Path file, long size) {
+            this.file = file;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Gemeinsamer Ablauf für Objekte und long-Werte: beim ersten tryAdvance die Quelle in Läufe zerlegen, dann
+     * entweder den einzigen Lauf aus dem Speicher liefern oder die Läufe zusammenführen.
+     */
+    private abstract static class Spilling {
+        final int runSize;
+        final List<Path> files = new ArrayList<>();
+        final List<Run> runs = new ArrayList<>();
+        final List<Closeable> open = new ArrayList<>();
+        boolean started;
+
+        Spilling(int runSize) {
+            this.runSize = runSize;
+        }
+
+        Path newFile() throws IOException {
+            Path file = Files.createTempFile("sorted-run", ".bin");
+            files.add(file);
+            return file;
+        }
+
+        static DataOutputStream output(Path file) throws IOException {
+            return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE));
+        }
+
+        DataInputStream input(Path file) throws IOException {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE));
+            open.add(in);
+            return in;
+        }
+
+        void delete(Path file) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                file.toFile().deleteOnExit();
+            }
+        }
+
+        void deleteFiles() {
+            for (Closeable in : open) {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    // die Datei wird trotzdem gelöscht
+                }
+            }
+            open.clear();
+            for (Path file : files) {
+                delete(file);
+            }
+            files.clear();
+        }
+
+        /** führt Gruppen aus MAX_FAN_IN aufeinanderfolgenden Läufen zusammen, bis höchstens MAX_FAN_IN übrig sind */
+        void reduceRuns() throws IOException {
+            while (runs.size() > MAX_FAN_IN) {
+                List<Run> merged = new ArrayList<>();
+                for (int from = 0; from < runs.size(); from += MAX_FAN_IN) {
+                    List<Run> group = runs.subList(from, Math.min(runs.size(), from + MAX_FAN_IN));
+                    merged.add(group.size() == 1 ? group.get(0) : mergeToFile(group));
+                }
+                runs.clear();
+                runs.addAll(merged);
+            }
+        }
+
+        abstract Run mergeToFile(List<Run> group) throws IOException;
+    }
+
+    private static final class Sorting<T> extends Spilling implements Spliterator<T> {
+        private final Spliterator<T> source;
+        private final Comparator<? super T> reported;   // null für die natürliche Ordnung
+        private final Comparator<? super T> comparator;
+        private final RunCodec<T> codec;
+        private Object[] buffer;
+        private int bufferSize;
+        private int next;                       // nächstes Element in buffer, wenn alles in einen Lauf passt
+        private Merge merge;                    // sonst: Zusammenführung der Läufe
+
+        @SuppressWarnings("unchecked")
+        Sorting(Spliterator<T> source, Comparator<? super T> comparator, RunCodec<T> codec, int runSize) {
+            super(runSize);
+            this.source = source;
+            this.reported = comparator;
+            this.comparator = comparator != null ? comparator : (Comparator<? super T>) Comparator.naturalOrder();
+            this.codec = codec;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (!started) {
+                start();
+            }
+            if (merge != null) {
+                if (!merge.hasNext()) {
+                    return false;
+                }
+                action.accept(merge.next());
+                return true;
+            }
+            if (next == bufferSize) {
+                return false;
+            }
+            @SuppressWarnings("unchecked")
+            T t = (T) buffer[next];
+            buffer[next++] = null;
+            action.accept(t);
+            return true;
+        }
+
+        private void start() {
+            started = true;
+            buffer = new Object[Math.min(runSize, 1024)];
+            try {
+                source.forEachRemaining(t -> {
+                    if (bufferSize == buffer.length) {
+                        if (bufferSize == runSize) {
+                            spill();
+                        } else {
+                            buffer = Arrays.copyOf(buffer, (int) Math.min(runSize, 2L * buffer.length));
+                        }
+                    }
+                    buffer[bufferSize++] = Objects.requireNonNull(t, "ExternalSort does not support null elements");
+                });
+                sortBuffer();
+                if (!runs.isEmpty()) {
+                    if (bufferSize > 0) {
+                        spill();
+                    }
+                    buffer = null;
+                    reduceRuns();
+                    merge = new Merge(runs, true);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void sortBuffer() {
+            Arrays.sort((T[]) buffer, 0, bufferSize, comparator);
+        }
+
+        /** sortiert den Puffer und schreibt ihn als Lauf in eine Datei */
+        @SuppressWarnings("unchecked")
+        private void spill() {
+            sortBuffer();
+            try {
+                Path file = newFile();
+                try (DataOutputStream out = output(file)) {
+                    T previous = null;
+                    for (int i = 0; i < bufferSize; i++) {
+                        T t = (T) buffer[i];
+                        codec.write(out, previous, t);
+                        previous = t;
+                        buffer[i] = null;
+                    }
+                }
+                runs.add(new Run(file, bufferSize));
+                bufferSize = 0;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        Run mergeToFile(List<Run> group) throws IOException {
+            Merge groupMerge = new Merge(group, false);
+            Path file = newFile();
+            long size = 0;
+            try (DataOutputStream out = output(file)) {
+                T previous = null;
+                while (groupMerge.hasNext()) {
+                    T t = groupMerge.next();
+                    codec.write(out, previous, t);
+                    previous = t;
+                    size++;
+                }
+            }
+            for (Run run : group) {
+                delete(run.file);
+            }
+            return new Run(file, size);
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            if (!started) {
+                return source.estimateSize();
+            }
+            return merge != null ? merge.remaining : bufferSize - next;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SORTED | NONNULL | (source.characteristics() & SIZED);
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            return reported;
+        }
+
+        /** ein geöffneter Lauf und sein aktuelles Element */
+        private final class Reader {
+            final int index;            // Position des Laufs: bei gleichen Elementen gewinnt der frühere
+            final Path file;
+            final DataInputStream in;
+            final boolean deleteWhenDone;
+            long remaining;
+            T current;
+
+            Reader(int index, Run run, boolean deleteWhenDone) throws IOException {
+                this.index = index;
+                this.file = run.file;
+                this.in = input(run.file);
+                this.remaining = run.size;
+                this.deleteWhenDone = deleteWhenDone;
+            }
+
+            boolean advance() throws IOException {
+                if (remaining == 0) {
+                    in.close();
+                    if (deleteWhenDone) {
+                        delete(file);
+                    }
+                    return false;
+                }
+                current = codec.read(in, current);
+                remaining--;
+                return true;
+            }
+        }
+
+        /** k-Wege-Merge: ein Heap mit dem aktuellen Element jedes Laufs */
+        private final class Merge {
+            final PriorityQueue<Reader> heap;
+            long remaining;
+
+            Merge(List<Run> runs, boolean deleteWhenDone) throws IOException {
+                heap = new PriorityQueue<>(Math.max(1, runs.size()), (a, b) -> {
+                    int c = comparator.compare(a.current, b.current);
+                    return c != 0 ? c : Integer.compare(a.index, b.index);
+                });
+                for (int i = 0; i < runs.size(); i++) {
+                    Reader reader = new Reader(i, runs.get(i), deleteWhenDone);
+                    remaining += reader.remaining;
+                    if (reader.advance()) {
+                        heap.add(reader);
+                    }
+                }
+            }
+
+            boolean hasNext() {
+                return !heap.isEmpty();
+            }
+
+            T next() {
+                Reader reader = heap.poll();
+                T t = reader.current;
+                try {
+                    if (reader.advance()) {
+                        heap.add(reader);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                remaining--;
+                return t;
+            }
+        }
+    }
+
+    private static final class LongSorting extends Spilling implements Spliterator.OfLong {
+        private final Spliterator.OfLong source;
+        private long[] buffer;
+        private int bufferSize;
+        private int next;
+        private LongMerge merge;
+
+        LongSorting(Spliterator.OfLong source, int runSize) {
+            super(runSize);
+            this.source = source;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            if (!started) {
+                start();
+            }
+            if (merge != null) {
+                if (!merge.hasNext()) {
+                    return false;
+                }
+                action.accept(merge.next());
+                return true;
+            }
+            if (next == bufferSize) {
+                return false;
+            }
+            action.accept(buffer[next++]);
+            return true;
+        }
+
+        private void start() {
+            started = true;
+            buffer = new long[Math.min(runSize, 1024)];
+            try {
+                source.forEachRemaining((long v) -> {
+                    if (bufferSize == buffer.length) {
+                        if (bufferSize == runSize) {
+                            spill();
+                        } else {
+                            buffer = Arrays.copyOf(buffer, (int) Math.min(runSize, 2L * buffer.length));
+                        }
+                    }
+                    buffer[bufferSize++] = v;
+                });
+                Arrays.sort(buffer, 0, bufferSize);
+                if (!runs.isEmpty()) {
+                    if (bufferSize > 0) {
+                        spill();
+                    }
+                    buffer = null;
+                    reduceRuns();
+                    merge = new LongMerge(runs, true);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void spill() {
+            Arrays.sort(buffer, 0, bufferSize);
+            try {
+                Path file = newFile();
+                try (DataOutputStream out = output(file)) {
+                    long previous = 0;
+                    for (int i = 0; i < bufferSize; i++) {
+                        Codecs.writeVarLong(out, Codecs.zigZag(buffer[i] - previous));
+                        previous = buffer[i];
+                    }
+                }
+                runs.add(new Run(file, bufferSize));
+                bufferSize = 0;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        Run mergeToFile(List<Run> group) throws IOException {
+            LongMerge groupMerge = new LongMerge(group, false);
+            Path file = newFile();
+            long size = 0;
+            try (DataOutputStream out = output(file)) {
+                long previous = 0;
+                while (groupMerge.hasNext()) {
+                    long v = groupMerge.next();
+                    Codecs.writeVarLong(out, Codecs.zigZag(v - previous));
+                    previous = v;
+                    size++;
+                }
+            }
+            for (Run run : group) {
+                delete(run.file);
+            }
+            return new Run(file, size);
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            if (!started) {
+                return source.estimateSize();
+            }
+            return merge != null ? merge.remaining : bufferSize - next;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SORTED | NONNULL | (source.characteristics() & SIZED);
+        }
+
+        @Override
+        public Comparator<? super Long> getComparator() {
+            return null;
+        }
+
+        private final class LongReader {
+            final Path file;
+            final DataInputStream in;
+            final boolean deleteWhenDone;
+            long remaining;
+            long current;
+
+            LongReader(Run run, boolean deleteWhenDone) throws IOException {
+                this.file = run.file;
+                this.in = input(run.file);
+                this.remaining = run.size;
+                this.deleteWhenDone = deleteWhenDone;
+            }
+
+            boolean advance() throws IOException {
+                if (remaining == 0) {
+                    in.close();
+                    if (deleteWhenDone) {
+                        delete(file);
+                    }
+                    return false;
+                }
+                current += Codecs.unZigZag(Codecs.readVarLong(in));
+                remaining--;
+                return true;
+            }
+        }
+
+        private final class LongMerge {
+            final PriorityQueue<LongReader> heap;
+            long remaining;
+
+            LongMerge(List<Run> runs, boolean deleteWhenDone) throws IOException {
+                heap = new PriorityQueue<>(Math.max(1, runs.size()), (a, b) -> Long.compare(a.current, b.current));
+                for (Run run : runs) {
+                    LongReader reader = new LongReader(run, deleteWhenDone);
+                    remaining += reader.remaining;
+                    if (reader.advance()) {
+                        heap.add(reader);
+                    }
+                }
+            }
+
+            boolean hasNext() {
+                return !heap.isEmpty();
+            }
+
+            long next() {
+                LongReader reader = heap.poll();
+                long v = reader.current;
+                try {
+                    if (reader.advance()) {
+                        heap.add(reader);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                remaining--;
+                return v;
+            }
+        }
+    }
+}
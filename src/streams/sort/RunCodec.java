@@ -0,0 +1,34 @@
+package streams.sort;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Schreibt und liest die Elemente eines sortierten Laufs für {@link ExternalSort}.
+ *
+ * Jedes Element wird zusammen mit seinem Vorgänger im Lauf übergeben (null beim ersten). Da ein Lauf sortiert
+ * ist, unterscheiden sich aufeinanderfolgende Elemente meist wenig: Zahlen werden als Differenz zum Vorgänger
+ * gespeichert, Strings nur ab dem ersten Zeichen, in dem sie sich vom Vorgänger unterscheiden.
+ */
+public interface RunCodec<T> {
+
+    void write(DataOutput out, T previous, T value) throws IOException;
+
+    T read(DataInput in, T previous) throws IOException;
+
+    /** Strings: gemeinsamer Präfix mit dem Vorgänger als Länge, der Rest in UTF-8 */
+    static RunCodec<String> strings() {
+        return Codecs.STRING;
+    }
+
+    /** Integer: Differenz zum Vorgänger als Varint */
+    static RunCodec<Integer> integers() {
+        return Codecs.INTEGER;
+    }
+
+    /** Long: Differenz zum Vorgänger als Varint */
+    static RunCodec<Long> longs() {
+        return Codecs.LONG;
+    }
+}
@@ -0,0 +1,85 @@
+package streams.text;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Ein Wort als Sicht auf einen Bereich eines Puffers mit ASCII-Text. Die Zeichen werden nicht kopiert;
+ * erst {@link #toString()} legt einen String an.
+ *
+ * equals() und hashCode() vergleichen den Inhalt (hashCode() wie beim entsprechenden String), daher kann
+ * ein AsciiWord direkt als Schlüssel in einer Map verwendet werden.
+ */
+public final class AsciiWord implements CharSequence, Comparable<AsciiWord> {
+
+    final ByteBuffer buffer;
+    final int start;
+    final int end;
+
+    AsciiWord(ByteBuffer buffer, int start, int end) {
+        this.buffer = buffer;
+        this.start = start;
+        this.end = end;
+    }
+
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= end - start) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return (char) (buffer.get(start + index) & 0xff);
+    }
+
+    @Override
+    public CharSequence subSequence(int from, int to) {
+        if (from < 0 || to > end - start || from > to) {
+            throw new IndexOutOfBoundsException("from: " + from + ", to: " + to + ", length: " + length());
+        }
+        return new AsciiWord(buffer, start + from, start + to);
+    }
+
+    @Override
+    public String toString() {
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    @Override
+    public int compareTo(AsciiWord other) {
+        int n = Math.min(length(), other.length());
+        for (int i = 0; i < n; i++) {
+            int c = buffer.get(start + i) - other.buffer.get(other.start + i);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return length() - other.length();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AsciiWord)) {
+            return false;
+        }
+        AsciiWord other = (AsciiWord) o;
+        return length() == other.length() && compareTo(other) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + (buffer.get(i) & 0xff);
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,167 @@
+package streams.text;
+
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Wiederverwendbare Folge von map- und filter-Schritten über die Code Points eines Textes.
+ *
+ * Statt
+ * <pre>
+ *   s.chars().map(c -> c == 'a' ? 'e' : c).mapToObj(c -> String.valueOf(Character.toChars(c))).collect(Collectors.joining())
+ * </pre>
+ * (ein char[] und ein String je Zeichen) schreibt eine CharPipeline die Code Points direkt in einen
+ * StringBuilder oder ein char[]:
+ * <pre>
+ *   CharPipeline replaceA = CharPipeline.identity().map(c -> c == 'a' ? 'e' : c);
+ *   String result = replaceA.apply(s);
+ *   replaceA.appendTo(s, builder);    // ohne jede Allokation, wenn builder groß genug ist
+ * </pre>
+ * Gearbeitet wird mit Code Points, nicht mit chars: Zeichen außerhalb der BMP (z.B. Emojis, bestehend aus zwei
+ * chars) werden als ein Wert an map/filter übergeben.
+ *
+ * Die Schritte werden beim Aufbau zu einer einzigen Funktion zusammengesetzt; eine CharPipeline ist unveränderbar
+ * und kann von mehreren Threads gleichzeitig verwendet werden.
+ */
+public final class CharPipeline {
+
+    /** Ergebnis der zusammengesetzten Funktion für ein herausgefiltertes Zeichen */
+    private static final int DROPPED = -1;
+
+    private static final CharPipeline IDENTITY = new CharPipeline(c -> c);
+
+    private final IntUnaryOperator function;
+
+    private CharPipeline(IntUnaryOperator function) {
+        this.function = function;
+    }
+
+    /** Pipeline ohne Schritte: jeder Code Point bleibt unverändert */
+    public static CharPipeline identity() {
+        return IDENTITY;
+    }
+
+    /** ersetzt jeden Code Point durch mapper(c); mapper muss einen gültigen Code Point liefern */
+    public CharPipeline map(IntUnaryOperator mapper) {
+        IntUnaryOperator previous = function;
+        return new CharPipeline(c -> {
+            int value = previous.applyAsInt(c);
+            if (value == DROPPED) {
+                return DROPPED;
+            }
+            int mapped = mapper.applyAsInt(value);
+            if (!Character.isValidCodePoint(mapped)) {
+                throw new IllegalArgumentException("not a valid code point: " + mapped);
+            }
+            return mapped;
+        });
+    }
+
+    /** behält nur die Code Points, für die predicate true liefert */
+    public CharPipeline filter(IntPredicate predicate) {
+        IntUnaryOperator previous = function;
+        return new CharPipeline(c -> {
+            int value = previous.applyAsInt(c);
+            return value == DROPPED || !predicate.test(value) ? DROPPED : value;
+        });
+    }
+
+    /** wendet die Pipeline auf input an */
+    public String apply(CharSequence input) {
+        StringBuilder builder = new StringBuilder(input.length());
+        appendTo(input, builder);
+        return builder.toString();
+    }
+
+    /** hängt das Ergebnis für input an builder an */
+    public StringBuilder appendTo(CharSequence input, StringBuilder builder) {
+        int length = input.length();
+        int i = 0;
+        while (i < length) {
+            int c = Character.codePointAt(input, i);
+            i += Character.charCount(c);
+            int value = function.applyAsInt(c);
+            if (value != DROPPED) {
+                builder.appendCodePoint(value);
+            }
+        }
+        return builder;
+    }
+
+    /**
+     * Wie {@link #appendTo(CharSequence, StringBuilder)}, aber mit delimiter zwischen den einzelnen Zeichen
+     * (vgl. {@code Collectors.joining(delimiter)}).
+     */
+    public StringBuilder appendTo(CharSequence input, CharSequence delimiter, StringBuilder builder) {
+        int length = input.length();
+        boolean first = true;
+        int i = 0;
+        while (i < length) {
+            int c = Character.codePointAt(input, i);
+            i += Character.charCount(c);
+            int value = function.applyAsInt(c);
+            if (value != DROPPED) {
+                if (!first) {
+                    builder.append(delimiter);
+                }
+                builder.appendCodePoint(value);
+                first = false;
+            }
+        }
+        return builder;
+    }
+
+    /** das Ergebnis für input mit delimiter zwischen den einzelnen Zeichen */
+    public String joining(CharSequence input, CharSequence delimiter) {
+        return appendTo(input, delimiter, new StringBuilder(input.length() * (1 + delimiter.length()))).toString();
+    }
+
+    /**
+     * Schreibt das Ergebnis für input ab offset in dest und liefert die Anzahl der geschriebenen chars.
+     * Ist dest zu klein, wird eine IndexOutOfBoundsException geworfen.
+     */
+    public int writeTo(CharSequence input, char[] dest, int offset) {
+        int length = input.length();
+        int pos = offset;
+        int i = 0;
+        while (i < length) {
+            int c = Character.codePointAt(input, i);
+            i += Character.charCount(c);
+            int value = function.applyAsInt(c);
+            if (value != DROPPED) {
+                pos += Character.toChars(value, dest, pos);
+            }
+        }
+        return pos - offset;
+    }
+
+    /** ruft action mit jedem Code Point des Ergebnisses auf */
+    public void forEach(CharSequence input, IntConsumer action) {
+        int length = input.length();
+        int i = 0;
+        while (i < length) {
+            int c = Character.codePointAt(input, i);
+            i += Character.charCount(c);
+            int value = function.applyAsInt(c);
+            if (value != DROPPED) {
+                action.accept(value);
+            }
+        }
+    }
+
+    /** Anzahl der Code Points im Ergebnis */
+    public long count(CharSequence input) {
+        int length = input.length();
+        long count = 0;
+        int i = 0;
+        while (i < length) {
+            int c = Character.codePointAt(input, i);
+            i += Character.charCount(c);
+            if (function.applyAsInt(c) != DROPPED) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
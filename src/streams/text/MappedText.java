@@ -0,0 +1,92 @@
+package streams.text;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Zerlegt eine Textdatei direkt im memory-mapped Puffer in Worte, ohne Strings oder eine Wortliste anzulegen.
+ *
+ * Worte sind - wie bei {@code split("[\\P{Alpha}]+")} - Folgen der Buchstaben A-Z und a-z. Alle anderen Bytes
+ * trennen Worte. Das gilt auch für Umlaute: In UTF-8 (und jeder anderen ASCII-kompatiblen Kodierung) bestehen
+ * sie nur aus Bytes >= 0x80 und trennen daher, genau wie {@code \P{Alpha}}. Leere Worte werden nicht geliefert.
+ *
+ * Dateien größer als 2 GB werden abschnittsweise gemappt; ein Wort wird dabei nie auf zwei Abschnitte aufgeteilt.
+ */
+public final class MappedText {
+
+    /** Größe eines gemappten Abschnitts */
+    static final int CHUNK_SIZE = 1 << 30;
+
+    /** erhält jedes Wort als Bereich [start, end) im Puffer */
+    @FunctionalInterface
+    public interface WordConsumer {
+        void accept(ByteBuffer buffer, int start, int end);
+    }
+
+    private MappedText() {
+    }
+
+    public static boolean isLetter(byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z');
+    }
+
+    /** liefert jedes Wort der Datei in der Reihenfolge des Textes an consumer */
+    public static void forEachWord(Path file, WordConsumer consumer) throws IOException {
+        for (ByteBuffer buffer : map(file)) {
+            forEachWord(buffer, 0, buffer.limit(), consumer);
+        }
+    }
+
+    /**
+     * Mappt die Datei in Abschnitten von höchstens {@link #CHUNK_SIZE} Bytes. Das limit() jedes Abschnitts liegt
+     * an einer Wortgrenze, jedes Wort liegt also vollständig in genau einem Abschnitt.
+     */
+    public static List<ByteBuffer> map(Path file) throws IOException {
+        List<ByteBuffer> chunks = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                int length = (int) Math.min(CHUNK_SIZE, size - position);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int end = length;
+                if (position + length < size) {
+                    // nicht der letzte Abschnitt: ein angeschnittenes Wort gehört zum nächsten Abschnitt
+                    while (end > 0 && isLetter(buffer.get(end - 1))) {
+                        end--;
+                    }
+                    if (end == 0) {
+                        end = length;
+                    }
+                }
+                buffer.limit(end);
+                chunks.add(buffer);
+                position += end;
+            }
+        }
+        return chunks;
+    }
+
+    /** liefert jedes Wort im Bereich [from, to) von buffer an consumer */
+    public static void forEachWord(ByteBuffer buffer, int from, int to, WordConsumer consumer) {
+        int i = from;
+        while (i < to) {
+            while (i < to && !isLetter(buffer.get(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < to && isLetter(buffer.get(i))) {
+                i++;
+            }
+            if (i > start) {
+                consumer.accept(buffer, start, i);
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package streams.text;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collector;
+
+/**
+ * Die fünf Auswertungen aus ExamplesCollectors in einem einzigen Durchlauf:
+ * <ul>
+ *     <li>joined: alle Worte mit ", " verkettet</li>
+ *     <li>statistics: Statistik der Wortlängen</li>
+ *     <li>shortWords: verschiedene Worte (klein, sortiert), partitioniert nach Länge &lt;= 5</li>
+ *     <li>firstLetter: verschiedene Worte (klein, sortiert), gruppiert nach dem Anfangsbuchstaben</li>
+ *     <li>wordFrequency: Häufigkeit je Wort (klein), sortiert</li>
+ * </ul>
+ * Jedes Wort wird genau einmal in Kleinschreibung umgewandelt und gezählt ({@link WordTable}); Sortieren,
+ * Partitionieren und Gruppieren passiert erst am Ende über die (wenigen) verschiedenen Worte.
+ */
+public final class WordAnalysis {
+
+    private static final String DELIMITER = ", ";
+
+    private final String joined;
+    private final IntSummaryStatistics statistics;
+    private final Map<Boolean, List<String>> shortWords;
+    private final Map<String, List<String>> firstLetter;
+    private final Map<String, Long> wordFrequency;
+
+    private WordAnalysis(Accumulator acc) {
+        this.joined = acc.joined == null ? null : acc.joined.toString();
+        this.statistics = acc.statistics;
+
+        String[] distinct = acc.table.sortedWords();
+        List<String> shortList = new ArrayList<>();
+        List<String> longList = new ArrayList<>();
+        Map<String, List<String>> groups = new HashMap<>();
+        for (String word : distinct) {
+            (word.length() <= 5 ? shortList : longList).add(word);
+            groups.computeIfAbsent(word.substring(0, 1), k -> new ArrayList<>()).add(word);
+        }
+        this.shortWords = new HashMap<>();
+        this.shortWords.put(false, longList);
+        this.shortWords.put(true, shortList);
+        this.firstLetter = groups;
+        this.wordFrequency = acc.table.toSortedMap();
+    }
+
+    /** fusionierter Collector für einen Stream von Worten, z.B. words.stream().collect(WordAnalysis.collector()) */
+    public static Collector<String, ?, WordAnalysis> collector() {
+        return Collector.of(
+            () -> new Accumulator(true),
+            Accumulator::accept,
+            Accumulator::combine,
+            WordAnalysis::new);
+    }
+
+    /** analysiert die Datei (memory-mapped) in einem Durchlauf, ohne eine Wortliste anzulegen */
+    public static WordAnalysis ofFile(Path file) throws IOException {
+        return ofFile(file, true);
+    }
+
+    /**
+     * Wie {@link #ofFile(Path)}. Mit join == false wird der verkettete Text nicht erzeugt ({@link #getJoined()}
+     * liefert dann null) - bei Dateien mit mehr als 2 GB Text passt er ohnehin nicht in einen String.
+     */
+    public static WordAnalysis ofFile(Path file, boolean join) throws IOException {
+        Accumulator acc = new Accumulator(join);
+        MappedText.forEachWord(file, acc::acceptAscii);
+        return new WordAnalysis(acc);
+    }
+
+    public String getJoined() {
+        return joined;
+    }
+
+    public IntSummaryStatistics getStatistics() {
+        return statistics;
+    }
+
+    public Map<Boolean, List<String>> getShortWords() {
+        return shortWords;
+    }
+
+    public Map<String, List<String>> getFirstLetter() {
+        return firstLetter;
+    }
+
+    public Map<String, Long> getWordFrequency() {
+        return wordFrequency;
+    }
+
+    private static final class Accumulator {
+        private final StringBuilder joined;
+        private final IntSummaryStatistics statistics = new IntSummaryStatistics();
+        private final WordTable table = new WordTable();
+
+        Accumulator(boolean join) {
+            this.joined = join ? new StringBuilder() : null;
+        }
+
+        void accept(String word) {
+            if (joined != null) {
+                if (statistics.getCount() > 0) {
+                    joined.append(DELIMITER);
+                }
+                joined.append(word);
+            }
+            statistics.accept(word.length());
+            table.add(word, 1);
+        }
+
+        void acceptAscii(ByteBuffer buffer, int start, int end) {
+            if (joined != null) {
+                if (statistics.getCount() > 0) {
+                    joined.append(DELIMITER);
+                }
+                for (int i = start; i < end; i++) {
+                    joined.append((char) buffer.get(i));
+                }
+            }
+            statistics.accept(end - start);
+            table.addAscii(buffer, start, end);
+        }
+
+        Accumulator combine(Accumulator other) {
+            if (joined != null && other.statistics.getCount() > 0) {
+                if (statistics.getCount() > 0) {
+                    joined.append(DELIMITER);
+                }
+                joined.append(other.joined);
+            }
+            statistics.combine(other.statistics);
+            table.addAll(other.table);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package streams.text;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static streams.text.MappedText.isLetter;
+
+/**
+ * Spliterator über die Worte (siehe {@link MappedText}) eines Puffers, z.B. einer memory-mapped Datei.
+ * Im Gegensatz zu {@code Arrays.stream(text.split(...))} muss der Text dafür weder als String noch als
+ * Wortliste im Speicher liegen, und parallel() teilt direkt den Puffer.
+ *
+ * Ein Spliterator ist für alle Worte zuständig, deren erstes Zeichen im Bereich [from, to) liegt. Das letzte
+ * Wort darf über to hinausreichen, ein angeschnittenes Wort am Beginn des Bereichs gehört zum Vorgänger.
+ * Geteilt wird daher an beliebigen Positionen, ohne ein Wort zu zerschneiden.
+ *
+ * Zwei Varianten:
+ * <ul>
+ *     <li>{@link #words(ByteBuffer)}: teilt in der Mitte des Bytebereichs, estimateSize() schätzt aus der
+ *     Anzahl der Bytes (nicht SIZED)</li>
+ *     <li>{@link #indexedWords(ByteBuffer)}: zählt vorab (parallel) die Wortanfänge je Block von
+ *     {@value #BLOCK_SIZE} Bytes und teilt nur an Blockgrenzen. Damit ist die Anzahl der Worte jeder
+ *     Hälfte exakt bekannt (SIZED | SUBSIZED), z.B. für count() oder toArray() ohne Umkopieren.</li>
+ * </ul>
+ */
+public final class WordSpliterator implements Spliterator<CharSequence> {
+
+    static final int BLOCK_SIZE = 1 << 16;
+
+    /** kleinere Bereiche werden nicht mehr geteilt */
+    private static final int MIN_SPLIT_SIZE = 1 << 14;
+
+    /** Bytes je Wort (inkl. Trennzeichen) für die Schätzung, ungefähr der Wert für deutschen Text */
+    private static final int BYTES_PER_WORD = 7;
+
+    private final ByteBuffer buffer;
+    private final int limit;
+    private int pos;            // nächste zu untersuchende Position
+    private final int to;       // Worte, die ab to beginnen, gehören nicht mehr dazu
+
+    // nur bei indexedWords(): Präfixsummen der Wortanfänge je Block, sonst null
+    private final long[] index;
+    private int fromBlock;
+    private final int toBlock;
+    private long consumed;      // bereits gelieferte Worte ab fromBlock
+
+    private WordSpliterator(ByteBuffer buffer, int from, int to, long[] index, int fromBlock, int toBlock) {
+        this.buffer = buffer;
+        this.limit = buffer.limit();
+        this.pos = skipPartialWord(from);
+        this.to = to;
+        this.index = index;
+        this.fromBlock = fromBlock;
+        this.toBlock = toBlock;
+    }
+
+    /** Worte von buffer (Position 0 bis limit()), Größe geschätzt */
+    public static Stream<CharSequence> words(ByteBuffer buffer) {
+        return StreamSupport.stream(new WordSpliterator(buffer, 0, buffer.limit(), null, 0, 0), false);
+    }
+
+    /** Worte von buffer (Position 0 bis limit()), Größe exakt (SIZED | SUBSIZED) */
+    public static Stream<CharSequence> indexedWords(ByteBuffer buffer) {
+        int blocks = (buffer.limit() + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        int[] starts = IntStream.range(0, blocks).parallel().map(block -> countWordStarts(buffer, block)).toArray();
+        long[] index = new long[blocks + 1];
+        for (int i = 0; i < blocks; i++) {
+            index[i + 1] = index[i] + starts[i];
+        }
+        return StreamSupport.stream(new WordSpliterator(buffer, 0, buffer.limit(), index, 0, blocks), false);
+    }
+
+    /**
+     * Worte der Datei (memory-mapped). Dateien über 2 GB bestehen aus mehreren Abschnitten
+     * ({@link MappedText#map(Path)}), deren Streams ausgewogen mit Stream.concat verbunden werden.
+     */
+    public static Stream<CharSequence> words(Path file) throws IOException {
+        List<ByteBuffer> chunks = MappedText.map(file);
+        if (chunks.isEmpty()) {
+            return Stream.empty();
+        }
+        return concat(chunks, 0, chunks.size());
+    }
+
+    private static Stream<CharSequence> concat(List<ByteBuffer> chunks, int from, int to) {
+        if (to - from == 1) {
+            return words(chunks.get(from));
+        }
+        int mid = (from + to) >>> 1;
+        return Stream.concat(concat(chunks, from, mid), concat(chunks, mid, to));
+    }
+
+    private static int countWordStarts(ByteBuffer buffer, int block) {
+        int from = block * BLOCK_SIZE;
+        int to = Math.min(from + BLOCK_SIZE, buffer.limit());
+        int count = 0;
+        boolean previous = from > 0 && isLetter(buffer.get(from - 1));
+        for (int i = from; i < to; i++) {
+            boolean letter = isLetter(buffer.get(i));
+            if (letter && !previous) {
+                count++;
+            }
+            previous = letter;
+        }
+        return count;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super CharSequence> action) {
+        int p = pos;
+        while (p < to && !isLetter(buffer.get(p))) {
+            p++;
+        }
+        if (p >= to) {
+            pos = p;
+            return false;
+        }
+        int start = p;
+        while (p < limit && isLetter(buffer.get(p))) {
+            p++;
+        }
+        pos = p;
+        consumed++;
+        action.accept(new AsciiWord(buffer, start, p));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super CharSequence> action) {
+        int p = pos;
+        while (true) {
+            while (p < to && !isLetter(buffer.get(p))) {
+                p++;
+            }
+            if (p >= to) {
+                break;
+            }
+            int start = p;
+            while (p < limit && isLetter(buffer.get(p))) {
+                p++;
+            }
+            consumed++;
+            action.accept(new AsciiWord(buffer, start, p));
+        }
+        pos = p;
+    }
+
+    @Override
+    public Spliterator<CharSequence> trySplit() {
+        // trySplit() liefert den vorderen Teil, this behält den hinteren
+        if (index != null) {
+            int midBlock = (fromBlock + toBlock) >>> 1;
+            int mid = midBlock * BLOCK_SIZE;
+            if (midBlock == fromBlock || mid <= pos) {
+                return null;
+            }
+            WordSpliterator prefix = new WordSpliterator(buffer, pos, mid, index, fromBlock, midBlock);
+            prefix.consumed = consumed;
+            pos = skipPartialWord(mid);
+            fromBlock = midBlock;
+            consumed = 0;
+            return prefix;
+        }
+
+        if (to - pos < MIN_SPLIT_SIZE) {
+            return null;
+        }
+        int mid = (pos + to) >>> 1;
+        WordSpliterator prefix = new WordSpliterator(buffer, pos, mid, null, 0, 0);
+        pos = skipPartialWord(mid);
+        return prefix;
+    }
+
+    /** erste Position ab from, die nicht mitten in einem Wort liegt, das vor from beginnt */
+    private int skipPartialWord(int from) {
+        int p = from;
+        if (p > 0 && isLetter(buffer.get(p - 1))) {
+            while (p < limit && isLetter(buffer.get(p))) {
+                p++;
+            }
+        }
+        return p;
+    }
+
+    @Override
+    public long estimateSize() {
+        if (index != null) {
+            return index[toBlock] - index[fromBlock] - consumed;
+        }
+        return Math.max(0, to - pos) / BYTES_PER_WORD;
+    }
+
+    @Override
+    public int characteristics() {
+        int characteristics = ORDERED | NONNULL | IMMUTABLE;
+        if (index != null) {
+            characteristics |= SIZED | SUBSIZED;
+        }
+        return characteristics;
+    }
+}
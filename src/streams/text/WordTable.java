@@ -0,0 +1,201 @@
+package streams.text;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ObjLongConsumer;
+import java.util.stream.Collector;
+
+/**
+ * Zählt Worte in Kleinschreibung (open addressing, lineares Sondieren).
+ *
+ * Ein Wort kann als String oder direkt als Byte-Bereich eines Puffers ({@link MappedText}) gezählt werden.
+ * Im zweiten Fall wird nur beim ersten Vorkommen eines Wortes ein String angelegt, jedes weitere Vorkommen
+ * erhöht lediglich einen long-Zähler.
+ *
+ * Der Hashwert eines Wortes ist {@code String.hashCode()} der Kleinschreibung, damit beide Wege dieselben
+ * Einträge finden.
+ */
+public final class WordTable {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    // Slot ist frei, wenn words[slot] == null
+    private String[] words;
+    private int[] hashes;
+    private long[] counts;
+    private int size;
+
+    public WordTable() {
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Collector für die Worthäufigkeit, z.B. {@code WordSpliterator.words(buffer).parallel().collect(WordTable.counting())}.
+     * Worte aus einem {@link WordSpliterator} werden ohne Umweg über einen String gezählt.
+     */
+    public static Collector<CharSequence, ?, WordTable> counting() {
+        return Collector.of(WordTable::new, WordTable::add, WordTable::addAll, Collector.Characteristics.UNORDERED);
+    }
+
+    /** zählt word (wird in Kleinschreibung umgewandelt) einmal */
+    public void add(CharSequence word) {
+        if (word instanceof AsciiWord) {
+            AsciiWord ascii = (AsciiWord) word;
+            addAscii(ascii.buffer, ascii.start, ascii.end);
+        } else {
+            add(word.toString(), 1);
+        }
+    }
+
+    /** zählt word (wird in Kleinschreibung umgewandelt) count mal */
+    public void add(String word, long count) {
+        String lower = word.toLowerCase();
+        int hash = lower.hashCode();
+        int mask = words.length - 1;
+        int slot = spread(hash) & mask;
+        while (words[slot] != null) {
+            if (hashes[slot] == hash && words[slot].equals(lower)) {
+                counts[slot] += count;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        insert(slot, lower, hash, count);
+    }
+
+    /** zählt das ASCII-Wort im Bereich [start, end) von buffer einmal */
+    public void addAscii(ByteBuffer buffer, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + toLower(buffer.get(i));
+        }
+        int mask = words.length - 1;
+        int slot = spread(hash) & mask;
+        while (words[slot] != null) {
+            if (hashes[slot] == hash && equalsAscii(words[slot], buffer, start, end)) {
+                counts[slot]++;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        char[] chars = new char[end - start];
+        for (int i = start; i < end; i++) {
+            chars[i - start] = (char) toLower(buffer.get(i));
+        }
+        insert(slot, new String(chars), hash, 1);
+    }
+
+    /** übernimmt alle Zähler von other */
+    public WordTable addAll(WordTable other) {
+        for (int i = 0; i < other.words.length; i++) {
+            if (other.words[i] != null) {
+                add(other.words[i], other.counts[i]);
+            }
+        }
+        return this;
+    }
+
+    /** Häufigkeit von word (Groß-/Kleinschreibung egal), 0 wenn es nicht vorkommt */
+    public long count(String word) {
+        String lower = word.toLowerCase();
+        int hash = lower.hashCode();
+        int mask = words.length - 1;
+        int slot = spread(hash) & mask;
+        while (words[slot] != null) {
+            if (hashes[slot] == hash && words[slot].equals(lower)) {
+                return counts[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return 0;
+    }
+
+    /** Anzahl der verschiedenen Worte */
+    public int size() {
+        return size;
+    }
+
+    public void forEach(ObjLongConsumer<String> action) {
+        for (int i = 0; i < words.length; i++) {
+            if (words[i] != null) {
+                action.accept(words[i], counts[i]);
+            }
+        }
+    }
+
+    /** alle verschiedenen Worte, sortiert */
+    public String[] sortedWords() {
+        String[] sorted = new String[size];
+        int n = 0;
+        for (String word : words) {
+            if (word != null) {
+                sorted[n++] = word;
+            }
+        }
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /** Worthäufigkeit als sortierte Map (wie groupingBy(word -> word, TreeMap::new, counting())) */
+    public Map<String, Long> toSortedMap() {
+        Map<String, Long> map = new TreeMap<>();
+        forEach(map::put);
+        return map;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int toLower(byte b) {
+        return b >= 'A' && b <= 'Z' ? b + ('a' - 'A') : b;
+    }
+
+    private static boolean equalsAscii(String word, ByteBuffer buffer, int start, int end) {
+        if (word.length() != end - start) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (word.charAt(i - start) != toLower(buffer.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void insert(int slot, String word, int hash, long count) {
+        words[slot] = word;
+        hashes[slot] = hash;
+        counts[slot] = count;
+        if (++size > words.length >> 1) {
+            allocate(words.length << 1);
+        }
+    }
+
+    private void allocate(int capacity) {
+        String[] oldWords = words;
+        int[] oldHashes = hashes;
+        long[] oldCounts = counts;
+
+        words = new String[capacity];
+        hashes = new int[capacity];
+        counts = new long[capacity];
+
+        if (oldWords != null) {
+            int mask = capacity - 1;
+            for (int i = 0; i < oldWords.length; i++) {
+                if (oldWords[i] != null) {
+                    int slot = spread(oldHashes[i]) & mask;
+                    while (words[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    words[slot] = oldWords[i];
+                    hashes[slot] = oldHashes[i];
+                    counts[slot] = oldCounts[i];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package streams.vector;
+
+/**
+ * Ein Bereich lo &lt;= x &lt;= hi für double-Werte, den {@link VectorArrays} ohne Lambda prüfen kann.
+ * NaN liegt in keinem Bereich, auch nicht in {@link #all()} - wie bei {@code x >= lo && x <= hi}.
+ * <pre>
+ *   VectorArrays.sum(prices, DoubleCondition.lessThan(100.0))
+ * </pre>
+ */
+public final class DoubleCondition {
+
+    private static final DoubleCondition ALL =
+        new DoubleCondition(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+    private static final DoubleCondition NONE =
+        new DoubleCondition(Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY);
+
+    final double lo;
+    final double hi;
+
+    private DoubleCondition(double lo, double hi) {
+        this.lo = lo;
+        this.hi = hi;
+    }
+
+    /** jeder Wert außer NaN */
+    public static DoubleCondition all() {
+        return ALL;
+    }
+
+    public static DoubleCondition none() {
+        return NONE;
+    }
+
+    /** lo &lt;= x &lt;= hi */
+    public static DoubleCondition between(double lo, double hi) {
+        if (Double.isNaN(lo) || Double.isNaN(hi)) {
+            throw new IllegalArgumentException("bounds must not be NaN: " + lo + ", " + hi);
+        }
+        return lo > hi ? NONE : new DoubleCondition(lo, hi);
+    }
+
+    public static DoubleCondition lessThan(double bound) {
+        return bound == Double.NEGATIVE_INFINITY ? NONE : between(Double.NEGATIVE_INFINITY, Math.nextDown(bound));
+    }
+
+    public static DoubleCondition atMost(double bound) {
+        return between(Double.NEGATIVE_INFINITY, bound);
+    }
+
+    public static DoubleCondition greaterThan(double bound) {
+        return bound == Double.POSITIVE_INFINITY ? NONE : between(Math.nextUp(bound), Double.POSITIVE_INFINITY);
+    }
+
+    public static DoubleCondition atLeast(double bound) {
+        return between(bound, Double.POSITIVE_INFINITY);
+    }
+
+    /** Schnitt der beiden Bereiche */
+    public DoubleCondition and(DoubleCondition other) {
+        double lo = Math.max(this.lo, other.lo);
+        double hi = Math.min(this.hi, other.hi);
+        return lo > hi ? NONE : new DoubleCondition(lo, hi);
+    }
+
+    public boolean test(double x) {
+        return x >= lo && x <= hi;
+    }
+
+    boolean isEmpty() {
+        return lo > hi;
+    }
+
+    @Override
+    public String toString() {
+        return isEmpty() ? "false" : lo + " <= x <= " + hi;
+    }
+}
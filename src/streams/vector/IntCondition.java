@@ -0,0 +1,156 @@
+package streams.vector;
+
+/**
+ * Eine Bedingung für int-Werte, die {@link VectorArrays} ohne Lambda prüfen kann: ein Bereich lo &lt;= n &lt;= hi,
+ * optional zusätzlich n % divisor == 0.
+ * <pre>
+ *   Arrays.stream(a).filter(n -&gt; n &lt; 10).count()
+ *   VectorArrays.count(a, IntCondition.lessThan(10))
+ *
+ *   Arrays.stream(a).filter(n -&gt; n % 3 == 0 &amp;&amp; n % 7 == 0).sum()
+ *   VectorArrays.sum(a, IntCondition.divisibleBy(3).and(IntCondition.divisibleBy(7)))
+ * </pre>
+ * Ein Lambda ist für die Vector API undurchsichtig; diese Form lässt sich dagegen für viele Elemente
+ * gleichzeitig auswerten (Bereich: eine Subtraktion und ein vorzeichenloser Vergleich, Teilbarkeit: eine
+ * Multiplikation mit dem Inversen des Teilers statt einer Division).
+ */
+public final class IntCondition {
+
+    private static final IntCondition ALL = new IntCondition(Integer.MIN_VALUE, Integer.MAX_VALUE, 0, 1);
+    private static final IntCondition NONE = new IntCondition(1, 0, 0, 1);
+
+    final int lo;
+    final int hi;
+    // divisor = odd << shift; |n| ist durch divisor teilbar, wenn die unteren shift Bits 0 sind und |n| >>> shift
+    // durch odd teilbar ist, also (|n| >>> shift) * inverse (mod 2^32) vorzeichenlos <= limit
+    final int shift;
+    final int odd;
+    final int inverse;
+    final int limit;
+
+    private IntCondition(int lo, int hi, int shift, long odd) {
+        if (odd > 1 && odd > 1L << (31 - shift)) {
+            // divisor > 2^31 >= |n|: nur die 0 ist teilbar
+            lo = Math.max(lo, 0);
+            hi = Math.min(hi, 0);
+            shift = 0;
+            odd = 1;
+        }
+        this.lo = lo;
+        this.hi = hi;
+        this.shift = shift;
+        this.odd = (int) odd;
+        this.inverse = inverse(this.odd);
+        this.limit = Integer.divideUnsigned(-1, this.odd);
+    }
+
+    /** jeder Wert */
+    public static IntCondition all() {
+        return ALL;
+    }
+
+    /** kein Wert */
+    public static IntCondition none() {
+        return NONE;
+    }
+
+    /** lo &lt;= n &lt;= hi */
+    public static IntCondition between(int lo, int hi) {
+        return lo > hi ? NONE : new IntCondition(lo, hi, 0, 1);
+    }
+
+    public static IntCondition lessThan(int bound) {
+        return bound == Integer.MIN_VALUE ? NONE : between(Integer.MIN_VALUE, bound - 1);
+    }
+
+    public static IntCondition atMost(int bound) {
+        return between(Integer.MIN_VALUE, bound);
+    }
+
+    public static IntCondition greaterThan(int bound) {
+        return bound == Integer.MAX_VALUE ? NONE : between(bound + 1, Integer.MAX_VALUE);
+    }
+
+    public static IntCondition atLeast(int bound) {
+        return between(bound, Integer.MAX_VALUE);
+    }
+
+    public static IntCondition equalTo(int value) {
+        return between(value, value);
+    }
+
+    /** n % divisor == 0 */
+    public static IntCondition divisibleBy(int divisor) {
+        if (divisor < 1) {
+            throw new IllegalArgumentException("divisor must be positive: " + divisor);
+        }
+        int shift = Integer.numberOfTrailingZeros(divisor);
+        return new IntCondition(Integer.MIN_VALUE, Integer.MAX_VALUE, shift, divisor >>> shift);
+    }
+
+    /** beide Bedingungen: Schnitt der Bereiche, teilbar durch das kgV der Teiler */
+    public IntCondition and(IntCondition other) {
+        int lo = Math.max(this.lo, other.lo);
+        int hi = Math.min(this.hi, other.hi);
+        if (lo > hi) {
+            return NONE;
+        }
+        long a = odd;
+        long b = other.odd;
+        return new IntCondition(lo, hi, Math.max(shift, other.shift), a / gcd(a, b) * b);
+    }
+
+    public boolean test(int n) {
+        return n >= lo && n <= hi && (!hasDivisor() || n % divisor() == 0);
+    }
+
+    boolean isEmpty() {
+        return lo > hi;
+    }
+
+    boolean hasDivisor() {
+        return shift != 0 || odd != 1;
+    }
+
+    /** als long, weil 2^31 als Teiler möglich ist */
+    long divisor() {
+        return (long) odd << shift;
+    }
+
+    @Override
+    public String toString() {
+        if (isEmpty()) {
+            return "false";
+        }
+        StringBuilder sb = new StringBuilder();
+        if (lo != Integer.MIN_VALUE) {
+            sb.append(lo).append(" <= ");
+        }
+        sb.append('n');
+        if (hi != Integer.MAX_VALUE) {
+            sb.append(" <= ").append(hi);
+        }
+        if (hasDivisor()) {
+            sb.append(" && n % ").append(divisor()).append(" == 0");
+        }
+        return sb.toString();
+    }
+
+    /** das Inverse einer ungeraden Zahl modulo 2^32 (Newton-Verfahren, jeder Schritt verdoppelt die gültigen Bits) */
+    private static int inverse(int odd) {
+        int x = odd;        // stimmt in den unteren 3 Bits
+        for (int i = 0; i < 4; i++) {
+            x *= 2 - odd * x;
+        }
+        return x;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
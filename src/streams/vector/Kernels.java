@@ -0,0 +1,40 @@
+package streams.vector;
+
+/**
+ * Die Schleifen hinter {@link VectorArrays}: {@link ScalarKernels} oder, wenn jdk.incubator.vector geladen ist,
+ * {@link VectorKernels}. Die Argumente sind bereits geprüft (Bedingung nicht leer, Array für min/max nicht leer,
+ * Grenzen aufsteigend).
+ */
+interface Kernels {
+
+    long count(int[] a, IntCondition condition);
+
+    long sum(int[] a, IntCondition condition);
+
+    int min(int[] a);
+
+    int max(int[] a);
+
+    /** Anzahl der Elemente je Bereich [boundaries[i], boundaries[i + 1]) */
+    long[] histogram(int[] a, int[] boundaries);
+
+    long count(long[] a, LongCondition condition);
+
+    long sum(long[] a, LongCondition condition);
+
+    long min(long[] a);
+
+    long max(long[] a);
+
+    long[] histogram(long[] a, long[] boundaries);
+
+    long count(double[] a, DoubleCondition condition);
+
+    double sum(double[] a, DoubleCondition condition);
+
+    double min(double[] a);
+
+    double max(double[] a);
+
+    long[] histogram(double[] a, double[] boundaries);
+}
@@ -0,0 +1,145 @@
+package streams.vector;
+
+/**
+ * Wie {@link IntCondition}, für long-Werte: ein Bereich lo &lt;= n &lt;= hi, optional zusätzlich n % divisor == 0.
+ * <pre>
+ *   VectorArrays.count(timestamps, LongCondition.between(from, to))
+ * </pre>
+ */
+public final class LongCondition {
+
+    private static final LongCondition ALL = new LongCondition(Long.MIN_VALUE, Long.MAX_VALUE, 0, 1);
+    private static final LongCondition NONE = new LongCondition(1, 0, 0, 1);
+
+    final long lo;
+    final long hi;
+    // divisor = odd << shift, geprüft wie bei IntCondition, nur modulo 2^64
+    final int shift;
+    final long odd;
+    final long inverse;
+    final long limit;
+
+    private LongCondition(long lo, long hi, int shift, long odd) {
+        this.lo = lo;
+        this.hi = hi;
+        this.shift = shift;
+        this.odd = odd;
+        this.inverse = inverse(odd);
+        this.limit = Long.divideUnsigned(-1L, odd);
+    }
+
+    public static LongCondition all() {
+        return ALL;
+    }
+
+    public static LongCondition none() {
+        return NONE;
+    }
+
+    /** lo &lt;= n &lt;= hi */
+    public static LongCondition between(long lo, long hi) {
+        return lo > hi ? NONE : new LongCondition(lo, hi, 0, 1);
+    }
+
+    public static LongCondition lessThan(long bound) {
+        return bound == Long.MIN_VALUE ? NONE : between(Long.MIN_VALUE, bound - 1);
+    }
+
+    public static LongCondition atMost(long bound) {
+        return between(Long.MIN_VALUE, bound);
+    }
+
+    public static LongCondition greaterThan(long bound) {
+        return bound == Long.MAX_VALUE ? NONE : between(bound + 1, Long.MAX_VALUE);
+    }
+
+    public static LongCondition atLeast(long bound) {
+        return between(bound, Long.MAX_VALUE);
+    }
+
+    public static LongCondition equalTo(long value) {
+        return between(value, value);
+    }
+
+    /** n % divisor == 0 */
+    public static LongCondition divisibleBy(long divisor) {
+        if (divisor < 1) {
+            throw new IllegalArgumentException("divisor must be positive: " + divisor);
+        }
+        int shift = Long.numberOfTrailingZeros(divisor);
+        return new LongCondition(Long.MIN_VALUE, Long.MAX_VALUE, shift, divisor >>> shift);
+    }
+
+    /** beide Bedingungen: Schnitt der Bereiche, teilbar durch das kgV der Teiler */
+    public LongCondition and(LongCondition other) {
+        long lo = Math.max(this.lo, other.lo);
+        long hi = Math.min(this.hi, other.hi);
+        if (lo > hi) {
+            return NONE;
+        }
+        int shift = Math.max(this.shift, other.shift);
+        long a = odd / gcd(odd, other.odd);
+        long b = other.odd;
+        long lcm = a * b;
+        if (Math.multiplyHigh(a, b) != 0 || lcm < 0
+                || lcm > 1 && Long.compareUnsigned(lcm, 1L << (63 - shift)) > 0) {
+            // divisor > 2^63 >= |n|: nur die 0 ist teilbar
+            return between(Math.max(lo, 0), Math.min(hi, 0));
+        }
+        return new LongCondition(lo, hi, shift, lcm);
+    }
+
+    public boolean test(long n) {
+        // für divisor = 2^63 ist divisor() == Long.MIN_VALUE, n % Long.MIN_VALUE == 0 stimmt trotzdem
+        return n >= lo && n <= hi && (!hasDivisor() || n % divisor() == 0);
+    }
+
+    boolean isEmpty() {
+        return lo > hi;
+    }
+
+    boolean hasDivisor() {
+        return shift != 0 || odd != 1;
+    }
+
+    long divisor() {
+        return odd << shift;
+    }
+
+    @Override
+    public String toString() {
+        if (isEmpty()) {
+            return "false";
+        }
+        StringBuilder sb = new StringBuilder();
+        if (lo != Long.MIN_VALUE) {
+            sb.append(lo).append(" <= ");
+        }
+        sb.append('n');
+        if (hi != Long.MAX_VALUE) {
+            sb.append(" <= ").append(hi);
+        }
+        if (hasDivisor()) {
+            sb.append(" && n % ").append(Long.toUnsignedString(divisor())).append(" == 0");
+        }
+        return sb.toString();
+    }
+
+    /** das Inverse einer ungeraden Zahl modulo 2^64 */
+    private static long inverse(long odd) {
+        long x = odd;
+        for (int i = 0; i < 5; i++) {
+            x *= 2 - odd * x;
+        }
+        return x;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
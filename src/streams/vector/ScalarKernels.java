@@ -0,0 +1,190 @@
+package streams.vector;
+
+/** einfache Schleifen, ein Element nach dem anderen */
+final class ScalarKernels implements Kernels {
+
+    @Override
+    public long count(int[] a, IntCondition condition) {
+        long count = 0;
+        for (int n : a) {
+            if (condition.test(n)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public long sum(int[] a, IntCondition condition) {
+        long sum = 0;
+        for (int n : a) {
+            if (condition.test(n)) {
+                sum += n;
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    public int min(int[] a) {
+        int min = a[0];
+        for (int n : a) {
+            min = Math.min(min, n);
+        }
+        return min;
+    }
+
+    @Override
+    public int max(int[] a) {
+        int max = a[0];
+        for (int n : a) {
+            max = Math.max(max, n);
+        }
+        return max;
+    }
+
+    @Override
+    public long[] histogram(int[] a, int[] boundaries) {
+        long[] counts = new long[boundaries.length - 1];
+        for (int n : a) {
+            // Anzahl der Grenzen <= n (binäre Suche); Bereich i hat i + 1 solche Grenzen
+            int lo = 0;
+            int hi = boundaries.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (boundaries[mid] <= n) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            if (lo > 0 && lo < boundaries.length) {
+                counts[lo - 1]++;
+            }
+        }
+        return counts;
+    }
+
+    @Override
+    public long count(long[] a, LongCondition condition) {
+        long count = 0;
+        for (long n : a) {
+            if (condition.test(n)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public long sum(long[] a, LongCondition condition) {
+        long sum = 0;
+        for (long n : a) {
+            if (condition.test(n)) {
+                sum += n;
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    public long min(long[] a) {
+        long min = a[0];
+        for (long n : a) {
+            min = Math.min(min, n);
+        }
+        return min;
+    }
+
+    @Override
+    public long max(long[] a) {
+        long max = a[0];
+        for (long n : a) {
+            max = Math.max(max, n);
+        }
+        return max;
+    }
+
+    @Override
+    public long[] histogram(long[] a, long[] boundaries) {
+        long[] counts = new long[boundaries.length - 1];
+        for (long n : a) {
+            int lo = 0;
+            int hi = boundaries.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (boundaries[mid] <= n) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            if (lo > 0 && lo < boundaries.length) {
+                counts[lo - 1]++;
+            }
+        }
+        return counts;
+    }
+
+    @Override
+    public long count(double[] a, DoubleCondition condition) {
+        long count = 0;
+        for (double x : a) {
+            if (condition.test(x)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public double sum(double[] a, DoubleCondition condition) {
+        double sum = 0;
+        for (double x : a) {
+            if (condition.test(x)) {
+                sum += x;
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    public double min(double[] a) {
+        double min = a[0];
+        for (double x : a) {
+            min = Math.min(min, x);
+        }
+        return min;
+    }
+
+    @Override
+    public double max(double[] a) {
+        double max = a[0];
+        for (double x : a) {
+            max = Math.max(max, x);
+        }
+        return max;
+    }
+
+    @Override
+    public long[] histogram(double[] a, double[] boundaries) {
+        long[] counts = new long[boundaries.length - 1];
+        for (double x : a) {
+            // mit <= statt Double.compare: NaN liegt in keinem Bereich, -0.0 im selben wie 0.0
+            int lo = 0;
+            int hi = boundaries.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (boundaries[mid] <= x) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            if (lo > 0 && lo < boundaries.length) {
+                counts[lo - 1]++;
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,161 @@
+package streams.vector;
+
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+
+/**
+ * Zählen, Summe, Minimum, Maximum und Histogramm über int[], long[] und double[] mit SIMD-Befehlen der CPU
+ * (Vector API, jdk.incubator.vector). Statt
+ * <pre>
+ *   long small = Arrays.stream(a).filter(n -&gt; n &lt; 10).count();
+ *   int sum = Arrays.stream(a).filter(n -&gt; n % 3 == 0 &amp;&amp; n % 7 == 0).sum();
+ * </pre>
+ * mit einer {@link IntCondition} an Stelle des Lambdas
+ * <pre>
+ *   long small = VectorArrays.count(a, IntCondition.lessThan(10));
+ *   long sum = VectorArrays.sum(a, IntCondition.divisibleBy(3).and(IntCondition.divisibleBy(7)));
+ * </pre>
+ * Vektorisiert wird nur, wenn die JVM mit {@code --add-modules jdk.incubator.vector} gestartet wurde (das Modul ist
+ * noch im Inkubator) und nicht mit {@code -Dstreams.vector=false}; sonst rechnen einfache Schleifen dasselbe
+ * Ergebnis, Element für Element. {@link #isVectorized()} sagt, welcher Weg gilt.
+ *
+ * Abweichungen von IntStream/LongStream/DoubleStream:
+ * sum(int[]) liefert long und läuft nicht über; sum(double[]) addiert in anderer Reihenfolge (je Lane eine
+ * Teilsumme) und ohne die Kompensation von DoubleStream.sum, das Ergebnis kann in den letzten Bits abweichen.
+ * Das Histogramm kostet mit der Vector API einen Vergleich je Grenze und Element; bei mehr als
+ * {@value #MAX_VECTOR_BOUNDARIES} Grenzen ist die binäre Suche der einfachen Schleife schneller und wird verwendet.
+ */
+public final class VectorArrays {
+
+    /** bis zu so vielen Grenzen zählt histogram mit der Vector API */
+    public static final int MAX_VECTOR_BOUNDARIES = 64;
+
+    private static final Kernels SCALAR = new ScalarKernels();
+    private static final Kernels KERNELS = load();
+
+    private VectorArrays() {
+    }
+
+    /** true, wenn mit der Vector API gerechnet wird */
+    public static boolean isVectorized() {
+        return KERNELS != SCALAR;
+    }
+
+    /** Anzahl der Elemente, die condition erfüllen */
+    public static long count(int[] a, IntCondition condition) {
+        Objects.requireNonNull(a, "a");
+        return condition.isEmpty() ? 0 : KERNELS.count(a, condition);
+    }
+
+    /** Summe der Elemente, die condition erfüllen */
+    public static long sum(int[] a, IntCondition condition) {
+        Objects.requireNonNull(a, "a");
+        return condition.isEmpty() ? 0 : KERNELS.sum(a, condition);
+    }
+
+    public static OptionalInt min(int[] a) {
+        return a.length == 0 ? OptionalInt.empty() : OptionalInt.of(KERNELS.min(a));
+    }
+
+    public static OptionalInt max(int[] a) {
+        return a.length == 0 ? OptionalInt.empty() : OptionalInt.of(KERNELS.max(a));
+    }
+
+    /**
+     * Anzahl der Elemente je Bereich: result[i] zählt boundaries[i] &lt;= n &lt; boundaries[i + 1], Elemente
+     * außerhalb aller Bereiche werden nicht gezählt. boundaries muss aufsteigend sein.
+     */
+    public static long[] histogram(int[] a, int... boundaries) {
+        Objects.requireNonNull(a, "a");
+        for (int i = 1; i < boundaries.length; i++) {
+            if (boundaries[i - 1] >= boundaries[i]) {
+                throw new IllegalArgumentException("boundaries must be increasing: " + boundaries[i - 1] + ", "
+                    + boundaries[i]);
+            }
+        }
+        return kernelsFor(boundaries.length).histogram(a, boundaries);
+    }
+
+    public static long count(long[] a, LongCondition condition) {
+        Objects.requireNonNull(a, "a");
+        return condition.isEmpty() ? 0 : KERNELS.count(a, condition);
+    }
+
+    /** Summe der Elemente, die condition erfüllen (läuft wie LongStream.sum über) */
+    public static long sum(long[] a, LongCondition condition) {
+        Objects.requireNonNull(a, "a");
+        return condition.isEmpty() ? 0 : KERNELS.sum(a, condition);
+    }
+
+    public static OptionalLong min(long[] a) {
+        return a.length == 0 ? OptionalLong.empty() : OptionalLong.of(KERNELS.min(a));
+    }
+
+    public static OptionalLong max(long[] a) {
+        return a.length == 0 ? OptionalLong.empty() : OptionalLong.of(KERNELS.max(a));
+    }
+
+    public static long[] histogram(long[] a, long... boundaries) {
+        Objects.requireNonNull(a, "a");
+        for (int i = 1; i < boundaries.length; i++) {
+            if (boundaries[i - 1] >= boundaries[i]) {
+                throw new IllegalArgumentException("boundaries must be increasing: " + boundaries[i - 1] + ", "
+                    + boundaries[i]);
+            }
+        }
+        return kernelsFor(boundaries.length).histogram(a, boundaries);
+    }
+
+    public static long count(double[] a, DoubleCondition condition) {
+        Objects.requireNonNull(a, "a");
+        return condition.isEmpty() ? 0 : KERNELS.count(a, condition);
+    }
+
+    public static double sum(double[] a, DoubleCondition condition) {
+        Objects.requireNonNull(a, "a");
+        return condition.isEmpty() ? 0 : KERNELS.sum(a, condition);
+    }
+
+    /** wie DoubleStream.min: NaN, wenn ein Element NaN ist */
+    public static OptionalDouble min(double[] a) {
+        return a.length == 0 ? OptionalDouble.empty() : OptionalDouble.of(KERNELS.min(a));
+    }
+
+    public static OptionalDouble max(double[] a) {
+        return a.length == 0 ? OptionalDouble.empty() : OptionalDouble.of(KERNELS.max(a));
+    }
+
+    /** wie {@link #histogram(int[], int...)}; NaN liegt in keinem Bereich */
+    public static long[] histogram(double[] a, double... boundaries) {
+        Objects.requireNonNull(a, "a");
+        for (int i = 1; i < boundaries.length; i++) {
+            if (!(boundaries[i - 1] < boundaries[i])) {
+                throw new IllegalArgumentException("boundaries must be increasing: " + boundaries[i - 1] + ", "
+                    + boundaries[i]);
+            }
+        }
+        return kernelsFor(boundaries.length).histogram(a, boundaries);
+    }
+
+    private static Kernels kernelsFor(int boundaries) {
+        if (boundaries < 2) {
+            throw new IllegalArgumentException("at least two boundaries needed: " + boundaries);
+        }
+        return boundaries <= MAX_VECTOR_BOUNDARIES ? KERNELS : SCALAR;
+    }
+
+    private static Kernels load() {
+        if (!Boolean.parseBoolean(System.getProperty("streams.vector", "true"))
+                || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return SCALAR;
+        }
+        try {
+            return new VectorKernels();
+        } catch (LinkageError e) {
+            // z.B. das Modul ist vorhanden, aber nicht lesbar
+            return SCALAR;
+        }
+    }
+}
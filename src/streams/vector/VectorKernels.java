@@ -0,0 +1,378 @@
+package streams.vector;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Die Schleifen mit der Vector API: je Durchlauf so viele Elemente, wie in ein Register der CPU passen
+ * (SPECIES_PREFERRED, z.B. 8 ints mit AVX2, 16 mit AVX-512). Die Elemente am Ende, die kein ganzes Register
+ * füllen, rechnet jeweils eine einfache Schleife.
+ *
+ * Nur laden, wenn das Modul jdk.incubator.vector vorhanden ist (siehe {@link VectorArrays}).
+ */
+final class VectorKernels implements Kernels {
+
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+
+    // sum(int[]): je Lane höchstens so viele Durchläufe, bis die 16-Bit-Hälften in int überlaufen könnten
+    private static final int SUM_BLOCK = 1 << 15;
+    // histogram: so viele Elemente je Block, sie bleiben für alle Grenzen im L1-Cache
+    private static final int HISTOGRAM_BLOCK = 1 << 12;
+
+    @Override
+    public long count(int[] a, IntCondition c) {
+        IntVector counts = IntVector.zero(INTS);
+        int i = 0;
+        for (int bound = INTS.loopBound(a.length); i < bound; i += INTS.length()) {
+            counts = counts.add(1, matches(IntVector.fromArray(INTS, a, i), c));
+        }
+        long count = counts.reduceLanes(VectorOperators.ADD);
+        for (; i < a.length; i++) {
+            if (c.test(a[i])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public long sum(int[] a, IntCondition c) {
+        // die Summe kann int überlaufen: getrennt summiert werden die unteren 16 Bits (0..65535) und die oberen
+        // (mit Vorzeichen), jeweils höchstens SUM_BLOCK Durchläufe lang, dann wird in long übernommen
+        long sum = 0;
+        int i = 0;
+        int bound = INTS.loopBound(a.length);
+        while (i < bound) {
+            int end = (int) Math.min(bound, i + (long) SUM_BLOCK * INTS.length());
+            IntVector low = IntVector.zero(INTS);
+            IntVector high = IntVector.zero(INTS);
+            for (; i < end; i += INTS.length()) {
+                IntVector v = IntVector.fromArray(INTS, a, i);
+                VectorMask<Integer> m = matches(v, c);
+                low = low.add(v.and(0xFFFF), m);
+                high = high.add(v.lanewise(VectorOperators.ASHR, 16), m);
+            }
+            for (int lane = 0; lane < INTS.length(); lane++) {
+                sum += ((long) high.lane(lane) << 16) + low.lane(lane);
+            }
+        }
+        for (; i < a.length; i++) {
+            if (c.test(a[i])) {
+                sum += a[i];
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    public int min(int[] a) {
+        IntVector min = IntVector.broadcast(INTS, Integer.MAX_VALUE);
+        int i = 0;
+        for (int bound = INTS.loopBound(a.length); i < bound; i += INTS.length()) {
+            min = min.min(IntVector.fromArray(INTS, a, i));
+        }
+        int result = min.reduceLanes(VectorOperators.MIN);
+        for (; i < a.length; i++) {
+            result = Math.min(result, a[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public int max(int[] a) {
+        IntVector max = IntVector.broadcast(INTS, Integer.MIN_VALUE);
+        int i = 0;
+        for (int bound = INTS.loopBound(a.length); i < bound; i += INTS.length()) {
+            max = max.max(IntVector.fromArray(INTS, a, i));
+        }
+        int result = max.reduceLanes(VectorOperators.MAX);
+        for (; i < a.length; i++) {
+            result = Math.max(result, a[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public long[] histogram(int[] a, int[] boundaries) {
+        // less[j] = Anzahl der Elemente < boundaries[j]; je Block (passt in den L1-Cache) ein Durchlauf je zwei
+        // Grenzen. countBelow ist eine eigene Methode, damit der JIT sie auch für ein einziges großes Array
+        // vollständig übersetzt (in einer OSR-übersetzten Schleife bleiben die Vektoren teils Objekte)
+        long[] less = new long[boundaries.length];
+        int i = 0;
+        int bound = INTS.loopBound(a.length);
+        while (i < bound) {
+            int end = i + Math.min(bound - i, HISTOGRAM_BLOCK);
+            countBelow(a, i, end, boundaries, less);
+            i = end;
+        }
+        for (; i < a.length; i++) {
+            for (int j = 0; j < boundaries.length; j++) {
+                if (a[i] < boundaries[j]) {
+                    less[j]++;
+                }
+            }
+        }
+        return differences(less);
+    }
+
+    @Override
+    public long count(long[] a, LongCondition c) {
+        LongVector counts = LongVector.zero(LONGS);
+        int i = 0;
+        for (int bound = LONGS.loopBound(a.length); i < bound; i += LONGS.length()) {
+            counts = counts.add(1, matches(LongVector.fromArray(LONGS, a, i), c));
+        }
+        long count = counts.reduceLanes(VectorOperators.ADD);
+        for (; i < a.length; i++) {
+            if (c.test(a[i])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public long sum(long[] a, LongCondition c) {
+        LongVector sums = LongVector.zero(LONGS);
+        int i = 0;
+        for (int bound = LONGS.loopBound(a.length); i < bound; i += LONGS.length()) {
+            LongVector v = LongVector.fromArray(LONGS, a, i);
+            sums = sums.add(v, matches(v, c));
+        }
+        long sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < a.length; i++) {
+            if (c.test(a[i])) {
+                sum += a[i];
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    public long min(long[] a) {
+        LongVector min = LongVector.broadcast(LONGS, Long.MAX_VALUE);
+        int i = 0;
+        for (int bound = LONGS.loopBound(a.length); i < bound; i += LONGS.length()) {
+            min = min.min(LongVector.fromArray(LONGS, a, i));
+        }
+        long result = min.reduceLanes(VectorOperators.MIN);
+        for (; i < a.length; i++) {
+            result = Math.min(result, a[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public long max(long[] a) {
+        LongVector max = LongVector.broadcast(LONGS, Long.MIN_VALUE);
+        int i = 0;
+        for (int bound = LONGS.loopBound(a.length); i < bound; i += LONGS.length()) {
+            max = max.max(LongVector.fromArray(LONGS, a, i));
+        }
+        long result = max.reduceLanes(VectorOperators.MAX);
+        for (; i < a.length; i++) {
+            result = Math.max(result, a[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public long[] histogram(long[] a, long[] boundaries) {
+        long[] less = new long[boundaries.length];
+        int i = 0;
+        int bound = LONGS.loopBound(a.length);
+        while (i < bound) {
+            int end = i + Math.min(bound - i, HISTOGRAM_BLOCK);
+            countBelow(a, i, end, boundaries, less);
+            i = end;
+        }
+        for (; i < a.length; i++) {
+            for (int j = 0; j < boundaries.length; j++) {
+                if (a[i] < boundaries[j]) {
+                    less[j]++;
+                }
+            }
+        }
+        return differences(less);
+    }
+
+    @Override
+    public long count(double[] a, DoubleCondition c) {
+        LongVector counts = LongVector.zero(LONGS);
+        int i = 0;
+        for (int bound = DOUBLES.loopBound(a.length); i < bound; i += DOUBLES.length()) {
+            counts = counts.add(1, matches(DoubleVector.fromArray(DOUBLES, a, i), c).cast(LONGS));
+        }
+        long count = counts.reduceLanes(VectorOperators.ADD);
+        for (; i < a.length; i++) {
+            if (c.test(a[i])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public double sum(double[] a, DoubleCondition c) {
+        DoubleVector sums = DoubleVector.zero(DOUBLES);
+        int i = 0;
+        for (int bound = DOUBLES.loopBound(a.length); i < bound; i += DOUBLES.length()) {
+            DoubleVector v = DoubleVector.fromArray(DOUBLES, a, i);
+            sums = sums.add(v, matches(v, c));
+        }
+        double sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < a.length; i++) {
+            if (c.test(a[i])) {
+                sum += a[i];
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    public double min(double[] a) {
+        DoubleVector min = DoubleVector.broadcast(DOUBLES, Double.POSITIVE_INFINITY);
+        int i = 0;
+        for (int bound = DOUBLES.loopBound(a.length); i < bound; i += DOUBLES.length()) {
+            min = min.min(DoubleVector.fromArray(DOUBLES, a, i));
+        }
+        double result = min.reduceLanes(VectorOperators.MIN);
+        for (; i < a.length; i++) {
+            result = Math.min(result, a[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public double max(double[] a) {
+        DoubleVector max = DoubleVector.broadcast(DOUBLES, Double.NEGATIVE_INFINITY);
+        int i = 0;
+        for (int bound = DOUBLES.loopBound(a.length); i < bound; i += DOUBLES.length()) {
+            max = max.max(DoubleVector.fromArray(DOUBLES, a, i));
+        }
+        double result = max.reduceLanes(VectorOperators.MAX);
+        for (; i < a.length; i++) {
+            result = Math.max(result, a[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public long[] histogram(double[] a, double[] boundaries) {
+        long[] less = new long[boundaries.length];
+        int i = 0;
+        int bound = DOUBLES.loopBound(a.length);
+        while (i < bound) {
+            int end = i + Math.min(bound - i, HISTOGRAM_BLOCK);
+            countBelow(a, i, end, boundaries, less);
+            i = end;
+        }
+        for (; i < a.length; i++) {
+            for (int j = 0; j < boundaries.length; j++) {
+                if (a[i] < boundaries[j]) {
+                    less[j]++;
+                }
+            }
+        }
+        return differences(less);
+    }
+
+    /** lo &lt;= v &lt;= hi als ein vorzeichenloser Vergleich: v - lo &lt;= hi - lo */
+    private static VectorMask<Integer> matches(IntVector v, IntCondition c) {
+        VectorMask<Integer> m = v.sub(c.lo).compare(VectorOperators.UNSIGNED_LE, c.hi - c.lo);
+        if (c.hasDivisor()) {
+            IntVector abs = v.lanewise(VectorOperators.ABS);    // |Integer.MIN_VALUE| ist vorzeichenlos 2^31
+            m = m.and(abs.and((1 << c.shift) - 1).compare(VectorOperators.EQ, 0))
+                .and(abs.lanewise(VectorOperators.LSHR, c.shift).mul(c.inverse)
+                    .compare(VectorOperators.UNSIGNED_LE, c.limit));
+        }
+        return m;
+    }
+
+    private static VectorMask<Long> matches(LongVector v, LongCondition c) {
+        VectorMask<Long> m = v.sub(c.lo).compare(VectorOperators.UNSIGNED_LE, c.hi - c.lo);
+        if (c.hasDivisor()) {
+            LongVector abs = v.lanewise(VectorOperators.ABS);
+            m = m.and(abs.and((1L << c.shift) - 1).compare(VectorOperators.EQ, 0))
+                .and(abs.lanewise(VectorOperators.LSHR, c.shift).mul(c.inverse)
+                    .compare(VectorOperators.UNSIGNED_LE, c.limit));
+        }
+        return m;
+    }
+
+    private static VectorMask<Double> matches(DoubleVector v, DoubleCondition c) {
+        return v.compare(VectorOperators.GE, c.lo).and(v.compare(VectorOperators.LE, c.hi));
+    }
+
+    /** less[j] += Anzahl der Elemente in a[from, to) kleiner als boundaries[j]; je Durchlauf zwei Grenzen */
+    private static void countBelow(int[] a, int from, int to, int[] boundaries, long[] less) {
+        for (int j = 0; j < boundaries.length; j += 2) {
+            int lower = boundaries[j];
+            int upper = boundaries[Math.min(j + 1, boundaries.length - 1)];
+            IntVector belowLower = IntVector.zero(INTS);
+            IntVector belowUpper = IntVector.zero(INTS);
+            for (int k = from; k < to; k += INTS.length()) {
+                IntVector v = IntVector.fromArray(INTS, a, k);
+                belowLower = belowLower.add(1, v.compare(VectorOperators.LT, lower));
+                belowUpper = belowUpper.add(1, v.compare(VectorOperators.LT, upper));
+            }
+            less[j] += belowLower.reduceLanes(VectorOperators.ADD);
+            if (j + 1 < boundaries.length) {
+                less[j + 1] += belowUpper.reduceLanes(VectorOperators.ADD);
+            }
+        }
+    }
+
+    /** less[j] += Anzahl der Elemente in a[from, to) kleiner als boundaries[j]; je Durchlauf zwei Grenzen */
+    private static void countBelow(long[] a, int from, int to, long[] boundaries, long[] less) {
+        for (int j = 0; j < boundaries.length; j += 2) {
+            long lower = boundaries[j];
+            long upper = boundaries[Math.min(j + 1, boundaries.length - 1)];
+            LongVector belowLower = LongVector.zero(LONGS);
+            LongVector belowUpper = LongVector.zero(LONGS);
+            for (int k = from; k < to; k += LONGS.length()) {
+                LongVector v = LongVector.fromArray(LONGS, a, k);
+                belowLower = belowLower.add(1, v.compare(VectorOperators.LT, lower));
+                belowUpper = belowUpper.add(1, v.compare(VectorOperators.LT, upper));
+            }
+            less[j] += belowLower.reduceLanes(VectorOperators.ADD);
+            if (j + 1 < boundaries.length) {
+                less[j + 1] += belowUpper.reduceLanes(VectorOperators.ADD);
+            }
+        }
+    }
+
+    /** less[j] += Anzahl der Elemente in a[from, to) kleiner als boundaries[j]; je Durchlauf zwei Grenzen */
+    private static void countBelow(double[] a, int from, int to, double[] boundaries, long[] less) {
+        for (int j = 0; j < boundaries.length; j += 2) {
+            double lower = boundaries[j];
+            double upper = boundaries[Math.min(j + 1, boundaries.length - 1)];
+            LongVector belowLower = LongVector.zero(LONGS);
+            LongVector belowUpper = LongVector.zero(LONGS);
+            for (int k = from; k < to; k += DOUBLES.length()) {
+                DoubleVector v = DoubleVector.fromArray(DOUBLES, a, k);
+                belowLower = belowLower.add(1, v.compare(VectorOperators.LT, lower).cast(LONGS));
+                belowUpper = belowUpper.add(1, v.compare(VectorOperators.LT, upper).cast(LONGS));
+            }
+            less[j] += belowLower.reduceLanes(VectorOperators.ADD);
+            if (j + 1 < boundaries.length) {
+                less[j + 1] += belowUpper.reduceLanes(VectorOperators.ADD);
+            }
+        }
+    }
+
+    /** aus der Anzahl der Elemente unter jeder Grenze die Anzahl je Bereich */
+    private static long[] differences(long[] less) {
+        long[] counts = new long[less.length - 1];
+        for (int j = 0; j < counts.length; j++) {
+            counts[j] = less[j + 1] - less[j];
+        }
+        return counts;
+    }
+}
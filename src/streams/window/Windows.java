@@ -0,0 +1,352 @@
+package streams.window;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Fasst die Elemente eines Streams zu Blöcken (batch) oder überlappenden Fenstern (sliding) zusammen.
+ *
+ * <pre>
+ *   batch(Stream.of(1, 2, 3, 4, 5), 2)          -&gt; [1, 2], [3, 4], [5]
+ *   sliding(Stream.of(1, 2, 3, 4, 5), 3, 1)     -&gt; [1, 2, 3], [2, 3, 4], [3, 4, 5]
+ *   sliding(Stream.of(1, 2, 3, 4, 5), 2, 2)     -&gt; [1, 2], [3, 4]
+ * </pre>
+ * Der letzte Block kann kürzer sein; Fenster sind immer vollständig (size Elemente).
+ *
+ * Für Listen und Arrays werden die Blöcke über ihre Indizes berechnet: die Ergebnis-Streams sind SIZED und
+ * lassen sich für parallele Verarbeitung beliebig teilen. Bei einem Stream als Quelle werden die Elemente der
+ * Reihe nach gelesen; geteilt wird (wie bei einem Iterator als Quelle) in Gruppen fertiger Blöcke.
+ *
+ * Soll jeder Block nur an eine Senke weitergegeben werden (z.B. in eine Datei geschrieben), verwenden die
+ * forEachBatch-Methoden einen einzigen Puffer für alle Blöcke.
+ */
+public final class Windows {
+
+    private Windows() {
+    }
+
+    /** Empfänger für einen Block aus int-Werten: buffer[0] bis buffer[length - 1] */
+    @FunctionalInterface
+    public interface IntBatchConsumer {
+        void accept(int[] buffer, int length);
+    }
+
+    /** Empfänger für einen Block aus long-Werten: buffer[0] bis buffer[length - 1] */
+    @FunctionalInterface
+    public interface LongBatchConsumer {
+        void accept(long[] buffer, int length);
+    }
+
+    // ---- Stream<T> ----
+
+    /** Blöcke aus je size Elementen von source, jeder Block eine neue Liste */
+    public static <T> Stream<List<T>> batch(Stream<T> source, int size) {
+        checkSize(size);
+        return StreamSupport.stream(new ObjPulling<>(source.spliterator(), size, size, true), false).onClose(source::close);
+    }
+
+    /** Fenster aus je size Elementen von source, jedes step Elemente nach dem vorigen, jedes eine neue Liste */
+    public static <T> Stream<List<T>> sliding(Stream<T> source, int size, int step) {
+        checkSize(size);
+        checkStep(step);
+        return StreamSupport.stream(new ObjPulling<>(source.spliterator(), size, step, false), false).onClose(source::close);
+    }
+
+    /** Blöcke aus je size Elementen von source, jeder Block eine subList-Sicht auf source */
+    public static <T> Stream<List<T>> batch(List<T> source, int size) {
+        checkSize(size);
+        int n = source.size();
+        return IntStream.range(0, (int) batches(n, size))
+            .mapToObj(b -> source.subList(b * size, Math.min(n, b * size + size)));
+    }
+
+    /** Fenster aus je size Elementen von source, jedes eine subList-Sicht auf source */
+    public static <T> Stream<List<T>> sliding(List<T> source, int size, int step) {
+        checkSize(size);
+        checkStep(step);
+        return IntStream.range(0, (int) windows(source.size(), size, step))
+            .mapToObj(w -> source.subList(w * step, w * step + size));
+    }
+
+    /** übergibt die Blöcke von source an consumer; die Liste wird für jeden Block wiederverwendet */
+    public static <T> void forEachBatch(Stream<T> source, int size, Consumer<? super List<T>> consumer) {
+        checkSize(size);
+        List<T> buffer = new ArrayList<>(size);
+        source.sequential().forEachOrdered(t -> {
+            buffer.add(t);
+            if (buffer.size() == size) {
+                consumer.accept(buffer);
+                buffer.clear();
+            }
+        });
+        if (!buffer.isEmpty()) {
+            consumer.accept(buffer);
+        }
+    }
+
+    // ---- IntStream ----
+
+    /** Blöcke aus je size Werten von source, jeder Block ein neues Array */
+    public static Stream<int[]> batch(IntStream source, int size) {
+        checkSize(size);
+        return StreamSupport.stream(new IntPulling(source.spliterator(), size, size, true), false).onClose(source::close);
+    }
+
+    /** Fenster aus je size Werten von source, jedes step Werte nach dem vorigen */
+    public static Stream<int[]> sliding(IntStream source, int size, int step) {
+        checkSize(size);
+        checkStep(step);
+        return StreamSupport.stream(new IntPulling(source.spliterator(), size, step, false), false).onClose(source::close);
+    }
+
+    /** Blöcke aus je size Werten von source (Kopien der Bereiche) */
+    public static Stream<int[]> batch(int[] source, int size) {
+        checkSize(size);
+        return IntStream.range(0, (int) batches(source.length, size))
+            .mapToObj(b -> Arrays.copyOfRange(source, b * size, Math.min(source.length, b * size + size)));
+    }
+
+    /** übergibt die Blöcke von source an consumer; das Array wird für jeden Block wiederverwendet */
+    public static void forEachBatch(IntStream source, int size, IntBatchConsumer consumer) {
+        checkSize(size);
+        int[] buffer = new int[size];
+        int[] length = new int[1];
+        source.sequential().forEachOrdered(v -> {
+            buffer[length[0]++] = v;
+            if (length[0] == size) {
+                consumer.accept(buffer, size);
+                length[0] = 0;
+            }
+        });
+        if (length[0] > 0) {
+            consumer.accept(buffer, length[0]);
+        }
+    }
+
+    // ---- LongStream ----
+
+    /** Blöcke aus je size Werten von source, jeder Block ein neues Array */
+    public static Stream<long[]> batch(LongStream source, int size) {
+        checkSize(size);
+        return StreamSupport.stream(new LongPulling(source.spliterator(), size, size, true), false).onClose(source::close);
+    }
+
+    /** Fenster aus je size Werten von source, jedes step Werte nach dem vorigen */
+    public static Stream<long[]> sliding(LongStream source, int size, int step) {
+        checkSize(size);
+        checkStep(step);
+        return StreamSupport.stream(new LongPulling(source.spliterator(), size, step, false), false).onClose(source::close);
+    }
+
+    /** Blöcke aus je size Werten von source (Kopien der Bereiche) */
+    public static Stream<long[]> batch(long[] source, int size) {
+        checkSize(size);
+        return IntStream.range(0, (int) batches(source.length, size))
+            .mapToObj(b -> Arrays.copyOfRange(source, b * size, Math.min(source.length, b * size + size)));
+    }
+
+    /** übergibt die Blöcke von source an consumer; das Array wird für jeden Block wiederverwendet */
+    public static void forEachBatch(LongStream source, int size, LongBatchConsumer consumer) {
+        checkSize(size);
+        long[] buffer = new long[size];
+        int[] length = new int[1];
+        source.sequential().forEachOrdered(v -> {
+            buffer[length[0]++] = v;
+            if (length[0] == size) {
+                consumer.accept(buffer, size);
+                length[0] = 0;
+            }
+        });
+        if (length[0] > 0) {
+            consumer.accept(buffer, length[0]);
+        }
+    }
+
+    // ---- Hilfsmethoden ----
+
+    private static void checkSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("size must be positive: " + size);
+        }
+    }
+
+    private static void checkStep(int step) {
+        if (step < 1) {
+            throw new IllegalArgumentException("step must be positive: " + step);
+        }
+    }
+
+    /** Anzahl der Blöcke für elements Elemente (Long.MAX_VALUE = unbekannt) */
+    private static long batches(long elements, int size) {
+        return elements == Long.MAX_VALUE ? Long.MAX_VALUE : (elements + size - 1) / size;
+    }
+
+    /** Anzahl der vollständigen Fenster für elements Elemente (Long.MAX_VALUE = unbekannt) */
+    private static long windows(long elements, int size, int step) {
+        if (elements == Long.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        return elements < size ? 0 : (elements - size) / step + 1;
+    }
+
+    /**
+     * Liest die Quelle der Reihe nach; trySplit (von AbstractSpliterator) gibt Gruppen fertiger Blöcke ab.
+     * Blöcke oder Fenster entstehen in einem Ring-Puffer, jedes Ergebnis ist eine Kopie.
+     */
+    private abstract static class Pulling<R> extends Spliterators.AbstractSpliterator<R> {
+        final int size;
+        final int step;             // bei Blöcken: size
+        final boolean batch;        // Blöcke (der letzte kann kürzer sein) statt Fenster
+        int next;           // Position des ältesten Elements im Ring-Puffer
+        int count;          // Anzahl der Elemente im Ring-Puffer
+        private boolean started;
+
+        Pulling(Spliterator<?> source, int size, int step, boolean batch) {
+            super(batch ? batches(source.estimateSize(), size) : windows(source.estimateSize(), size, step),
+                source.characteristics() & ORDERED);
+            this.size = size;
+            this.step = step;
+            this.batch = batch;
+        }
+
+        /** liest ein Element der Quelle in den Ring-Puffer */
+        abstract boolean pull();
+
+        /** Kopie der count Elemente des Ring-Puffers, das älteste zuerst */
+        abstract R copy();
+
+        @Override
+        public boolean tryAdvance(Consumer<? super R> action) {
+            if (batch) {
+                // Blöcke: Ring-Puffer leeren und neu füllen, ein kürzerer letzter Block ist erlaubt
+                next = 0;
+                count = 0;
+                while (count < size && pull()) {
+                    // weiter lesen
+                }
+                if (count == 0) {
+                    return false;
+                }
+            } else {
+                int needed = started ? step : size;
+                for (int i = 0; i < needed; i++) {
+                    if (!pull()) {
+                        return false;
+                    }
+                }
+                started = true;
+            }
+            action.accept(copy());
+            return true;
+        }
+
+        /** Position für das nächste Element; bei vollem Ring-Puffer wird das älteste überschrieben */
+        int slot() {
+            int slot = (next + count) % size;
+            if (count < size) {
+                count++;
+            } else {
+                next = (next + 1) % size;
+            }
+            return slot;
+        }
+    }
+
+    private static final class ObjPulling<T> extends Pulling<List<T>> implements Consumer<T> {
+        private final Spliterator<T> source;
+        private final Object[] ring;
+
+        ObjPulling(Spliterator<T> source, int size, int step, boolean batch) {
+            super(source, size, step, batch);
+            this.source = source;
+            this.ring = new Object[size];
+        }
+
+        @Override
+        public void accept(T t) {
+            ring[slot()] = t;
+        }
+
+        @Override
+        boolean pull() {
+            return source.tryAdvance(this);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        List<T> copy() {
+            Object[] copy = new Object[count];
+            System.arraycopy(ring, next, copy, 0, count - next);
+            System.arraycopy(ring, 0, copy, count - next, next);
+            return (List<T>) Arrays.asList(copy);
+        }
+    }
+
+    private static final class IntPulling extends Pulling<int[]> implements IntConsumer {
+        private final Spliterator.OfInt source;
+        private final int[] ring;
+
+        IntPulling(Spliterator.OfInt source, int size, int step, boolean batch) {
+            super(source, size, step, batch);
+            this.source = source;
+            this.ring = new int[size];
+        }
+
+        @Override
+        public void accept(int value) {
+            ring[slot()] = value;
+        }
+
+        @Override
+        boolean pull() {
+            return source.tryAdvance((IntConsumer) this);
+        }
+
+        @Override
+        int[] copy() {
+            int[] copy = new int[count];
+            System.arraycopy(ring, next, copy, 0, count - next);
+            System.arraycopy(ring, 0, copy, count - next, next);
+            return copy;
+        }
+    }
+
+    private static final class LongPulling extends Pulling<long[]> implements LongConsumer {
+        private final Spliterator.OfLong source;
+        private final long[] ring;
+
+        LongPulling(Spliterator.OfLong source, int size, int step, boolean batch) {
+            super(source, size, step, batch);
+            this.source = source;
+            this.ring = new long[size];
+        }
+
+        @Override
+        public void accept(long value) {
+            ring[slot()] = value;
+        }
+
+        @Override
+        boolean pull() {
+            return source.tryAdvance((LongConsumer) this);
+        }
+
+        @Override
+        long[] copy() {
+            long[] copy = new long[count];
+            System.arraycopy(ring, next, copy, 0, count - next);
+            System.arraycopy(ring, 0, copy, count - next, next);
+            return copy;
+        }
+    }
+}
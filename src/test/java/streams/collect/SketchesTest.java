@@ -0,0 +1,130 @@
+package streams.collect;
+
+import org.junit.jupiter.api.Test;
+import streams.ExamplesCollectors;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * HyperLogLog, CountMinSketch und SpaceSaving gegen die genauen Ergebnisse von groupingBy(counting()), auf den
+ * Worten des Genesis-Texts aus ExamplesCollectors und auf einer Million künstlicher Worte: die Schätzungen müssen
+ * innerhalb der zugesicherten Schranken liegen, auch nach dem Zusammenführen in einem parallelen Stream.
+ */
+class SketchesTest {
+
+    /** eine Million Worte aus 100.000 verschiedenen, Zipf-verteilt */
+    private static final List<String> WORDS = zipfWords(1_000_000, 100_000);
+    private static final Map<String, Long> EXACT =
+        WORDS.stream().collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+
+    /** die Worte des Genesis-Texts, klein geschrieben, wie in ExamplesCollectors */
+    private static final List<String> GENESIS = Arrays.stream(ExamplesCollectors.GENESIS.split("[\\P{Alpha}]+"))
+        .map(String::toLowerCase)
+        .collect(Collectors.toList());
+    private static final Map<String, Long> GENESIS_EXACT =
+        GENESIS.stream().collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+
+    @Test
+    void hyperLogLogOnGenesis() {
+        HyperLogLog hll = GENESIS.parallelStream().collect(HyperLogLog.collector(14));
+        long exact = GENESIS_EXACT.size();
+        assertTrue(Math.abs(hll.estimate() - exact) <= 3 * hll.relativeError() * exact,
+            () -> "estimate " + hll.estimate() + ", exact " + exact);
+    }
+
+    @Test
+    void countMinSketchOnGenesis() {
+        CountMinSketch cms = GENESIS.parallelStream().collect(CountMinSketch.counting(0.0005, 0.01));
+        assertEquals(GENESIS.size(), cms.size());
+        long bound = (long) (cms.epsilon() * cms.size());
+        GENESIS_EXACT.forEach((word, exact) -> {
+            long estimate = cms.estimate(word);
+            assertTrue(estimate >= exact && estimate - exact <= bound,
+                () -> word + ": estimate " + estimate + ", exact " + exact + ", bound " + bound);
+        });
+    }
+
+    @Test
+    void spaceSavingTopIsExactOnGenesis() {
+        // weniger verschiedene Worte als Zähler: jedes Wort wird genau gezählt
+        SpaceSaving<String> heavyHitters = GENESIS.parallelStream().collect(SpaceSaving.heavyHitters(500));
+        assertTrue(GENESIS_EXACT.size() < heavyHitters.getCapacity());
+        List<SpaceSaving.Entry<String>> top = heavyHitters.top(10);
+        assertEquals(10, top.size());
+        for (SpaceSaving.Entry<String> entry : top) {
+            assertEquals(GENESIS_EXACT.get(entry.getElement()), entry.getCount(), entry::toString);
+            assertEquals(0, entry.getError(), entry::toString);
+        }
+        List<Long> exactTop = GENESIS_EXACT.values().stream()
+            .sorted(Comparator.reverseOrder())
+            .limit(10)
+            .collect(Collectors.toList());
+        assertEquals(exactTop, top.stream().map(SpaceSaving.Entry::getCount).collect(Collectors.toList()));
+    }
+
+    @Test
+    void hyperLogLogWithinThreeStandardErrors() {
+        for (int distinct : new int[] {10, 1_000, 100_000}) {
+            List<String> words = zipfWords(10 * distinct, distinct);
+            HyperLogLog hll = words.parallelStream().collect(HyperLogLog.collector(14));
+            long exact = words.stream().distinct().count();
+            assertTrue(Math.abs(hll.estimate() - exact) <= 3 * hll.relativeError() * exact,
+                () -> "estimate " + hll.estimate() + ", exact " + exact);
+        }
+    }
+
+    @Test
+    void countMinSketchNeverUndercountsAndStaysWithinEpsilon() {
+        CountMinSketch cms = WORDS.parallelStream().collect(CountMinSketch.counting(0.0005, 0.01));
+        assertEquals(WORDS.size(), cms.size());
+        long bound = (long) (cms.epsilon() * cms.size());
+        EXACT.forEach((word, exact) -> {
+            long estimate = cms.estimate(word);
+            assertTrue(estimate >= exact, () -> word + ": estimate " + estimate + " < exact " + exact);
+            assertTrue(estimate - exact <= bound, () -> word + ": estimate " + estimate + ", exact " + exact
+                + ", bound " + bound);
+        });
+    }
+
+    @Test
+    void spaceSavingCountsBracketExactCounts() {
+        SpaceSaving<String> heavyHitters = WORDS.parallelStream().collect(SpaceSaving.heavyHitters(500));
+        assertEquals(WORDS.size(), heavyHitters.size());
+        for (SpaceSaving.Entry<String> entry : heavyHitters.top(heavyHitters.getCapacity())) {
+            long exact = EXACT.get(entry.getElement());
+            assertTrue(entry.getGuaranteedCount() <= exact && exact <= entry.getCount(),
+                () -> entry + ", exact " + exact);
+        }
+        // die häufigsten Worte kommen weit öfter als N / capacity vor und müssen daher dabei sein
+        List<String> top = heavyHitters.top(5).stream().map(SpaceSaving.Entry::getElement).collect(Collectors.toList());
+        assertEquals(List.of("wort0", "wort1", "wort2", "wort3", "wort4"), top);
+    }
+
+    /** size Worte aus vocabulary verschiedenen; das k-häufigste Wort kommt etwa 1/k-mal so oft vor */
+    private static List<String> zipfWords(int size, int vocabulary) {
+        double[] cumulative = new double[vocabulary];
+        double sum = 0;
+        for (int k = 0; k < vocabulary; k++) {
+            sum += 1.0 / (k + 1);
+            cumulative[k] = sum;
+        }
+        double total = sum;
+        SplittableRandom random = new SplittableRandom(42);
+        return Stream.generate(() -> {
+                int k = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+                return "wort" + (k < 0 ? -k - 1 : k);
+            })
+            .limit(size)
+            .collect(Collectors.toList());
+    }
+}